@@ -0,0 +1,188 @@
+package org.example.benchmarks;
+
+import org.example.Book;
+import org.example.BookstoreService;
+import org.example.CatalogUpdater;
+import org.example.GenreDailyRevenue;
+import org.example.GenreRevenue;
+import org.example.Money;
+import org.example.RevenueGroup;
+import org.example.RevenueSummary;
+import org.example.SaleJournal;
+import org.example.SalesArchiver;
+import org.example.SalesColumnStore;
+import org.example.SalesColumnStore.Dimension;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+// Fails the Build When the In-Memory Column Store Disagrees with the Revenue Summary in the Database,
+// After the Initial Load, After Appended Sales, After Journaled Sales Were Written, After an Import, After a Genre Rename and After a Sale Commits
+// Late with an ID Below Ones Already Loaded, or When Archived Sales Stay in the Store
+public class AnalyticsConsistencyCheck {
+    private static final LocalDate LAST_SALE_DAY = DataGenerator.FIRST_SALE_DAY.plusDays(DataGenerator.SALE_DAYS);
+
+    private final List<String> failures = new ArrayList<>();
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        SessionFactory sessionFactory = BenchmarkDatabase.inMemory("analytics_consistency", Map.of());
+
+        try {
+            DataGenerator generator = new DataGenerator(sessionFactory, 13);
+            generator.seed(50, 20, 2000);
+
+            new AnalyticsConsistencyCheck().run(new BookstoreService(sessionFactory), generator);
+        } finally {
+            sessionFactory.close();
+        }
+    }
+
+    private void run(BookstoreService service, DataGenerator generator) throws IOException, InterruptedException {
+        SalesColumnStore store = SalesColumnStore.load(service.getSessionFactory());
+        compare("load", service, store);
+
+        for (int i = 0; i < 10; i++) {
+            store.append(service.handleNewSale(generator.randomCustomerID(), generator.randomBookID(), 1 + i % 3));
+        }
+        compare("append", service, store);
+
+        // Published by the Journal Writer the Way Bookstore Does, One Sale Is of a Book Added After the Load
+        generator.seedBooks(1);
+        journalSales(service, generator, store);
+        compare("journal", service, store);
+
+        generator.seedSales(500);
+        store.refresh(service.getSessionFactory());
+        compare("import", service, store);
+
+        new CatalogUpdater(service.getSessionFactory()).renameGenre(DataGenerator.genre(0), DataGenerator.genre(1));
+        store.refresh(service.getSessionFactory());
+        compare("rename", service, store);
+
+        // Pooled Sale ID Blocks and Concurrent Commits Let a Sale Commit After Higher IDs Were Already Loaded
+        insertLateSale(service, generator);
+        store.refresh(service.getSessionFactory());
+        compare("late commit", service, store);
+
+        new SalesArchiver(service, 1, 0, 0).archiveBefore(DataGenerator.FIRST_SALE_DAY.plusDays(365));
+        store.refresh(service.getSessionFactory());
+        long keptSales = countSales(service);
+        System.out.printf("archive: %d sales kept, %d in memory%n", keptSales, store.size());
+        if (store.size() != keptSales) {
+            failures.add("archive: " + store.size() + " sales in memory, " + keptSales + " kept in the database");
+        }
+
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("In-memory analytics disagree with the database:\n" + String.join("\n", failures));
+        }
+        System.out.println("In-memory analytics match the database.");
+    }
+
+    private void journalSales(BookstoreService service, DataGenerator generator, SalesColumnStore store)
+            throws IOException, InterruptedException {
+        Path file = Files.createTempFile("analytics", ".journal");
+
+        try (SaleJournal journal = new SaleJournal(service, file, 64, 8, 0, 1000)) {
+            journal.onCommit(sales -> {
+                if (!store.append(sales)) {
+                    store.refresh(service.getSessionFactory());
+                }
+            });
+            journal.start();
+
+            for (int i = 0; i < 20; i++) {
+                journal.append(generator.randomCustomerID(), generator.randomBookID(), 1 + i % 3);
+            }
+            journal.append(generator.randomCustomerID(), generator.getBookIDs().getLast(), 1);
+
+            if (!journal.awaitDrained(30, TimeUnit.SECONDS)) {
+                failures.add("journal: not drained within 30 seconds");
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    // Below Every Sequence Value, Recorded in the Revenue Summary Like Any Other Sale
+    private static void insertLateSale(BookstoreService service, DataGenerator generator) {
+        Session session = null;
+        Transaction transaction = null;
+
+        try {
+            session = service.getSessionFactory().openSession();
+            transaction = session.beginTransaction();
+
+            Book book = session.get(Book.class, generator.randomBookID());
+            LocalDate day = DataGenerator.FIRST_SALE_DAY.plusDays(500);
+            session.createNativeMutationQuery("INSERT INTO sales (sale_id, book_id, customer_id, date_of_sale, quantity_sold, " +
+                            "total_price) VALUES (0, :bookID, :customerID, :day, 1, :price)")
+                    .setParameter("bookID", book.getBookID())
+                    .setParameter("customerID", generator.randomCustomerID())
+                    .setParameter("day", day)
+                    .setParameter("price", book.getPrice().minorUnits())
+                    .executeUpdate();
+            RevenueSummary.record(session, book.getGenre(), day, book.getPrice(), 1);
+
+            transaction.commit();
+        } finally {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
+    private static long countSales(BookstoreService service) {
+        try (Session session = service.getSessionFactory().openSession()) {
+            return session.createNativeQuery("SELECT COUNT(*) FROM sales", Long.class).getSingleResult();
+        }
+    }
+
+    private void compare(String step, BookstoreService service, SalesColumnStore store) {
+        Map<String, Money> expectedByGenre = new TreeMap<>();
+        for (GenreRevenue row : service.reportOfTotalRevenueFromEachGenre()) {
+            expectedByGenre.put(row.genre(), row.totalRevenue());
+        }
+
+        Map<String, Money> expectedByDay = new TreeMap<>();
+        for (GenreDailyRevenue row : service.reportOfDailyRevenueByGenre(DataGenerator.FIRST_SALE_DAY, LocalDate.now())) {
+            expectedByDay.merge(row.getDay().toString(), row.getRevenue(), Money::plus);
+        }
+
+        // Every Sale Is Dated Within Range, so the Scan Must Agree with the Totals Kept on Append
+        check(step, "revenue by genre", expectedByGenre, store.revenueBy(Dimension.GENRE, null, null));
+        check(step, "revenue by genre in range", expectedByGenre,
+                store.revenueBy(Dimension.GENRE, DataGenerator.FIRST_SALE_DAY, LocalDate.now()));
+        check(step, "revenue by day", expectedByDay, store.revenueBy(Dimension.DAY, null, null));
+
+        List<RevenueGroup> byDayInRange = store.revenueBy(Dimension.DAY, DataGenerator.FIRST_SALE_DAY, LAST_SALE_DAY);
+        Map<String, Money> expectedInRange = new TreeMap<>(expectedByDay);
+        expectedInRange.keySet().removeIf(day -> LocalDate.parse(day).isAfter(LAST_SALE_DAY));
+        check(step, "revenue by day in range", expectedInRange, byDayInRange);
+
+        System.out.printf("%s: %d sales, %d genres, %d days%n", step, store.size(), expectedByGenre.size(), expectedByDay.size());
+    }
+
+    private void check(String step, String report, Map<String, Money> expected, List<RevenueGroup> actualRows) {
+        Map<String, Money> actual = new TreeMap<>();
+        for (RevenueGroup row : actualRows) {
+            actual.put(row.key(), row.revenue());
+        }
+
+        if (!actual.equals(expected)) {
+            failures.add(step + ", " + report + ": expected " + expected + " but was " + actual);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.benchmarks;
+
+import org.example.HibernateConfig;
+import org.hibernate.SessionFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Dedicated Database Recreated for Every Trial, Never Points at the Application Database.
+// Embedded H2 in PostgreSQL Mode Unless bench.url Names a Real PostgreSQL Database.
+public class BenchmarkDatabase {
+    public static final String URL = System.getProperty("bench.url");
+    public static final String USERNAME = System.getProperty("bench.username", "postgres");
+    public static final String PASSWORD = System.getProperty("bench.password", "postgres");
+
+    private static final AtomicInteger EMBEDDED_DATABASES = new AtomicInteger();
+
+    private BenchmarkDatabase() {
+    }
+
+    public static boolean isEmbedded() {
+        return URL == null;
+    }
+
+    public static SessionFactory create() {
+        return create(Map.of());
+    }
+
+    public static SessionFactory create(Map<String, Object> extraSettings) {
+        if (isEmbedded()) {
+            return inMemory("bench_" + EMBEDDED_DATABASES.incrementAndGet(), extraSettings);
+        }
+
+        Map<String, Object> settings = new HashMap<>();
+        settings.put("hibernate.connection.url", URL);
+        settings.put("hibernate.connection.username", USERNAME);
+        settings.put("hibernate.connection.password", PASSWORD);
+        settings.put("hibernate.hbm2ddl.auto", "create");
+        settings.put("hibernate.show_sql", "false");
+        settings.put("hibernate.hikari.maximumPoolSize", "32");
+        settings.putAll(extraSettings);
+
+        return HibernateConfig.buildSessionFactory(settings);
+    }
+
+    // Private In-Memory H2 Database, Dropped Again When the Session Factory Closes
+    public static SessionFactory inMemory(String name, Map<String, Object> extraSettings) {
+        Map<String, Object> settings = new HashMap<>();
+        settings.put("hibernate.connection.url", "jdbc:h2:mem:" + name + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+        settings.put("hibernate.connection.driver_class", "org.h2.Driver");
+        settings.put("hibernate.connection.username", "sa");
+        settings.put("hibernate.connection.password", "");
+        settings.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        settings.put("hibernate.hbm2ddl.auto", "create-drop");
+        settings.put("hibernate.show_sql", "false");
+        settings.put("hibernate.hikari.maximumPoolSize", "32");
+        settings.putAll(extraSettings);
+
+        return HibernateConfig.buildSessionFactory(settings);
+    }
+}
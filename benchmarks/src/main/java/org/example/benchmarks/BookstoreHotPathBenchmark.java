@@ -0,0 +1,85 @@
+package org.example.benchmarks;
+
+import org.example.Book;
+import org.example.BookstoreService;
+import org.example.GenreDailyRevenue;
+import org.example.GenreRevenue;
+import org.example.PurchaseHistoryEntry;
+import org.example.Sale;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Every Bookstore Operation Behind the Menu, Throughput Plus Sampled Latency Percentiles
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BookstoreHotPathBenchmark {
+    @Param({"1000", "10000"})
+    public int catalogSize;
+
+    @Param({"10000"})
+    public int customers;
+
+    @Param({"100000"})
+    public long salesSize;
+
+    private SessionFactory sessionFactory;
+    private BookstoreService service;
+    private DataGenerator generator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = BenchmarkDatabase.create();
+        service = new BookstoreService(sessionFactory);
+        generator = new DataGenerator(sessionFactory, 42);
+        generator.seed(catalogSize, customers, salesSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public Sale handleNewSale() {
+        return service.handleNewSale(generator.randomCustomerID(), generator.randomBookID(), 1);
+    }
+
+    @Benchmark
+    public List<Book> listBooksByGenre() {
+        return service.listBooksByGenre(generator.randomGenre());
+    }
+
+    @Benchmark
+    public List<Book> listBooksByAuthor() {
+        return service.listBooksByAuthor(generator.randomAuthor());
+    }
+
+    @Benchmark
+    public List<PurchaseHistoryEntry> viewCustomerPurchaseHistory() {
+        return service.viewCustomerPurchaseHistory(generator.randomCustomerID());
+    }
+
+    @Benchmark
+    public List<GenreRevenue> calculateTotalRevenueByGenre() {
+        return service.calculateTotalRevenueByGenre(generator.randomGenre());
+    }
+
+    @Benchmark
+    public List<GenreRevenue> reportOfTotalRevenueFromEachGenre() {
+        return service.reportOfTotalRevenueFromEachGenre();
+    }
+
+    @Benchmark
+    public List<GenreDailyRevenue> reportOfDailyRevenueByGenre() {
+        LocalDate from = generator.randomDay();
+        return service.reportOfDailyRevenueByGenre(from, from.plusDays(29));
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.benchmarks;
+
+import org.example.BookSearchResult;
+import org.example.CatalogSearch;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// First Page of Catalog Search for a Prefix, a Substring and a Misspelled Author.
+// Against PostgreSQL the Trigram Indexes of Migrations 006 and 012 Are Created, Embedded H2 Scans and Has No Typo Tolerance
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogSearchBenchmark {
+    private static final String[] TRIGRAM_INDEXES = {
+            "CREATE EXTENSION IF NOT EXISTS pg_trgm",
+            "CREATE INDEX IF NOT EXISTS idx_books_title_trgm ON books USING gin (title gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_books_author_trgm ON books USING gin (author gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_books_title_trgm_gist ON books USING gist (title gist_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_books_author_trgm_gist ON books USING gist (author gist_trgm_ops)",
+            "ANALYZE books"
+    };
+
+    @Param({"100000"})
+    public int books;
+
+    private SessionFactory sessionFactory;
+    private CatalogSearch search;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = BenchmarkDatabase.create();
+        new DataGenerator(sessionFactory, 42).seedBooks(books);
+
+        if (!BenchmarkDatabase.isEmbedded()) {
+            sessionFactory.inTransaction(session -> {
+                for (String statement : TRIGRAM_INDEXES) {
+                    session.createNativeMutationQuery(statement).executeUpdate();
+                }
+            });
+        }
+        search = new CatalogSearch(sessionFactory);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public List<BookSearchResult> prefix() {
+        return search.search("Title 4242", null, 20);
+    }
+
+    @Benchmark
+    public List<BookSearchResult> substring() {
+        return search.search("itle 4242", null, 20);
+    }
+
+    @Benchmark
+    public List<BookSearchResult> misspelledAuthor() {
+        return search.search("Autohr 4242", null, 20);
+    }
+}
@@ -0,0 +1,115 @@
+package org.example.benchmarks;
+
+import org.example.Book;
+import org.example.BookSearchResult;
+import org.example.CatalogSearch;
+import org.example.Money;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Fails the Build When Catalog Search Drops Its Best Matches Because More Books Match Than It Ranks.
+// The Prefix Matches Sit Between Many Substring Matches, So Neither the Lowest nor the Highest Book IDs Hold Them.
+// Embedded H2 Has No Trigram Similarity, Only the Prefix and Substring Tiers Are Checked
+public class CatalogSearchRankingCheck {
+    private static final int MAX_CANDIDATES = 50;
+    private static final int PAGE_SIZE = 20;
+    private static final String QUERY = "atlas";
+
+    private final List<String> failures = new ArrayList<>();
+
+    public static void main(String[] args) {
+        SessionFactory sessionFactory = BenchmarkDatabase.inMemory("catalog_search_ranking",
+                Map.of(CatalogSearch.MAX_CANDIDATES, String.valueOf(MAX_CANDIDATES)));
+
+        try {
+            seed(sessionFactory);
+            new CatalogSearchRankingCheck().run(sessionFactory);
+        } finally {
+            sessionFactory.close();
+        }
+    }
+
+    private static void seed(SessionFactory sessionFactory) {
+        sessionFactory.inTransaction(session -> {
+            persist(session, 100, "Catlas Volume ", "Check Author");
+            persist(session, 1, "Atlas of the World ", "Check Author");
+            persist(session, 1, "Road Atlas ", "Check Author");
+            persist(session, 1, "Maps ", "Atlas Press");
+            persist(session, 100, "Catlas Supplement ", "Check Author");
+            persist(session, 100, "Unrelated ", "Check Author");
+        });
+    }
+
+    private static void persist(Session session, int books, String title, String author) {
+        for (int i = 0; i < books; i++) {
+            session.persist(new Book(title + i, author, "Check Genre", Money.ofMinor(1000), 10));
+        }
+    }
+
+    private void run(SessionFactory sessionFactory) {
+        CatalogSearch search = new CatalogSearch(sessionFactory);
+        List<BookSearchResult> expected = expectedBest(sessionFactory);
+
+        List<BookSearchResult> found = new ArrayList<>();
+        BookSearchResult after = null;
+        while (true) {
+            List<BookSearchResult> page = search.search(QUERY, after, PAGE_SIZE);
+            found.addAll(page);
+            if (page.size() < PAGE_SIZE) {
+                break;
+            }
+            after = page.getLast();
+        }
+
+        System.out.printf("top result: %s, expected %s%n", title(found), title(expected));
+        if (found.isEmpty() || !found.getFirst().bookID().equals(expected.getFirst().bookID())) {
+            failures.add("top result was " + title(found) + ", expected " + title(expected));
+        }
+
+        List<Long> foundIDs = found.stream().map(BookSearchResult::bookID).toList();
+        List<Long> expectedIDs = expected.stream().map(BookSearchResult::bookID).toList();
+        System.out.printf("results: %d, expected %d%n", foundIDs.size(), expectedIDs.size());
+        if (!foundIDs.equals(expectedIDs)) {
+            failures.add("paged results " + foundIDs + " are not the best " + MAX_CANDIDATES + " matches " + expectedIDs);
+        }
+
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("Catalog search misses its best matches:\n" + String.join("\n", failures));
+        }
+        System.out.println("Catalog search returns its best matches first.");
+    }
+
+    // Every Book Ranked in Java the Way the Search Ranks on H2, Cut to the Bound
+    private static List<BookSearchResult> expectedBest(SessionFactory sessionFactory) {
+        try (Session session = sessionFactory.openSession()) {
+            return session.createQuery("FROM Book", Book.class).getResultList().stream()
+                    .map(book -> new BookSearchResult(book.getBookID(), book.getTitle(), book.getAuthor(), book.getGenre(),
+                            book.getPrice(), matchRank(book.getTitle(), book.getAuthor()), 1))
+                    .filter(result -> result.matchRank() > 0)
+                    .sorted(Comparator.comparingInt(BookSearchResult::matchRank).reversed()
+                            .thenComparing(BookSearchResult::bookID, Comparator.reverseOrder()))
+                    .limit(MAX_CANDIDATES)
+                    .toList();
+        }
+    }
+
+    private static int matchRank(String title, String author) {
+        String lowerTitle = title.toLowerCase(Locale.ROOT);
+        String lowerAuthor = author.toLowerCase(Locale.ROOT);
+        if (lowerTitle.startsWith(QUERY) || lowerAuthor.startsWith(QUERY)
+                || lowerTitle.contains(" " + QUERY) || lowerAuthor.contains(" " + QUERY)) {
+            return 3;
+        }
+        return lowerTitle.contains(QUERY) || lowerAuthor.contains(QUERY) ? 2 : 0;
+    }
+
+    private static String title(List<BookSearchResult> results) {
+        return results.isEmpty() ? "none" : results.getFirst().title();
+    }
+}
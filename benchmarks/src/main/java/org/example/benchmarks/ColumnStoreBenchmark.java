@@ -0,0 +1,80 @@
+package org.example.benchmarks;
+
+import org.example.RevenueGroup;
+import org.example.SalesColumnStore;
+import org.example.SalesColumnStore.Dimension;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Revenue Reports Answered from the In-Memory Column Store, No Database Involved.
+// Rows Are Generated Straight into the Store with the Same Shape DataGenerator Seeds
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ColumnStoreBenchmark {
+    @Param({"1000000", "10000000"})
+    public int sales;
+
+    @Param({"10000"})
+    public int books;
+
+    private SalesColumnStore store;
+    private LocalDate from;
+    private LocalDate to;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        store = new SalesColumnStore();
+
+        long[] prices = new long[books];
+        for (int book = 0; book < books; book++) {
+            store.putBook((long) book, DataGenerator.genre(book % DataGenerator.GENRES),
+                    DataGenerator.author(book / DataGenerator.BOOKS_PER_AUTHOR));
+            prices[book] = 100 + random.nextInt(5000);
+        }
+
+        for (long sale = 1; sale <= sales; sale++) {
+            int book = random.nextInt(books);
+            int quantity = 1 + random.nextInt(3);
+            store.append(sale, (long) book, prices[book] * quantity, quantity,
+                    DataGenerator.FIRST_SALE_DAY.plusDays(random.nextInt(DataGenerator.SALE_DAYS)));
+        }
+
+        from = DataGenerator.FIRST_SALE_DAY.plusDays(30);
+        to = from.plusDays(90);
+    }
+
+    @Benchmark
+    public List<RevenueGroup> revenueByGenre() {
+        return store.revenueBy(Dimension.GENRE, null, null);
+    }
+
+    @Benchmark
+    public List<RevenueGroup> revenueByAuthor() {
+        return store.revenueBy(Dimension.AUTHOR, null, null);
+    }
+
+    @Benchmark
+    public List<RevenueGroup> revenueByDayInQuarter() {
+        return store.revenueBy(Dimension.DAY, from, to);
+    }
+
+    // Only Report That Scans the Rows, Totals Kept on Append Cannot Answer a Date Range per Genre
+    @Benchmark
+    public List<RevenueGroup> revenueByGenreInQuarter() {
+        return store.revenueBy(Dimension.GENRE, from, to);
+    }
+
+    @Benchmark
+    public List<RevenueGroup> topTenAuthors() {
+        return store.topBy(Dimension.AUTHOR, 10, null, null);
+    }
+}
@@ -0,0 +1,176 @@
+package org.example.benchmarks;
+
+import org.example.Book;
+import org.example.Customer;
+import org.example.Money;
+import org.example.SaleImporter;
+import org.example.SaleRecord;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+// Seeds Catalog, Customers and Sales with Reproducible Random Data, Picks Random Rows for Benchmark Threads
+public class DataGenerator {
+    public static final int GENRES = 20;
+    public static final int BOOKS_PER_AUTHOR = 10;
+    public static final LocalDate FIRST_SALE_DAY = LocalDate.of(2021, 1, 1);
+    public static final int SALE_DAYS = 3 * 365;
+
+    private static final int BATCH_SIZE = 500;
+
+    private final SessionFactory sessionFactory;
+    private final SplittableRandom random;
+
+    private List<Long> bookIDs;
+    private List<Long> customerIDs;
+
+    public DataGenerator(SessionFactory sessionFactory, long seed) {
+        this.sessionFactory = sessionFactory;
+        this.random = new SplittableRandom(seed);
+    }
+
+    public static String genre(int index) {
+        return "Genre " + index;
+    }
+
+    public static String author(int index) {
+        return "Author " + index;
+    }
+
+    public void seed(int books, int customers, long sales) {
+        seedBooks(books);
+        seedCustomers(customers);
+        seedSales(sales);
+    }
+
+    public void seedBooks(int books) {
+        inBatches(books, (session, i) -> session.persist(new Book("Title " + i, author(i / BOOKS_PER_AUTHOR), genre(i % GENRES),
+                Money.ofMinor(100 + random.nextInt(5000)), Integer.MAX_VALUE / 2)));
+
+        try (Session session = sessionFactory.openSession()) {
+            bookIDs = session.createQuery("SELECT b.bookID FROM Book b ORDER BY b.bookID", Long.class).getResultList();
+        }
+    }
+
+    public void seedCustomers(int customers) {
+        inBatches(customers, (session, i) -> session.persist(new Customer("Customer " + i, email(i),
+                "+1" + (1_000_000_000L + i))));
+
+        try (Session session = sessionFactory.openSession()) {
+            customerIDs = session.createQuery("SELECT c.customerID FROM Customer c ORDER BY c.customerID", Long.class).getResultList();
+        }
+    }
+
+    public void seedSales(long sales) {
+        new SaleImporter(sessionFactory).importSales(new Iterator<>() {
+            private long generated;
+
+            @Override
+            public boolean hasNext() {
+                return generated < sales;
+            }
+
+            @Override
+            public SaleRecord next() {
+                generated++;
+                return sale(random);
+            }
+        });
+    }
+
+    // Pickers Below Are Safe to Call from Several Benchmark Threads
+    public SaleRecord randomSale() {
+        return sale(ThreadLocalRandom.current());
+    }
+
+    public Long randomBookID() {
+        return bookID(ThreadLocalRandom.current());
+    }
+
+    public Long randomCustomerID() {
+        return customerID(ThreadLocalRandom.current());
+    }
+
+    public String randomCustomerEmail() {
+        return email(ThreadLocalRandom.current().nextInt(customerIDs.size()));
+    }
+
+    public LocalDate randomDay() {
+        return day(ThreadLocalRandom.current());
+    }
+
+    public String randomGenre() {
+        return genre(ThreadLocalRandom.current().nextInt(GENRES));
+    }
+
+    public String randomAuthor() {
+        return author(ThreadLocalRandom.current().nextInt(Math.max(1, bookIDs.size() / BOOKS_PER_AUTHOR)));
+    }
+
+    private static String email(int customer) {
+        return "customer" + customer + "@example.org";
+    }
+
+    private SaleRecord sale(RandomGenerator generator) {
+        return new SaleRecord(customerID(generator), bookID(generator), day(generator), 1 + generator.nextInt(3));
+    }
+
+    private Long bookID(RandomGenerator generator) {
+        return bookIDs.get(generator.nextInt(bookIDs.size()));
+    }
+
+    private Long customerID(RandomGenerator generator) {
+        return customerIDs.get(generator.nextInt(customerIDs.size()));
+    }
+
+    private LocalDate day(RandomGenerator generator) {
+        return FIRST_SALE_DAY.plusDays(generator.nextInt(SALE_DAYS));
+    }
+
+    public List<Long> getBookIDs() {
+        return bookIDs;
+    }
+
+    public List<Long> getCustomerIDs() {
+        return customerIDs;
+    }
+
+    private void inBatches(int count, RowWriter writer) {
+        Session session = null;
+        Transaction transaction = null;
+
+        try {
+            session = sessionFactory.openSession();
+            session.setJdbcBatchSize(BATCH_SIZE);
+            transaction = session.beginTransaction();
+
+            for (int i = 0; i < count; i++) {
+                writer.write(session, i);
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+
+            transaction.commit();
+        } finally {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
+    private interface RowWriter {
+        void write(Session session, int index);
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.benchmarks;
+
+import org.example.Book;
+import org.example.Money;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Flush of a Session Holding Many Loaded Books of Which Only a Few Changed. Compare a Normal Build
+// with One Built Using -Dhibernate.enhance.phase=none to See What Enhanced Dirty Tracking Saves.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class FlushBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int entitiesInSession;
+
+    @Param({"0", "10"})
+    public int changedEntities;
+
+    private SessionFactory sessionFactory;
+    private Session session;
+    private Transaction transaction;
+    private List<Book> books;
+
+    @Setup(Level.Trial)
+    public void setUpDatabase() {
+        sessionFactory = BenchmarkDatabase.create();
+        new DataGenerator(sessionFactory, 42).seedBooks(entitiesInSession);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownDatabase() {
+        sessionFactory.close();
+    }
+
+    @Setup(Level.Invocation)
+    public void loadBooks() {
+        session = sessionFactory.openSession();
+        transaction = session.beginTransaction();
+        books = session.createQuery("FROM Book", Book.class).getResultList();
+    }
+
+    @TearDown(Level.Invocation)
+    public void discardChanges() {
+        transaction.rollback();
+        session.close();
+    }
+
+    @Benchmark
+    public void changeAndFlush() {
+        for (int i = 0; i < changedEntities; i++) {
+            Book book = books.get(i);
+            book.setPrice(book.getPrice().plus(Money.ofMinor(1)));
+        }
+        session.flush();
+    }
+}
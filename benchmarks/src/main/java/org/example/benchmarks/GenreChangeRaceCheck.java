@@ -0,0 +1,85 @@
+package org.example.benchmarks;
+
+import org.example.BookstoreService;
+import org.example.CatalogUpdater;
+import org.example.RevenueMismatch;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+// Fails the Build When a Sale Racing a Genre Change Records Its Revenue Under the Old Genre.
+// A Third Session Holds the Book's Row Lock While the Genre Change and Then the Sale Queue Up Behind It,
+// So the Sale Has Loaded the Book with Its Old Genre and Only Gets the Lock After the Change Committed
+public class GenreChangeRaceCheck {
+    private static final long QUEUE_MILLIS = 300;
+
+    private final List<String> failures = new ArrayList<>();
+
+    public static void main(String[] args) throws Exception {
+        // Waiters Must Outlast the Queueing Pauses Below, H2 Gives Up on a Row Lock After One Second by Default
+        SessionFactory sessionFactory = BenchmarkDatabase.inMemory("genre_race", Map.of("hibernate.connection.url",
+                "jdbc:h2:mem:genre_race;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000"));
+
+        try {
+            DataGenerator generator = new DataGenerator(sessionFactory, 23);
+            generator.seed(40, 10, 500);
+
+            new GenreChangeRaceCheck().run(new BookstoreService(sessionFactory), generator);
+        } finally {
+            sessionFactory.close();
+        }
+    }
+
+    private void run(BookstoreService service, DataGenerator generator) throws Exception {
+        CatalogUpdater catalogUpdater = new CatalogUpdater(service.getSessionFactory());
+
+        Long bookID = generator.getBookIDs().get(1);
+        race(service, "updateBookDetails", bookID, generator.randomCustomerID(),
+                () -> service.updateBookDetails(bookID, null, null, "Moved Genre", null, null));
+
+        Long renamedBookID = generator.getBookIDs().get(3);
+        race(service, "renameGenre", renamedBookID, generator.randomCustomerID(),
+                () -> catalogUpdater.renameGenre(DataGenerator.genre(3), "Renamed Genre"));
+
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("Sales racing genre changes broke the revenue summary:\n" + String.join("\n", failures));
+        }
+        System.out.println("Revenue summary is exact after sales racing genre changes.");
+    }
+
+    private void race(BookstoreService service, String change, Long bookID, Long customerID, Runnable genreChange)
+            throws Exception {
+        Session holder = service.getSessionFactory().openSession();
+        Transaction transaction = holder.beginTransaction();
+        CompletableFuture<Void> changed;
+        CompletableFuture<Void> sold;
+
+        try {
+            holder.createNativeQuery("SELECT book_id FROM books WHERE book_id = :bookID FOR UPDATE", Long.class)
+                    .setParameter("bookID", bookID)
+                    .getSingleResult();
+
+            changed = CompletableFuture.runAsync(genreChange);
+            Thread.sleep(QUEUE_MILLIS);
+            sold = CompletableFuture.runAsync(() -> service.handleNewSale(customerID, bookID, 1));
+            Thread.sleep(QUEUE_MILLIS);
+        } finally {
+            transaction.rollback();
+            holder.close();
+        }
+
+        changed.get();
+        sold.get();
+
+        List<RevenueMismatch> mismatches = service.verifyRevenueSummary();
+        System.out.printf("%s: %d revenue summary mismatch(es)%n", change, mismatches.size());
+        if (!mismatches.isEmpty()) {
+            failures.add(change + ": " + mismatches);
+        }
+    }
+}
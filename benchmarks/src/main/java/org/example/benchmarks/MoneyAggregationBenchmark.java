@@ -0,0 +1,90 @@
+package org.example.benchmarks;
+
+import org.example.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Summing Sale Totals the Former Float Way Against Fixed-Point Minor Units, Prints the Drift of Each Float Path
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoneyAggregationBenchmark {
+    @Param({"1000000"})
+    public int sales;
+
+    private float[] floatPrices;
+    private long[] minorPrices;
+    private int[] quantities;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        floatPrices = new float[sales];
+        minorPrices = new long[sales];
+        quantities = new int[sales];
+
+        for (int i = 0; i < sales; i++) {
+            long minorPrice = 100 + random.nextInt(5000);
+            minorPrices[i] = minorPrice;
+            floatPrices[i] = minorPrice / 100.0f;
+            quantities[i] = 1 + random.nextInt(3);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void printAccuracy() {
+        BigDecimal exact = Money.ofMinor(fixedPointSum()).toBigDecimal();
+
+        System.out.printf("%nExact total: %s%n", exact.toPlainString());
+        System.out.printf("Float accumulator drift: %s%n",
+                new BigDecimal(Float.toString(floatSum())).subtract(exact).toPlainString());
+        System.out.printf("Double accumulator drift: %s%n",
+                new BigDecimal(Double.toString(floatTotalsDoubleSum())).subtract(exact).toPlainString());
+    }
+
+    // Float Totals Summed into a Float, Like the Former Criteria SUM over the REAL Column
+    @Benchmark
+    public float floatSum() {
+        float sum = 0;
+        for (int i = 0; i < sales; i++) {
+            sum += floatPrices[i] * quantities[i];
+        }
+        return sum;
+    }
+
+    // Float Totals Summed into a Double, Like the Former Revenue Summary
+    @Benchmark
+    public double floatTotalsDoubleSum() {
+        double sum = 0;
+        for (int i = 0; i < sales; i++) {
+            sum += floatPrices[i] * quantities[i];
+        }
+        return sum;
+    }
+
+    // Primitive Minor Units, the Path the Importer and Summary Tables Use Now
+    @Benchmark
+    public long fixedPointSum() {
+        long sum = 0;
+        for (int i = 0; i < sales; i++) {
+            sum += minorPrices[i] * quantities[i];
+        }
+        return sum;
+    }
+
+    // Same Arithmetic Through Money Objects, Shows What Boxing per Sale Would Cost
+    @Benchmark
+    public Money moneySum() {
+        Money sum = Money.ZERO;
+        for (int i = 0; i < sales; i++) {
+            sum = sum.plus(Money.ofMinor(minorPrices[i]).times(quantities[i]));
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.benchmarks;
+
+import org.example.BookstoreService;
+import org.example.CustomerOrder;
+import org.example.OrderLine;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Carts Checked Out per Second: One Transaction for the Whole Cart Against One handleNewSale Commit per Book
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class OrderBenchmark {
+    @Param({"1", "5", "20"})
+    public int cartSize;
+
+    private SessionFactory sessionFactory;
+    private BookstoreService service;
+    private DataGenerator generator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = BenchmarkDatabase.create();
+        service = new BookstoreService(sessionFactory);
+
+        generator = new DataGenerator(sessionFactory, 42);
+        generator.seedBooks(1000);
+        generator.seedCustomers(100);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public CustomerOrder placeOrder() {
+        return service.placeOrder(generator.getCustomerIDs().get(ThreadLocalRandom.current().nextInt(100)), randomCart());
+    }
+
+    @Benchmark
+    public void sellOneByOne(Blackhole blackhole) {
+        Long customerID = generator.getCustomerIDs().get(ThreadLocalRandom.current().nextInt(100));
+        for (OrderLine line : randomCart()) {
+            blackhole.consume(service.handleNewSale(customerID, line.bookID(), line.quantity()));
+        }
+    }
+
+    private List<OrderLine> randomCart() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Long> bookIDs = generator.getBookIDs();
+
+        List<OrderLine> cart = new ArrayList<>(cartSize);
+        for (int i = 0; i < cartSize; i++) {
+            cart.add(new OrderLine(bookIDs.get(random.nextInt(bookIDs.size())), 1 + random.nextInt(3)));
+        }
+        return cart;
+    }
+}
@@ -0,0 +1,156 @@
+package org.example.benchmarks;
+
+import org.example.BookstoreService;
+import org.example.Customer;
+import org.example.OrderLine;
+import org.example.RankingMetric;
+import org.example.Sale;
+import org.example.SalesRankings;
+import org.example.SalesReportFilter;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.Statistics;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// Fails the Build When a Report Issues More SQL Statements Than Its Budget, e.g. After an N+1 Regression,
+// or When Repeating a Report Translates Its Query Again Instead of Reusing the Cached Plan
+public class QueryBudgetCheck {
+    private final SqlStatementCounter counter;
+    private final List<String> failures = new ArrayList<>();
+
+    private QueryBudgetCheck(SqlStatementCounter counter) {
+        this.counter = counter;
+    }
+
+    public static void main(String[] args) {
+        SqlStatementCounter counter = new SqlStatementCounter();
+        SessionFactory sessionFactory = BenchmarkDatabase.inMemory("query_budget",
+                Map.of(AvailableSettings.STATEMENT_INSPECTOR, counter));
+
+        try {
+            DataGenerator generator = new DataGenerator(sessionFactory, 7);
+            generator.seed(50, 20, 500);
+            sessionFactory.getCache().evictAllRegions();
+
+            new QueryBudgetCheck(counter).run(new BookstoreService(sessionFactory), generator);
+        } finally {
+            sessionFactory.close();
+        }
+    }
+
+    private void run(BookstoreService service, DataGenerator generator) {
+        Long customerID = generator.randomCustomerID();
+
+        check("viewCustomerPurchaseHistory", 1, () -> service.viewCustomerPurchaseHistory(customerID));
+        check("viewCustomerPurchaseHistoryPage", 1, () -> service.viewCustomerPurchaseHistoryPage(customerID, null, 10));
+        check("streamCustomerPurchaseHistory", 1, () -> service.streamCustomerPurchaseHistory(customerID, entry -> { }));
+        check("reportOfAllSoldBooks", 1, service::reportOfAllSoldBooks);
+        check("reportOfSoldBooksPage", 1, () -> service.reportOfSoldBooksPage(null, 10));
+        check("streamSoldBooks", 1, () -> service.streamSoldBooks(
+                new SalesReportFilter(DataGenerator.FIRST_SALE_DAY, null, null, generator.randomGenre(), null), entry -> { }));
+        check("calculateTotalRevenueByGenre", 1, () -> service.calculateTotalRevenueByGenre(generator.randomGenre()));
+        check("reportOfTotalRevenueFromEachGenre", 1, service::reportOfTotalRevenueFromEachGenre);
+        check("reportOfDailyRevenueByGenre", 1, () -> service.reportOfDailyRevenueByGenre(
+                DataGenerator.FIRST_SALE_DAY, DataGenerator.FIRST_SALE_DAY.plusDays(DataGenerator.SALE_DAYS)));
+        check("verifyRevenueSummary", 2, service::verifyRevenueSummary);
+
+        // Rankings Are One Statement Each, Names Are Joined In After the Top-N Cut
+        SalesRankings rankings = new SalesRankings(service.getSessionFactory());
+        LocalDate from = DataGenerator.FIRST_SALE_DAY;
+        LocalDate to = from.plusDays(DataGenerator.SALE_DAYS);
+        check("topBooks", 1, () -> rankings.topBooks(RankingMetric.REVENUE, from, to, 10));
+        check("topBooksPerGenre", 1, () -> rankings.topBooksPerGenre(RankingMetric.QUANTITY, from, to, 3));
+        check("topAuthors", 1, () -> rankings.topAuthors(RankingMetric.REVENUE, from, to, 10));
+        check("topCustomers", 1, () -> rankings.topCustomers(from, to, 10));
+        check("customerLifetimeValue", 1, () -> rankings.customerLifetimeValue(customerID));
+        rankings.close();
+
+        // Prices Come from One Query and Lines Are Inserted as One Batch, What Grows with the Cart Is One Stock
+        // Reservation per Book and Two Summary Upserts per Genre, Both Bounded Here by Using Books of One Genre.
+        // H2 Has No UPDATE ... RETURNING, So Each Reservation Re-Reads the Locked Book's Genre with a Second Statement
+        List<OrderLine> cart = Stream.of(0, DataGenerator.GENRES, 2 * DataGenerator.GENRES)
+                .map(index -> new OrderLine(generator.getBookIDs().get(index), 1))
+                .toList();
+        check("placeOrder", 8 + 2 * cart.size(), () -> service.placeOrder(customerID, cart));
+
+        // Associations Are Read After the Session Closed, Which Only Works If They Were Fetched Up Front
+        check("listSalesOfCustomer", 1, () -> service.listSalesOfCustomer(customerID)
+                .forEach(sale -> sale.getBook().getTitle().length()));
+        Long saleID = service.reportOfSoldBooksPage(null, 1).getFirst().saleID();
+        check("findSale", 1, () -> {
+            Sale sale = service.findSale(saleID);
+            sale.getCustomer().getName().length();
+            sale.getBook().getTitle().length();
+        });
+
+        // Repeat Lookups Are Answered from the Natural-ID and Query Caches
+        Customer customer = service.findCustomerByEmail(generator.randomCustomerEmail());
+        String email = customer.getEmail();
+        service.getSessionFactory().getCache().evictAllRegions();
+        check("findCustomerByEmail", 1, () -> service.findCustomerByEmail(email));
+        check("findCustomerByEmail again", 0, () -> service.findCustomerByEmail(email));
+        List<String> emails = Stream.generate(generator::randomCustomerEmail).limit(20).toList();
+        check("findCustomersByEmails", 1, () -> service.findCustomersByEmails(emails));
+        check("findCustomersByEmails again", 0, () -> service.findCustomersByEmails(emails));
+        check("findCustomersByPhone", 1, () -> service.findCustomersByPhone(customer.getPhone()));
+        check("findCustomersByPhone again", 0, () -> service.findCustomersByPhone(customer.getPhone()));
+
+        // A Changed Email Must Not Resolve from a Stale Cache Entry
+        service.updateCustomerInformation(customer.getCustomerID(), null, "changed." + email, null);
+        if (service.findCustomerByEmail(email) != null) {
+            failures.add("findCustomerByEmail still resolves " + email + " after it was changed");
+        }
+        Customer changed = service.findCustomerByEmail("changed." + email);
+        if (changed == null || !changed.getCustomerID().equals(customer.getCustomerID())) {
+            failures.add("findCustomerByEmail does not resolve the changed email of customer " + customer.getCustomerID());
+        }
+
+        // Second Calls with Other Arguments Reuse the Plans Translated by the First
+        Statistics statistics = service.getSessionFactory().getStatistics();
+        LocalDate day = from.plusDays(7);
+        checkPlanReused(statistics, "listBooksByGenre", () -> service.listBooksByGenre(generator.randomGenre()));
+        checkPlanReused(statistics, "listBooksByAuthor", () -> service.listBooksByAuthor(generator.randomAuthor()));
+        checkPlanReused(statistics, "viewCustomerPurchaseHistory",
+                () -> service.viewCustomerPurchaseHistory(generator.randomCustomerID()));
+        checkPlanReused(statistics, "viewCustomerPurchaseHistoryPage",
+                () -> service.viewCustomerPurchaseHistoryPage(customerID, saleID, 10));
+        checkPlanReused(statistics, "reportOfSoldBooksPage", () -> service.reportOfSoldBooksPage(
+                new SalesReportFilter(day, day.plusDays(30), null, generator.randomGenre(), null), saleID, 10));
+        checkPlanReused(statistics, "reportOfTotalRevenueFromEachGenre", service::reportOfTotalRevenueFromEachGenre);
+        checkPlanReused(statistics, "reportOfDailyRevenueByGenre",
+                () -> service.reportOfDailyRevenueByGenre(day, day.plusDays(30)));
+
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("SQL statement budget exceeded:\n" + String.join("\n", failures));
+        }
+        System.out.println("All reports are within their SQL statement budgets.");
+    }
+
+    private void checkPlanReused(Statistics statistics, String report, Runnable action) {
+        action.run();
+        long misses = statistics.getQueryPlanCacheMissCount();
+        action.run();
+
+        long newMisses = statistics.getQueryPlanCacheMissCount() - misses;
+        System.out.printf("%s again: %d query plan cache miss(es)%n", report, newMisses);
+        if (newMisses > 0) {
+            failures.add(report + " missed the query plan cache " + newMisses + " time(s) on a repeated call");
+        }
+    }
+
+    private void check(String report, int budget, Runnable action) {
+        counter.reset();
+        action.run();
+
+        int statements = counter.getCount();
+        System.out.printf("%s: %d statement(s), budget %d%n", report, statements, budget);
+        if (statements > budget) {
+            failures.add(report + " issued " + statements + " statements, budget is " + budget + ": " + counter.getStatements());
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.benchmarks;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Root;
+import org.example.Book;
+import org.example.BookstoreService;
+import org.example.Customer;
+import org.example.PurchaseHistoryEntry;
+import org.example.Sale;
+import org.example.SalesReportFilter;
+import org.example.SoldBookEntry;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Per-Call Cost of Turning a Query into SQL: "criteria" Builds a Criteria Tree on Every Call the Way the Service
+// Used To, Which Hibernate Never Keeps in Its Plan Cache, "named" Calls the Service's Named and Prebuilt Queries.
+// Small Tables and Cached Book Lookups Keep Database Time Low, So Time and gc.alloc.rate.norm Are Mostly Hibernate's
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class QueryPlanCacheBenchmark {
+    @Param({"criteria", "named"})
+    public String queries;
+
+    private SessionFactory sessionFactory;
+    private BookstoreService service;
+    private DataGenerator generator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = BenchmarkDatabase.create();
+        service = new BookstoreService(sessionFactory);
+        generator = new DataGenerator(sessionFactory, 42);
+        generator.seed(1000, 1000, 10_000);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%nQuery plan cache hits: %d, misses: %d%n",
+                sessionFactory.getStatistics().getQueryPlanCacheHitCount(),
+                sessionFactory.getStatistics().getQueryPlanCacheMissCount());
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public List<Book> listBooksByGenre() {
+        String genre = generator.randomGenre();
+        if (queries.equals("named")) {
+            return service.listBooksByGenre(genre);
+        }
+
+        try (Session session = sessionFactory.openSession()) {
+            CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
+            CriteriaQuery<Book> criteriaQuery = criteriaBuilder.createQuery(Book.class);
+            Root<Book> root = criteriaQuery.from(Book.class);
+            criteriaQuery.multiselect(root.get("title"), root.get("author"), root.get("genre"), root.get("price"),
+                    root.get("quantityInStock"));
+            criteriaQuery.where(criteriaBuilder.equal(root.get("genre"), genre));
+
+            return session.createQuery(criteriaQuery)
+                    .setCacheable(true)
+                    .setCacheRegion(BookstoreService.BOOK_LOOKUPS_REGION)
+                    .getResultList();
+        }
+    }
+
+    @Benchmark
+    public List<PurchaseHistoryEntry> viewCustomerPurchaseHistory() {
+        Long customerID = generator.randomCustomerID();
+        if (queries.equals("named")) {
+            return service.viewCustomerPurchaseHistory(customerID);
+        }
+
+        try (Session session = sessionFactory.openSession()) {
+            CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
+            CriteriaQuery<PurchaseHistoryEntry> criteriaQuery = criteriaBuilder.createQuery(PurchaseHistoryEntry.class);
+            Root<Sale> saleRoot = criteriaQuery.from(Sale.class);
+            Join<Sale, Customer> customerJoin = saleRoot.join("customer");
+            Join<Sale, Book> bookJoin = saleRoot.join("book");
+            criteriaQuery.multiselect(saleRoot.get("saleID"), customerJoin.get("name"), bookJoin.get("title"),
+                    bookJoin.get("author"), bookJoin.get("genre"), saleRoot.get("dateOfSale"));
+            criteriaQuery.where(criteriaBuilder.equal(saleRoot.get("customer").get("customerID"), customerID));
+            criteriaQuery.orderBy(criteriaBuilder.asc(saleRoot.get("saleID")));
+
+            return session.createQuery(criteriaQuery).getResultList();
+        }
+    }
+
+    // A Month of One Genre, First Page
+    @Benchmark
+    public List<SoldBookEntry> filteredSoldBooksPage() {
+        LocalDate from = generator.randomDay();
+        String genre = generator.randomGenre();
+        if (queries.equals("named")) {
+            return service.reportOfSoldBooksPage(new SalesReportFilter(from, from.plusDays(29), null, genre, null), null, 50);
+        }
+
+        try (Session session = sessionFactory.openSession()) {
+            CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
+            CriteriaQuery<SoldBookEntry> criteriaQuery = criteriaBuilder.createQuery(SoldBookEntry.class);
+            Root<Sale> saleRoot = criteriaQuery.from(Sale.class);
+            Join<Sale, Customer> customerJoin = saleRoot.join("customer");
+            Join<Sale, Book> bookJoin = saleRoot.join("book");
+            criteriaQuery.multiselect(saleRoot.get("saleID"), customerJoin.get("name"), bookJoin.get("title"),
+                    saleRoot.get("dateOfSale"));
+            criteriaQuery.where(
+                    criteriaBuilder.greaterThanOrEqualTo(saleRoot.get("dateOfSale"), from),
+                    criteriaBuilder.lessThanOrEqualTo(saleRoot.get("dateOfSale"), from.plusDays(29)),
+                    criteriaBuilder.equal(bookJoin.get("genre"), genre));
+            criteriaQuery.orderBy(criteriaBuilder.asc(saleRoot.get("saleID")));
+
+            return session.createQuery(criteriaQuery).setMaxResults(50).getResultList();
+        }
+    }
+}
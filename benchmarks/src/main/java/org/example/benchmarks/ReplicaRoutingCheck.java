@@ -0,0 +1,112 @@
+package org.example.benchmarks;
+
+import org.example.BookstoreService;
+import org.example.ReadReplicaRouter;
+import org.example.SalesRankings;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Fails the Build When Reports Stop Going to Replicas or Writes Leave the Primary.
+// Primary and Replicas Are Separate Embedded Databases, Only Where Statements Run Is Checked.
+public class ReplicaRoutingCheck {
+    private final SqlStatementCounter primaryCounter;
+    private final List<SqlStatementCounter> replicaCounters;
+    private final List<String> failures = new ArrayList<>();
+
+    private ReplicaRoutingCheck(SqlStatementCounter primaryCounter, List<SqlStatementCounter> replicaCounters) {
+        this.primaryCounter = primaryCounter;
+        this.replicaCounters = replicaCounters;
+    }
+
+    public static void main(String[] args) {
+        SqlStatementCounter primaryCounter = new SqlStatementCounter();
+        SessionFactory primary = BenchmarkDatabase.inMemory("routing_primary",
+                Map.of(AvailableSettings.STATEMENT_INSPECTOR, primaryCounter));
+
+        List<SqlStatementCounter> replicaCounters = new ArrayList<>();
+        List<SessionFactory> replicas = new ArrayList<>();
+
+        try {
+            for (int index = 1; index <= 2; index++) {
+                SqlStatementCounter counter = new SqlStatementCounter();
+                Map<String, Object> settings = new HashMap<>(ReadReplicaRouter.replicaSettings(index));
+                settings.put(AvailableSettings.HBM2DDL_AUTO, "create-drop");
+                settings.put(AvailableSettings.STATEMENT_INSPECTOR, counter);
+
+                replicas.add(BenchmarkDatabase.inMemory("routing_replica_" + index, settings));
+                replicaCounters.add(counter);
+            }
+
+            DataGenerator generator = new DataGenerator(primary, 11);
+            generator.seed(20, 10, 100);
+
+            new ReplicaRoutingCheck(primaryCounter, replicaCounters).run(primary, replicas, generator);
+        } finally {
+            replicas.forEach(SessionFactory::close);
+            primary.close();
+        }
+    }
+
+    private void run(SessionFactory primary, List<SessionFactory> replicas, DataGenerator generator) {
+        BookstoreService service = new BookstoreService(new ReadReplicaRouter(primary, replicas, 0));
+        Long customerID = generator.randomCustomerID();
+
+        check("reportOfAllSoldBooks", Target.REPLICA_1, service::reportOfAllSoldBooks);
+        check("viewCustomerPurchaseHistory", Target.REPLICA_2, () -> service.viewCustomerPurchaseHistory(customerID));
+        check("reportOfTotalRevenueFromEachGenre", Target.REPLICA_1, service::reportOfTotalRevenueFromEachGenre);
+        check("handleNewSale", Target.PRIMARY, () -> service.handleNewSale(customerID, generator.randomBookID(), 1));
+        check("verifyRevenueSummary", Target.PRIMARY, service::verifyRevenueSummary);
+
+        // Same Replicas with Read-Your-Writes, Reads Right After a Write Fall Back to the Primary
+        BookstoreService readYourWrites = new BookstoreService(new ReadReplicaRouter(primary, replicas, 60_000));
+
+        // Rankings Created Before the Write Pick the Database per Query, Not Once When Created
+        SalesRankings rankings = new SalesRankings(readYourWrites.getReadRouter(), 0);
+        LocalDate today = LocalDate.now();
+
+        check("reportOfAllSoldBooks before write", Target.REPLICA_1, readYourWrites::reportOfAllSoldBooks);
+        check("topCustomers before write", Target.REPLICA_2, () -> rankings.topCustomers(today.minusYears(10), today, 5));
+        check("handleNewSale", Target.PRIMARY, () -> readYourWrites.handleNewSale(customerID, generator.randomBookID(), 1));
+        check("reportOfAllSoldBooks after write", Target.PRIMARY, readYourWrites::reportOfAllSoldBooks);
+        check("topCustomers after write", Target.PRIMARY, () -> rankings.topCustomers(today.minusYears(10), today, 5));
+
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("Read/write routing is broken:\n" + String.join("\n", failures));
+        }
+        System.out.println("Reads and writes are routed as configured.");
+    }
+
+    private void check(String operation, Target expected, Runnable action) {
+        primaryCounter.reset();
+        replicaCounters.forEach(SqlStatementCounter::reset);
+        action.run();
+
+        Target actual = null;
+        int targets = 0;
+        if (primaryCounter.getCount() > 0) {
+            actual = Target.PRIMARY;
+            targets++;
+        }
+        for (int index = 0; index < replicaCounters.size(); index++) {
+            if (replicaCounters.get(index).getCount() > 0) {
+                actual = Target.values()[index + 1];
+                targets++;
+            }
+        }
+
+        System.out.printf("%s: %s, expected %s%n", operation, targets == 1 ? actual : targets + " databases", expected);
+        if (targets != 1 || actual != expected) {
+            failures.add(operation + " ran on " + (targets == 1 ? actual : targets + " databases") + ", expected " + expected);
+        }
+    }
+
+    private enum Target {
+        PRIMARY, REPLICA_1, REPLICA_2
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.benchmarks;
+
+import org.example.BookstoreService;
+import org.example.ExportFormat;
+import org.example.ExportResult;
+import org.example.ReportExporter;
+import org.example.SalesReportFilter;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Full Sales Report Written to a File: Console-Style printf Against the Buffered Exporter by Format and Partitions.
+// Partitions Only Pay Off with Spare Cores on Both Sides, e.g. Against PostgreSQL via -Dbench.url
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ReportExportBenchmark {
+    @Param({"CSV", "COLUMNAR"})
+    public ExportFormat format;
+
+    @Param({"1", "4"})
+    public int partitions;
+
+    private SessionFactory sessionFactory;
+    private BookstoreService service;
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        sessionFactory = BenchmarkDatabase.create();
+        service = new BookstoreService(sessionFactory);
+        new DataGenerator(sessionFactory, 42).seed(10_000, 10_000, 500_000);
+        directory = Files.createTempDirectory("report-export");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        sessionFactory.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public long printfToFile() throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(directory.resolve("sales.txt")))) {
+            return service.streamAllSoldBooks(row -> out.printf("%d,%s,%s,%s%n",
+                    row.saleID(), row.customerName(), row.bookTitle(), row.dateOfSale()));
+        }
+    }
+
+    @Benchmark
+    public ExportResult export() throws IOException {
+        return new ReportExporter(service, partitions)
+                .exportSoldBooks(SalesReportFilter.none(), directory.resolve("sales." + format.getExtension()), format);
+    }
+}
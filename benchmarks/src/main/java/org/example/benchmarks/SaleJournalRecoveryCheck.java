@@ -0,0 +1,126 @@
+package org.example.benchmarks;
+
+import org.example.BookstoreService;
+import org.example.SaleJournal;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Fails the Build When the Write-Behind Journal Loses or Duplicates Sales: Sales Left Behind by a Writer That Never
+// Ran Are Replayed on the Next Open, Committed Ones Are Not Replayed Again, a Torn Entry Is Ignored, Sales the
+// Database Refuses Are Skipped Without Holding Back the Others, and a Full Journal Pushes Back on New Sales
+public class SaleJournalRecoveryCheck {
+    private static final int CAPACITY = 64;
+    private static final int ENTRY_BYTES = 48;
+
+    private final List<String> failures = new ArrayList<>();
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        SessionFactory sessionFactory = BenchmarkDatabase.inMemory("sale_journal", Map.of());
+        Path directory = Files.createTempDirectory("sale-journal");
+
+        try {
+            DataGenerator generator = new DataGenerator(sessionFactory, 17);
+            generator.seed(20, 10, 100);
+
+            new SaleJournalRecoveryCheck().run(new BookstoreService(sessionFactory), generator, directory);
+        } finally {
+            sessionFactory.close();
+            try (var files = Files.list(directory)) {
+                for (Path file : files.toList()) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(directory);
+        }
+    }
+
+    private void run(BookstoreService service, DataGenerator generator, Path directory)
+            throws IOException, InterruptedException {
+        Path file = directory.resolve("sales.journal");
+        long salesBefore = salesCount(service);
+
+        // Writer Never Started, as If the Application Died Right After Accepting the Sales
+        try (SaleJournal crashed = new SaleJournal(service, file, CAPACITY, 16, 0, 1000)) {
+            for (int i = 0; i < 50; i++) {
+                crashed.append(generator.randomCustomerID(), generator.randomBookID(), 1);
+            }
+        }
+        expect("sales written before the writer ran", salesCount(service) - salesBefore, 0);
+
+        try (SaleJournal recovered = new SaleJournal(service, file, CAPACITY, 16, 0, 10_000)) {
+            expect("sales queued for replay", recovered.getPendingSales(), 50);
+            recovered.start();
+
+            // More Than Fit Next to the Replayed Ones, Appends Wait for the Writer to Free Slots
+            for (int i = 0; i < 30; i++) {
+                recovered.append(generator.randomCustomerID(), generator.randomBookID(), 1);
+            }
+            recovered.append(generator.randomCustomerID(), Long.MAX_VALUE, 1);
+            recovered.append(Long.MAX_VALUE, generator.randomBookID(), 1);
+
+            if (!recovered.awaitDrained(30, TimeUnit.SECONDS)) {
+                failures.add("journal was not drained within 30 seconds");
+            }
+            expect("rejected sales", recovered.getRejectedSales(), 2);
+            expect("journaled sales written", recovered.getCommittedSales(), 80);
+        }
+        expect("sales written after replay", salesCount(service) - salesBefore, 80);
+
+        tearNextEntry(file, 83);
+        try (SaleJournal reopened = new SaleJournal(service, file, CAPACITY, 16, 0, 1000)) {
+            expect("sales replayed twice", reopened.getPendingSales(), 0);
+            expect("sequence after reopen", reopened.getAppendedSequence(), 82);
+        }
+        expect("revenue summary mismatches", service.verifyRevenueSummary().size(), 0);
+
+        // No Writer, So the Ninth Sale Finds No Free Slot
+        try (SaleJournal full = new SaleJournal(service, directory.resolve("full.journal"), 8, 8, 0, 50)) {
+            for (int i = 0; i < 8; i++) {
+                full.append(generator.randomCustomerID(), generator.randomBookID(), 1);
+            }
+            try {
+                full.append(generator.randomCustomerID(), generator.randomBookID(), 1);
+                failures.add("full journal accepted another sale");
+            } catch (IllegalStateException e) {
+                expect("backpressure waits", full.getBackpressureWaits(), 1);
+            }
+        }
+
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("Sale journal lost or duplicated sales:\n" + String.join("\n", failures));
+        }
+        System.out.println("Sale journal replays every sale exactly once.");
+    }
+
+    // Half-Written Entry in the Slot the Next Sale Would Use, Its Checksum Does Not Match
+    private static void tearNextEntry(Path file, long sequence) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ByteBuffer entry = ByteBuffer.allocate(ENTRY_BYTES).putLong(sequence).putLong(1).putLong(1).flip();
+            channel.write(entry, sequence % CAPACITY * ENTRY_BYTES);
+        }
+    }
+
+    private static long salesCount(BookstoreService service) {
+        try (Session session = service.getSessionFactory().openSession()) {
+            return session.createQuery("SELECT COUNT(s) FROM Sale s", Long.class).getSingleResult();
+        }
+    }
+
+    private void expect(String what, long actual, long expected) {
+        System.out.printf("%s: %d, expected %d%n", what, actual, expected);
+        if (actual != expected) {
+            failures.add(what + " was " + actual + ", expected " + expected);
+        }
+    }
+}
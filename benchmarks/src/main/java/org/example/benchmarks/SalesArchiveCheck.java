@@ -0,0 +1,130 @@
+package org.example.benchmarks;
+
+import org.example.ArchiveResult;
+import org.example.BookstoreService;
+import org.example.CustomerLifetimeValue;
+import org.example.RankingMetric;
+import org.example.SaleImporter;
+import org.example.SaleRecord;
+import org.example.SalesArchiver;
+import org.example.SalesRankings;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Fails the Build When Archiving Old Sales Changes a Revenue Report, a Ranking or a Customer's Lifetime Value,
+// Right After Archiving, After Rebuilding the Summaries, After a Book Changes Genre and After a Late Sale
+// for an Archived Day Is Archived in Turn
+public class SalesArchiveCheck {
+    private static final LocalDate LAST_SALE_DAY = DataGenerator.FIRST_SALE_DAY.plusDays(DataGenerator.SALE_DAYS);
+    private static final LocalDate CUTOFF = LocalDate.of(2022, 7, 1);
+
+    private final List<String> failures = new ArrayList<>();
+
+    public static void main(String[] args) {
+        SessionFactory sessionFactory = BenchmarkDatabase.inMemory("sales_archive", Map.of());
+
+        try {
+            DataGenerator generator = new DataGenerator(sessionFactory, 19);
+            generator.seed(50, 20, 5000);
+
+            new SalesArchiveCheck().run(new BookstoreService(sessionFactory), generator);
+        } finally {
+            sessionFactory.close();
+        }
+    }
+
+    private void run(BookstoreService service, DataGenerator generator) {
+        SalesRankings rankings = new SalesRankings(service.getSessionFactory(), 0);
+        SalesArchiver archiver = new SalesArchiver(service, 1, 0, 0);
+
+        List<Object> before = reports(service, rankings, generator);
+        long salesBefore = count(service, "SELECT COUNT(*) FROM sales");
+        long oldSales = count(service, "SELECT COUNT(*) FROM sales WHERE date_of_sale < DATE '2022-07-01'");
+
+        ArchiveResult result = archiver.archiveBefore(CUTOFF.plusDays(10));
+        expect("archived sales", result.archivedSales(), oldSales);
+        expect("sales kept", count(service, "SELECT COUNT(*) FROM sales"), salesBefore - oldSales);
+        expect("sales in archive", count(service, "SELECT SUM(sales_count) FROM sales_archive"), oldSales);
+        expect("customer purchases in archive", count(service, "SELECT SUM(purchases) FROM customer_sales_archive"), oldSales);
+        compare("archive", before, reports(service, rankings, generator));
+
+        service.rebuildRevenueSummary();
+        compare("rebuild", before, reports(service, rankings, generator));
+
+        // Most of This Book's Revenue Is Archived, All of It Must Follow the Book
+        service.updateBookDetails(generator.getBookIDs().getFirst(), null, null, DataGenerator.genre(1), null, null);
+        expect("summary mismatches after genre change", service.verifyRevenueSummary().size(), 0);
+
+        LocalDate archivedDay = DataGenerator.FIRST_SALE_DAY.plusDays(40);
+        new SaleImporter(service.getSessionFactory()).importSales(List.of(
+                new SaleRecord(generator.randomCustomerID(), generator.getBookIDs().get(1), archivedDay, 2)).iterator());
+        before = reports(service, rankings, generator);
+        expect("late sales archived", archiver.archiveBefore(CUTOFF).archivedSales(), 1);
+        expect("sales in archive after late sale", count(service, "SELECT SUM(sales_count) FROM sales_archive"), oldSales + 1);
+        compare("late sale", before, reports(service, rankings, generator));
+
+        rankings.close();
+        archiver.close();
+
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("Archiving sales changed reports:\n" + String.join("\n", failures));
+        }
+        System.out.println("Reports are unchanged by archiving.");
+    }
+
+    // Ranges Cover Archived Days Only, Kept Days Only and Both
+    private static List<Object> reports(BookstoreService service, SalesRankings rankings, DataGenerator generator) {
+        LocalDate first = DataGenerator.FIRST_SALE_DAY;
+        List<Long> customerIDs = generator.getCustomerIDs().subList(0, 3);
+
+        // Fresh Cache, So Customer Spends Are Loaded Now Instead of Before Archiving
+        List<CustomerLifetimeValue> cachedValues;
+        try (SalesRankings cachedRankings = new SalesRankings(service.getSessionFactory(), 3600)) {
+            cachedValues = customerIDs.stream().map(cachedRankings::cachedCustomerLifetimeValue).toList();
+        }
+
+        return List.of(
+                service.reportOfTotalRevenueFromEachGenre(),
+                service.reportOfDailyRevenueByGenre(first, LAST_SALE_DAY).stream()
+                        .map(day -> day.getGenre() + " " + day.getDay() + " " + day.getRevenue() + " " + day.getSalesCount())
+                        .toList(),
+                service.verifyRevenueSummary(),
+                rankings.topBooks(RankingMetric.REVENUE, first, CUTOFF.minusDays(1), 10),
+                rankings.topBooks(RankingMetric.QUANTITY, CUTOFF, LAST_SALE_DAY, 10),
+                rankings.topBooks(RankingMetric.REVENUE, CUTOFF.minusDays(90), CUTOFF.plusDays(90), 10),
+                rankings.topBooksPerGenre(RankingMetric.QUANTITY, first, LAST_SALE_DAY, 3),
+                rankings.topAuthors(RankingMetric.REVENUE, first, LAST_SALE_DAY, 10),
+                rankings.topCustomers(first, CUTOFF.minusDays(1), 10),
+                rankings.topCustomers(CUTOFF.minusDays(90), CUTOFF.plusDays(90), 10),
+                customerIDs.stream().map(rankings::customerLifetimeValue).toList(),
+                cachedValues);
+    }
+
+    private void compare(String step, List<Object> expected, List<Object> actual) {
+        for (int i = 0; i < expected.size(); i++) {
+            if (!Objects.equals(expected.get(i), actual.get(i))) {
+                failures.add(step + ": report " + i + " was " + actual.get(i) + ", expected " + expected.get(i));
+            }
+        }
+        System.out.printf("%s: %d reports compared%n", step, expected.size());
+    }
+
+    private static long count(BookstoreService service, String sql) {
+        try (Session session = service.getSessionFactory().openSession()) {
+            return session.createNativeQuery(sql, Long.class).getSingleResult();
+        }
+    }
+
+    private void expect(String what, long actual, long expected) {
+        System.out.printf("%s: %d, expected %d%n", what, actual, expected);
+        if (actual != expected) {
+            failures.add(what + " was " + actual + ", expected " + expected);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package org.example.benchmarks;
+
+import org.example.BookRanking;
+import org.example.BookstoreService;
+import org.example.RankingMetric;
+import org.example.RevenueMismatch;
+import org.example.SalesArchiver;
+import org.example.SalesRankings;
+import org.example.SalesReportFilter;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Reports over Three Years of Sales Kept in One Table, with the First Two Years Archived into Daily Rows,
+// and Split into Monthly Partitions. Partitioning Needs PostgreSQL: -Dbench.url=... -p layout=plain,archived,partitioned.
+// Windows Slide by a Day per Call so Embedded H2 Cannot Answer a Repeated Statement from Its Result Cache
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SalesHistoryBenchmark {
+    private static final LocalDate LAST_SALE_DAY = DataGenerator.FIRST_SALE_DAY.plusDays(DataGenerator.SALE_DAYS - 1);
+    private static final LocalDate ARCHIVE_CUTOFF = LAST_SALE_DAY.withDayOfYear(1);
+    private static final String PARTITIONING_MIGRATION = "/migrations/010_partitioned_sales.sql";
+
+    @Param({"1000000"})
+    public long salesRows;
+
+    @Param({"plain", "archived"})
+    public String layout;
+
+    private SessionFactory sessionFactory;
+    private BookstoreService service;
+    private SalesRankings rankings;
+    private int invocation;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = BenchmarkDatabase.create();
+        new DataGenerator(sessionFactory, 42).seed(10_000, 10_000, salesRows);
+        service = new BookstoreService(sessionFactory);
+        rankings = new SalesRankings(sessionFactory, 0);
+
+        switch (layout) {
+            case "plain" -> { }
+            case "archived" -> new SalesArchiver(service, 1, 0, 0).archiveBefore(ARCHIVE_CUTOFF);
+            case "partitioned" -> partition();
+            default -> throw new IllegalArgumentException("Unknown layout " + layout);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        rankings.close();
+        sessionFactory.close();
+    }
+
+    // Last Month's Best Sellers, Only Reads the Kept Months
+    @Benchmark
+    public List<BookRanking> monthTopBooks() {
+        LocalDate to = windowEnd();
+        return rankings.topBooks(RankingMetric.REVENUE, to.minusDays(29), to, 10);
+    }
+
+    // A Year of Best Sellers Ending Within the Archived Years
+    @Benchmark
+    public List<BookRanking> archivedYearTopBooks() {
+        LocalDate to = ARCHIVE_CUTOFF.minusDays(1 + invocation++ % 180);
+        return rankings.topBooks(RankingMetric.QUANTITY, to.minusDays(364), to, 10);
+    }
+
+    // A Week of Sales Row by Row, Filtered by Date
+    @Benchmark
+    public long weekSoldBooks() {
+        LocalDate to = windowEnd();
+        return service.streamSoldBooks(new SalesReportFilter(to.minusDays(6), to, null, null, null), entry -> { });
+    }
+
+    // Every Sale Ever Made Summed per Genre
+    @Benchmark
+    public List<RevenueMismatch> verifyRevenueSummary() {
+        return service.verifyRevenueSummary();
+    }
+
+    private LocalDate windowEnd() {
+        return LAST_SALE_DAY.minusDays(invocation++ % 180);
+    }
+
+    // Applies the Application's Own Migration to the Freshly Created Schema
+    private void partition() {
+        if (BenchmarkDatabase.isEmbedded()) {
+            throw new IllegalStateException("Partitioning needs PostgreSQL, set -Dbench.url");
+        }
+
+        String migration;
+        try (InputStream input = SalesHistoryBenchmark.class.getResourceAsStream(PARTITIONING_MIGRATION)) {
+            migration = new String(input.readAllBytes(), StandardCharsets.UTF_8).lines()
+                    .filter(line -> !line.startsWith("\\c"))
+                    .collect(Collectors.joining("\n"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        sessionFactory.inSession(session -> session.doWork(connection -> {
+            // The Migration Has Its Own BEGIN and COMMIT
+            connection.setAutoCommit(true);
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(migration);
+            }
+        }));
+    }
+}
@@ -0,0 +1,95 @@
+package org.example.benchmarks;
+
+import org.example.AuthorRanking;
+import org.example.BookRanking;
+import org.example.CustomerLifetimeValue;
+import org.example.CustomerRanking;
+import org.example.RankingMetric;
+import org.example.SalesRankings;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Top Sellers and Customer Analytics over a 90-Day Window, Straight from SQL and from the Refreshed Cache.
+// The Window Slides by a Day per Call so Embedded H2 Cannot Answer a Repeated Statement from Its Result Cache
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SalesRankingBenchmark {
+    private static final int WINDOW_DAYS = 90;
+
+    @Param({"100000", "1000000"})
+    public long salesRows;
+
+    private SessionFactory sessionFactory;
+    private SalesRankings rankings;
+    private SalesRankings cachedRankings;
+    private DataGenerator generator;
+    private LocalDate lastDay;
+    private int invocation;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = BenchmarkDatabase.create();
+        generator = new DataGenerator(sessionFactory, 42);
+        generator.seed(10_000, 10_000, salesRows);
+
+        rankings = new SalesRankings(sessionFactory, 0);
+        // Refresh Never Fires During a Trial, Every Read After the First Is a Cache Hit
+        cachedRankings = new SalesRankings(sessionFactory, 3600);
+
+        lastDay = DataGenerator.FIRST_SALE_DAY.plusDays(DataGenerator.SALE_DAYS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        cachedRankings.close();
+        rankings.close();
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public List<BookRanking> topBooksByRevenue() {
+        LocalDate to = windowEnd();
+        return rankings.topBooks(RankingMetric.REVENUE, to.minusDays(WINDOW_DAYS - 1), to, 10);
+    }
+
+    @Benchmark
+    public List<BookRanking> topBooksPerGenreByQuantity() {
+        LocalDate to = windowEnd();
+        return rankings.topBooksPerGenre(RankingMetric.QUANTITY, to.minusDays(WINDOW_DAYS - 1), to, 3);
+    }
+
+    @Benchmark
+    public List<AuthorRanking> topAuthorsByRevenue() {
+        LocalDate to = windowEnd();
+        return rankings.topAuthors(RankingMetric.REVENUE, to.minusDays(WINDOW_DAYS - 1), to, 10);
+    }
+
+    @Benchmark
+    public List<CustomerRanking> topCustomers() {
+        LocalDate to = windowEnd();
+        return rankings.topCustomers(to.minusDays(WINDOW_DAYS - 1), to, 10);
+    }
+
+    @Benchmark
+    public CustomerLifetimeValue customerLifetimeValue() {
+        return rankings.customerLifetimeValue(generator.randomCustomerID());
+    }
+
+    private LocalDate windowEnd() {
+        return lastDay.minusDays(invocation++ % 365);
+    }
+
+    // Trailing Window Ends Today, After the Seeded Sales, Only the Cost of a Cache Hit Is Measured
+    @Benchmark
+    public List<BookRanking> cachedTopBooksByRevenue() {
+        return cachedRankings.topBooks(RankingMetric.REVENUE, WINDOW_DAYS, 10);
+    }
+}
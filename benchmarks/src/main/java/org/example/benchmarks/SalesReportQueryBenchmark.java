@@ -0,0 +1,80 @@
+package org.example.benchmarks;
+
+import org.example.BookstoreService;
+import org.example.SalesReportFilter;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+// Filtered Sales Report Latency by Table Size, With and Without the Report Indexes
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SalesReportQueryBenchmark {
+    private static final String[] REPORT_INDEXES = {
+            "idx_sales_date_of_sale", "idx_sales_customer_id", "idx_sales_book_id", "idx_books_genre", "idx_books_author"
+    };
+
+    @Param({"100000", "1000000"})
+    public long salesRows;
+
+    @Param({"true", "false"})
+    public boolean indexed;
+
+    private SessionFactory sessionFactory;
+    private BookstoreService service;
+    private DataGenerator generator;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = BenchmarkDatabase.create();
+        service = new BookstoreService(sessionFactory);
+        generator = new DataGenerator(sessionFactory, 42);
+        generator.seed(10_000, 10_000, salesRows);
+
+        sessionFactory.inTransaction(session -> {
+            if (!indexed) {
+                for (String index : REPORT_INDEXES) {
+                    session.createNativeMutationQuery("DROP INDEX IF EXISTS " + index).executeUpdate();
+                }
+            }
+            session.createNativeMutationQuery("ANALYZE").executeUpdate();
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public long oneWeekOfSales(Blackhole blackhole) {
+        LocalDate from = generator.randomDay();
+        return service.streamSoldBooks(new SalesReportFilter(from, from.plusDays(6), null, null, null), blackhole::consume);
+    }
+
+    @Benchmark
+    public long salesOfCustomer(Blackhole blackhole) {
+        Long customerID = generator.randomCustomerID();
+        return service.streamSoldBooks(new SalesReportFilter(null, null, customerID, null, null), blackhole::consume);
+    }
+
+    @Benchmark
+    public long salesOfAuthor(Blackhole blackhole) {
+        String author = generator.randomAuthor();
+        return service.streamSoldBooks(new SalesReportFilter(null, null, null, null, author), blackhole::consume);
+    }
+
+    @Benchmark
+    public long oneMonthOfGenre(Blackhole blackhole) {
+        LocalDate from = generator.randomDay();
+        return service.streamSoldBooks(new SalesReportFilter(from, from.plusDays(29), null, generator.randomGenre(), null),
+                blackhole::consume);
+    }
+}
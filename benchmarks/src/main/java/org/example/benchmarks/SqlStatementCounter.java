@@ -0,0 +1,29 @@
+package org.example.benchmarks;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Records Every SQL Statement Hibernate Prepares, Leaves the SQL Unchanged
+public class SqlStatementCounter implements StatementInspector {
+    private final List<String> statements = new ArrayList<>();
+
+    @Override
+    public synchronized String inspect(String sql) {
+        statements.add(sql);
+        return sql;
+    }
+
+    public synchronized void reset() {
+        statements.clear();
+    }
+
+    public synchronized int getCount() {
+        return statements.size();
+    }
+
+    public synchronized List<String> getStatements() {
+        return List.copyOf(statements);
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.benchmarks;
+
+import org.example.BookstoreService;
+import org.example.SoldBookEntry;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Cold Bootstrap Plus First Report in a Fresh JVM per Fork, What a Short-Lived Batch Job Pays Before Doing Work
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class StartupBenchmark {
+    private SessionFactory sessionFactory;
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        if (sessionFactory != null) {
+            sessionFactory.close();
+        }
+    }
+
+    @Benchmark
+    public List<SoldBookEntry> timeToFirstQuery() {
+        sessionFactory = BenchmarkDatabase.create();
+        return new BookstoreService(sessionFactory).reportOfSoldBooksPage(null, 1);
+    }
+}
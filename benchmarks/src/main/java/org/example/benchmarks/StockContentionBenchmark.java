@@ -0,0 +1,52 @@
+package org.example.benchmarks;
+
+import org.example.BookstoreService;
+import org.example.Sale;
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Many Threads Selling the Same Few Titles, Every Sale Decrements the Same Stock Rows
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class StockContentionBenchmark {
+    @Param({"1", "8"})
+    public int hotTitles;
+
+    private SessionFactory sessionFactory;
+    private BookstoreService service;
+    private List<Long> bookIDs;
+    private Long customerID;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sessionFactory = BenchmarkDatabase.create();
+        service = new BookstoreService(sessionFactory);
+
+        DataGenerator generator = new DataGenerator(sessionFactory, 42);
+        generator.seedBooks(hotTitles);
+        generator.seedCustomers(1);
+
+        bookIDs = generator.getBookIDs();
+        customerID = generator.getCustomerIDs().getFirst();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Sale sellHotTitle() {
+        Long bookID = bookIDs.get(ThreadLocalRandom.current().nextInt(bookIDs.size()));
+        return service.handleNewSale(customerID, bookID, 1);
+    }
+}
@@ -0,0 +1,6 @@
+package org.example;
+
+import java.time.LocalDate;
+
+public record ArchiveResult(LocalDate cutoff, long archivedSales, long archiveRows, int droppedPartitions, long elapsedMillis) {
+}
@@ -0,0 +1,75 @@
+package org.example;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+// Purchases of One Customer on One Day After Their Rows Were Archived, Written Only by SalesArchiver
+@Entity
+@IdClass(ArchivedCustomerSales.Key.class)
+@Table(name = "customer_sales_archive")
+public class ArchivedCustomerSales {
+    @Id
+    @Column(name = "customer_id")
+    private Long customerID;
+
+    @Id
+    @Column(name = "sale_day")
+    private LocalDate day;
+
+    @Column(name = "purchases", nullable = false)
+    private Long purchases;
+
+    @Column(name = "books", nullable = false)
+    private Long books;
+
+    @Column(name = "spend", nullable = false)
+    private Money spend;
+
+    public ArchivedCustomerSales() {
+    }
+
+    public Long getCustomerID() {
+        return customerID;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public Long getPurchases() {
+        return purchases;
+    }
+
+    public Long getBooks() {
+        return books;
+    }
+
+    public Money getSpend() {
+        return spend;
+    }
+
+    public static class Key implements Serializable {
+        private Long customerID;
+        private LocalDate day;
+
+        public Key() {
+        }
+        public Key(Long customerID, LocalDate day) {
+            this.customerID = customerID;
+            this.day = day;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && Objects.equals(customerID, key.customerID) && Objects.equals(day, key.day);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(customerID, day);
+        }
+    }
+}
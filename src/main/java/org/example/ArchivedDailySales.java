@@ -0,0 +1,75 @@
+package org.example;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+// Sales of One Book on One Day After Their Rows Were Archived, Written Only by SalesArchiver
+@Entity
+@IdClass(ArchivedDailySales.Key.class)
+@Table(name = "sales_archive")
+public class ArchivedDailySales {
+    @Id
+    @Column(name = "book_id")
+    private Long bookID;
+
+    @Id
+    @Column(name = "sale_day")
+    private LocalDate day;
+
+    @Column(name = "quantity_sold", nullable = false)
+    private Long quantitySold;
+
+    @Column(name = "revenue", nullable = false)
+    private Money revenue;
+
+    @Column(name = "sales_count", nullable = false)
+    private Long salesCount;
+
+    public ArchivedDailySales() {
+    }
+
+    public Long getBookID() {
+        return bookID;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public Long getQuantitySold() {
+        return quantitySold;
+    }
+
+    public Money getRevenue() {
+        return revenue;
+    }
+
+    public Long getSalesCount() {
+        return salesCount;
+    }
+
+    public static class Key implements Serializable {
+        private Long bookID;
+        private LocalDate day;
+
+        public Key() {
+        }
+        public Key(Long bookID, LocalDate day) {
+            this.bookID = bookID;
+            this.day = day;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && Objects.equals(bookID, key.bookID) && Objects.equals(day, key.day);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(bookID, day);
+        }
+    }
+}
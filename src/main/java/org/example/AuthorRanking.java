@@ -0,0 +1,4 @@
+package org.example;
+
+public record AuthorRanking(long rank, String author, long quantitySold, Money revenue) {
+}
@@ -1,12 +1,29 @@
 package org.example;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
 @Entity
-@Table(name = "books")
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "books", indexes = {
+        @Index(name = "idx_books_genre", columnList = "genre"),
+        @Index(name = "idx_books_author", columnList = "author")
+})
+@NamedQuery(name = Book.BY_GENRE, query = "SELECT new org.example.Book(b.title, b.author, b.genre, b.price, b.quantityInStock) " +
+        "FROM Book b WHERE b.genre = :genre")
+@NamedQuery(name = Book.BY_AUTHOR, query = "SELECT new org.example.Book(b.title, b.author, b.genre, b.price, b.quantityInStock) " +
+        "FROM Book b WHERE b.author = :author")
 public class Book {
+    public static final String BY_GENRE = "Book.byGenre";
+    public static final String BY_AUTHOR = "Book.byAuthor";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_id_generator")
+    @SequenceGenerator(name = "book_id_generator", sequenceName = "books_book_id_seq", allocationSize = 50)
     @Column(name = "book_id")
     private Long bookID;
 
@@ -20,14 +37,14 @@ public class Book {
     private String genre;
 
     @Column(name = "price", nullable = false)
-    private Float price;
+    private Money price;
 
     @Column(name = "quantity_in_stock", nullable = false)
     private Integer quantityInStock;
 
     public Book() {
     }
-    public Book(String title, String author, String genre, Float price, Integer quantityInStock) {
+    public Book(String title, String author, String genre, Money price, Integer quantityInStock) {
         this.title = title;
         this.author = author;
         this.genre = genre;
@@ -60,10 +77,10 @@ public class Book {
         this.genre = genre;
     }
 
-    public Float getPrice() {
+    public Money getPrice() {
         return price;
     }
-    public void setPrice(Float price) {
+    public void setPrice(Money price) {
         this.price = price;
     }
 
@@ -0,0 +1,5 @@
+package org.example;
+
+public record BookRanking(long rank, Long bookID, String title, String author, String genre,
+                          long quantitySold, Money revenue) {
+}
@@ -0,0 +1,5 @@
+package org.example;
+
+public record BookSearchResult(Long bookID, String title, String author, String genre, Money price, int matchRank,
+                               double score) {
+}
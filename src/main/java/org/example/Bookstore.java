@@ -1,14 +1,14 @@
 package org.example;
 
-import jakarta.persistence.criteria.CriteriaBuilder;
-import jakarta.persistence.criteria.CriteriaQuery;
-import jakarta.persistence.criteria.Root;
-import org.hibernate.Session;
-import org.hibernate.SessionFactory;
-import org.hibernate.Transaction;
-
-import java.sql.SQLException;
+import jakarta.persistence.PersistenceException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
 
@@ -16,10 +16,22 @@ import static org.example.MenuCodes.*;
 
 public class Bookstore {
     private static final Scanner scanner = new Scanner(System.in);
+    private static final OperationMetrics operations = new OperationMetrics();
+    // Loaded on First Analytics Report, Kept Current While the Application Runs, Also by the Journal Writer
+    private static volatile SalesColumnStore analytics;
+    // Created on First Top Sellers Report, Its Cache Refreshes in the Background Until Exit
+    private static SalesRankings rankings;
+    // Write-Behind Sale Entry, Null Unless bookstore.journal.path Is Set
+    private static SaleJournal journal;
+    // Archives Old Sales Every bookstore.archive.interval_hours When Set, Otherwise Only from the Menu
+    private static SalesArchiver archiver;
 
     public static void main(String[] args) {
-        SessionFactory sessionFactory = HibernateConfig.getSessionFactory();
-        Session session = sessionFactory.openSession();
+        // Session Factory Is Built While the Menu Is Shown and the First Choice Is Typed
+        HibernateConfig.startBootstrap();
+
+        BookstoreService service = null;
+        MetricsReporter metricsReporter = null;
 
         try {
             while (true) {
@@ -33,31 +45,112 @@ public class Bookstore {
                 System.out.println(CALCULATE_TOTAL_REVENUE_BY_GENRE + ". Calculate Total Revenue by Genre");
                 System.out.println(GENERATE_SALES_REPORT + ". Generate Sales Report");
                 System.out.println(GENERATE_REVENUE_REPORT_BY_GENRE + ". Generate Revenue Report by Genre");
+                System.out.println(SHOW_STATISTICS + ". Show Statistics");
+                System.out.println(IMPORT_SALES + ". Import Sales from CSV File");
+                System.out.println(GENERATE_DAILY_REVENUE_REPORT + ". Generate Daily Revenue Report by Genre");
+                System.out.println(VERIFY_REVENUE_SUMMARY + ". Verify Revenue Summary");
+                System.out.println(REBUILD_REVENUE_SUMMARY + ". Rebuild Revenue Summary");
+                System.out.println(BROWSE_SALES_REPORT + ". Browse Sales Report");
+                System.out.println(GENERATE_FILTERED_SALES_REPORT + ". Generate Filtered Sales Report");
+                System.out.println(REPRICE_BOOKS + ". Reprice Books by Genre or Author");
+                System.out.println(APPLY_STOCK_DELTAS + ". Apply Stock Deltas from CSV File");
+                System.out.println(RENAME_GENRE + ". Rename Genre");
+                System.out.println(ANALYTICS_REPORT + ". In-Memory Analytics Report");
+                System.out.println(SEARCH_CATALOG + ". Search Books by Title or Author");
+                System.out.println(TOP_SELLERS + ". Top Sellers and Customer Analytics");
+                System.out.println(PLACE_ORDER + ". Place Order for Several Books");
+                System.out.println(EXPORT_REPORT + ". Export Report to File");
+                System.out.println(ARCHIVE_SALES + ". Archive Old Sales");
                 System.out.println(EXIT + ". Exit");
                 System.out.println();
 
                 String choice = scanner.nextLine();
 
-                switch (getMenuCodeFromValue(choice)) {
-                    case UPDATE_BOOK_DETAILS -> updateBookDetails(session);
-                    case LIST_BOOKS_BY_GENRE -> listBooksByGenre(session);
-                    case LIST_BOOKS_BY_AUTHOR -> listBooksByAuthor(session);
-                    case UPDATE_CUSTOMER_INFORMATION -> updateCustomerInformation(session);
-                    case VIEW_CUSTOMER_PURCHASE_HISTORY -> viewCustomerPurchaseHistory(session);
-                    case PROCESS_NEW_SALE -> handleNewSales(session);
-                    case CALCULATE_TOTAL_REVENUE_BY_GENRE -> calculateTotalRevenueByGenre(session);
-                    case GENERATE_SALES_REPORT -> reportOfAllSoldBooks(session);
-                    case GENERATE_REVENUE_REPORT_BY_GENRE -> reportOfTotalRevenueFromEachGenre(session);
-                    case EXIT -> {
-                        System.out.println("Exiting.");
-                        return;
+                if (service == null) {
+                    try {
+                        service = new BookstoreService(ReadReplicaRouter.fromSettings(HibernateConfig.getSessionFactory()));
+                    } catch (IllegalStateException e) {
+                        System.out.println(e.getMessage());
+                        if (getMenuCodeFromValue(choice) == EXIT) {
+                            System.out.println("Exiting.");
+                            return;
+                        }
+                        // Bootstrap Is Tried Again with the Next Choice
+                        System.out.println();
+                        continue;
                     }
-                    case null -> System.out.println("Invalid choice. Please try again.");
+                    // Opened Right Away So Sales Left Over from a Crash Are Replayed Without Waiting for a New Sale
+                    journal = openJournal(service);
+                    archiver = new SalesArchiver(service);
+                    createUpcomingPartitions();
+                    metricsReporter = new MetricsReporter(service.getSessionFactory(), operations);
+                }
+
+                try {
+                    switch (getMenuCodeFromValue(choice)) {
+                        case UPDATE_BOOK_DETAILS -> updateBookDetails(service);
+                        case LIST_BOOKS_BY_GENRE -> listBooksByGenre(service);
+                        case LIST_BOOKS_BY_AUTHOR -> listBooksByAuthor(service);
+                        case UPDATE_CUSTOMER_INFORMATION -> updateCustomerInformation(service);
+                        case VIEW_CUSTOMER_PURCHASE_HISTORY -> viewCustomerPurchaseHistory(service);
+                        case PROCESS_NEW_SALE -> handleNewSales(service);
+                        case CALCULATE_TOTAL_REVENUE_BY_GENRE -> calculateTotalRevenueByGenre(service);
+                        case GENERATE_SALES_REPORT -> reportOfAllSoldBooks(service);
+                        case GENERATE_REVENUE_REPORT_BY_GENRE -> reportOfTotalRevenueFromEachGenre(service);
+                        case SHOW_STATISTICS -> {
+                            metricsReporter.print(System.out);
+                            if (journal != null) {
+                                journal.print(System.out);
+                            }
+                            service.getReadRouter().print(System.out);
+                        }
+                        case IMPORT_SALES -> importSales(service);
+                        case GENERATE_DAILY_REVENUE_REPORT -> reportOfDailyRevenueByGenre(service);
+                        case VERIFY_REVENUE_SUMMARY -> verifyRevenueSummary(service);
+                        case REBUILD_REVENUE_SUMMARY -> rebuildRevenueSummary(service);
+                        case BROWSE_SALES_REPORT -> browseSalesReport(service);
+                        case GENERATE_FILTERED_SALES_REPORT -> reportOfFilteredSoldBooks(service);
+                        case REPRICE_BOOKS -> repriceBooks(service);
+                        case APPLY_STOCK_DELTAS -> applyStockDeltas(service);
+                        case RENAME_GENRE -> renameGenre(service);
+                        case ANALYTICS_REPORT -> analyticsReport(service);
+                        case SEARCH_CATALOG -> searchCatalog(service);
+                        case TOP_SELLERS -> topSellers(service);
+                        case PLACE_ORDER -> placeOrder(service);
+                        case EXPORT_REPORT -> exportReport(service);
+                        case ARCHIVE_SALES -> archiveSales(service);
+                        case EXIT -> {
+                            System.out.println("Exiting.");
+                            return;
+                        }
+                        case null -> System.out.println("Invalid choice. Please try again.");
+                    }
+                } catch (NumberFormatException e) {
+                    System.out.println("Invalid input format. Please enter valid numeric values.");
+                } catch (DateTimeParseException e) {
+                    System.out.println("Invalid date format. Please enter dates as YYYY-MM-DD.");
+                } catch (IllegalArgumentException | IllegalStateException | PersistenceException | IOException e) {
+                    System.out.println(e.getMessage());
                 }
                 System.out.println();
             }
-        } catch (SQLException | NumberFormatException e) {
-            System.out.println(e.getMessage());
+        } finally {
+            if (metricsReporter != null) {
+                metricsReporter.close();
+            }
+            if (rankings != null) {
+                rankings.close();
+            }
+            if (journal != null) {
+                closeJournal();
+            }
+            if (archiver != null) {
+                archiver.close();
+            }
+            if (service != null) {
+                service.getReadRouter().close();
+            }
+            HibernateConfig.shutdown();
         }
     }
 
@@ -72,81 +165,78 @@ public class Bookstore {
         return null;
     }
 
-    // Updates Book's Details
-    private static void updateBookDetails(Session session) throws SQLException, NumberFormatException {
-        Transaction transaction = null;
+    // Row Count of Update Operations
+    private static long rows(boolean updated) {
+        return updated ? 1 : 0;
+    }
 
-        try {
-            System.out.println("Enter book ID:");
-            Long bookID = Long.parseLong(scanner.nextLine());
-
-            System.out.println("Enter new title or - if you don't want to change it:");
-            String newTitle = scanner.nextLine();
-            System.out.println("Enter new author name or - if you don't want to change it:");
-            String newAuthor = scanner.nextLine();
-            System.out.println("Enter new genre name or - if you don't want to change it:");
-            String newGenre = scanner.nextLine();
-            System.out.println("Enter new price or -1 if you don't want to change it:");
-            float newPrice = Float.parseFloat(scanner.nextLine());
-            System.out.println("Enter new quantity in stock or -1 if you don't want to change it:");
-            int newQuantity = Integer.parseInt(scanner.nextLine());
-
-            transaction = session.beginTransaction();
-
-            Book book = session.get(Book.class, bookID);
-
-            if (book != null) {
-                if (!newTitle.trim().equals("-")) {
-                    book.setTitle(newTitle);
-                }
-                if (!newAuthor.trim().equals("-")) {
-                    book.setAuthor(newAuthor);
-                }
-                if (!newGenre.trim().equals("-")) {
-                    book.setGenre(newGenre);
-                }
-                if (newPrice != -1) {
-                    book.setPrice(newPrice);
-                }
-                if (newQuantity != -1) {
-                    book.setQuantityInStock(newQuantity);
-                }
+    // Reads Text Value, - Means No Change
+    private static String readOptionalText() {
+        String value = scanner.nextLine();
+        return value.trim().equals("-") ? null : value;
+    }
 
-                session.persist(book);
-                session.flush();
-                transaction.commit();
-            } else {
-                System.out.println("Book with ID " + bookID + " not found.");
+    // Reads Customer ID, Email or Phone Number, Null If No Single Customer Matches
+    private static Long readCustomerID(BookstoreService service) {
+        String key = scanner.nextLine().trim();
+
+        if (key.contains("@")) {
+            Customer customer = operations.time("findCustomerByEmail",
+                    () -> service.findCustomerByEmail(key), result -> result != null ? 1 : 0);
+            if (customer == null) {
+                System.out.println("No customer with email " + key + ".");
+                return null;
             }
-        } catch (NumberFormatException e) {
-            System.out.println("Invalid input format. Please enter valid numeric values.");
-        } finally {
-            if (transaction != null && transaction.isActive()) {
-                transaction.rollback();
+            return customer.getCustomerID();
+        }
+        if (key.startsWith("+")) {
+            List<Customer> customers = operations.time("findCustomersByPhone",
+                    () -> service.findCustomersByPhone(key), List::size);
+            if (customers.size() != 1) {
+                System.out.println(customers.isEmpty() ? "No customer with phone " + key + "." : "Several customers share this phone:");
+                for (Customer customer : customers) {
+                    System.out.printf("ID: %d, Name: %s, Email: %s%n",
+                            customer.getCustomerID(), customer.getName(), customer.getEmail());
+                }
+                return null;
             }
+            return customers.getFirst().getCustomerID();
+        }
+        return Long.parseLong(key);
+    }
+
+    // Updates Book's Details
+    private static void updateBookDetails(BookstoreService service) {
+        System.out.println("Enter book ID:");
+        Long bookID = Long.parseLong(scanner.nextLine());
+
+        System.out.println("Enter new title or - if you don't want to change it:");
+        String newTitle = readOptionalText();
+        System.out.println("Enter new author name or - if you don't want to change it:");
+        String newAuthor = readOptionalText();
+        System.out.println("Enter new genre name or - if you don't want to change it:");
+        String newGenre = readOptionalText();
+        System.out.println("Enter new price or -1 if you don't want to change it:");
+        Money newPrice = Money.parse(scanner.nextLine());
+        System.out.println("Enter new quantity in stock or -1 if you don't want to change it:");
+        int newQuantity = Integer.parseInt(scanner.nextLine());
+
+        boolean updated = operations.time("updateBookDetails", () -> service.updateBookDetails(bookID, newTitle, newAuthor,
+                newGenre, !newPrice.isNegative() ? newPrice : null, newQuantity != -1 ? newQuantity : null), Bookstore::rows);
+
+        if (!updated) {
+            System.out.println("Book with ID " + bookID + " not found.");
+        } else if (newGenre != null || newAuthor != null) {
+            refreshAnalytics(service);
         }
     }
 
     // Prints List of Books by Genre
-    private static void listBooksByGenre(Session session) throws SQLException {
+    private static void listBooksByGenre(BookstoreService service) {
         System.out.print("Enter genre: ");
         String genre = scanner.nextLine().trim();
 
-        CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
-        CriteriaQuery<Book> criteriaQuery = criteriaBuilder.createQuery(Book.class);
-        Root<Book> root = criteriaQuery.from(Book.class);
-
-        criteriaQuery.multiselect(
-                root.get("title"),
-                root.get("author"),
-                root.get("genre"),
-                root.get("price"),
-                root.get("quantityInStock")
-        );
-
-        criteriaQuery.where(criteriaBuilder.equal(root.get("genre"), genre));
-
-        List<Book> resultList = session.createQuery(criteriaQuery).getResultList();
+        List<Book> resultList = operations.time("listBooksByGenre", () -> service.listBooksByGenre(genre), List::size);
 
         if (resultList.isEmpty()) {
             System.out.println("No books found for the given genre.");
@@ -156,25 +246,11 @@ public class Bookstore {
     }
 
     // Prints List of Books by Author
-    private static void listBooksByAuthor(Session session) throws SQLException {
+    private static void listBooksByAuthor(BookstoreService service) {
         System.out.print("Enter author: ");
         String author = scanner.nextLine().trim();
 
-        CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
-        CriteriaQuery<Book> criteriaQuery = criteriaBuilder.createQuery(Book.class);
-        Root<Book> root = criteriaQuery.from(Book.class);
-
-        criteriaQuery.multiselect(
-                root.get("title"),
-                root.get("author"),
-                root.get("genre"),
-                root.get("price"),
-                root.get("quantityInStock")
-        );
-
-        criteriaQuery.where(criteriaBuilder.equal(root.get("author"), author));
-
-        List<Book> resultList = session.createQuery(criteriaQuery).getResultList();
+        List<Book> resultList = operations.time("listBooksByAuthor", () -> service.listBooksByAuthor(author), List::size);
 
         if (resultList.isEmpty()) {
             System.out.println("No books found for the given author.");
@@ -188,242 +264,616 @@ public class Bookstore {
         for (Book row : resultList) {
             String title = row.getTitle();
             String author = row.getAuthor();
-            Float price = row.getPrice();
+            Money price = row.getPrice();
             int quantityInStock = row.getQuantityInStock();
 
-            System.out.printf("Title: %s, Author: %s, Price: %.2f, QuantityInStock: %d%n",
+            System.out.printf("Title: %s, Author: %s, Price: %s, QuantityInStock: %d%n",
                     title, author, price, quantityInStock);
         }
     }
 
     // Updates Customer's Information
-    private static void updateCustomerInformation(Session session) throws SQLException, NumberFormatException {
-        Transaction transaction = null;
+    private static void updateCustomerInformation(BookstoreService service) {
+        System.out.println("Enter customer ID, email or phone:");
+        Long customerID = readCustomerID(service);
+        if (customerID == null) {
+            return;
+        }
 
-        try {
-            System.out.println("Enter customer ID:");
-            Long customerID = Long.parseLong(scanner.nextLine());
+        System.out.println("Enter new name or - if you don't want to change it:");
+        String newName = readOptionalText();
+        System.out.println("Enter new email or - if you don't want to change it:");
+        String newEmail = readOptionalText();
+        System.out.println("Enter new phone number or - if you don't want to change it:");
+        String newPhone = readOptionalText();
 
-            System.out.println("Enter new name or - if you don't want to change it:");
-            String newName = scanner.nextLine();
-            System.out.println("Enter new email or - if you don't want to change it:");
-            String newEmail = scanner.nextLine();
-            System.out.println("Enter new phone number or - if you don't want to change it:");
-            String newPhone = scanner.nextLine();
+        boolean updated = operations.time("updateCustomerInformation",
+                () -> service.updateCustomerInformation(customerID, newName, newEmail, newPhone), Bookstore::rows);
 
-            transaction = session.beginTransaction();
+        if (!updated) {
+            System.out.println("Customer with ID " + customerID + " not found.");
+        }
+    }
 
-            Customer customer = session.get(Customer.class, customerID);
+    // Prints Customer's Purchase History While Rows Are Read
+    private static void viewCustomerPurchaseHistory(BookstoreService service) {
+        System.out.print("Enter customer ID, email or phone: ");
+        Long customerID = readCustomerID(service);
+        if (customerID == null) {
+            return;
+        }
 
-            if (customer != null) {
-                if (!newName.trim().equals("-")) {
-                    customer.setName(newName);
-                }
-                if (!newEmail.trim().equals("-")) {
-                    customer.setEmail(newEmail);
-                }
-                if (!newPhone.trim().equals("-")) {
-                    customer.setPhone(newPhone);
-                }
+        long rows = operations.timeStream("viewCustomerPurchaseHistory",
+                consumer -> service.streamCustomerPurchaseHistory(customerID, consumer), Bookstore::printPurchaseHistoryEntry);
+
+        if (rows == 0) {
+            System.out.println("No records found.");
+        }
+    }
 
-                session.persist(customer);
-                session.flush();
-                transaction.commit();
-            } else {
-                System.out.println("Customer with ID " + customerID + " not found.");
+    // Prints Purchase History Entry
+    private static void printPurchaseHistoryEntry(PurchaseHistoryEntry row) {
+        System.out.printf("Customer: %s, Title: %s, Author: %s, Genre: %s, Date of Sale: %s%n",
+                row.customerName(), row.title(), row.author(), row.genre(), row.dateOfSale());
+    }
+
+    // Processes New Sale
+    private static void handleNewSales(BookstoreService service) {
+        System.out.println("Enter customer ID, email or phone:");
+        Long customerID = readCustomerID(service);
+        if (customerID == null) {
+            return;
+        }
+        System.out.println("Enter book ID:");
+        Long bookID = Long.parseLong(scanner.nextLine());
+
+        System.out.println("Enter books count:");
+        int count = Integer.parseInt(scanner.nextLine());
+
+        if (journal != null) {
+            long sequence = operations.time("journalSale", () -> journal.append(customerID, bookID, count), accepted -> 1);
+            System.out.println("Sale accepted as journal entry " + sequence + ", it is written to the database in the background.");
+            return;
+        }
+
+        Sale sale = operations.time("handleNewSale", () -> service.handleNewSale(customerID, bookID, count), newSale -> 1);
+        if (analytics != null) {
+            analytics.append(sale);
+        }
+    }
+
+    private static SaleJournal openJournal(BookstoreService service) {
+        try {
+            SaleJournal saleJournal = SaleJournal.fromSettings(service);
+            if (saleJournal != null) {
+                // Analytics Are Not Loaded Yet, Sales Replayed Before This Are Part of Their First Load
+                saleJournal.onCommit(sales -> publishJournaledSales(service, sales));
             }
-        } catch (NumberFormatException e) {
-            System.out.println("Invalid input format. Please enter valid numeric values.");
-        } finally {
-            if (transaction != null && transaction.isActive()) {
-                transaction.rollback();
+            return saleJournal;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open sale journal: " + e.getMessage(), e);
+        }
+    }
+
+    // Runs on the Journal Writer After Each Group Commit. Sales of Books the Store Has Not Seen Yet Need a Refresh
+    private static void publishJournaledSales(BookstoreService service, List<Sale> sales) {
+        SalesColumnStore store = analytics;
+        if (store != null && !store.append(sales)) {
+            store.refresh(service.getSessionFactory());
+        }
+    }
+
+    // Waits for the Writer to Finish Queued Sales, Anything Left Is Replayed on the Next Start
+    private static void closeJournal() {
+        try {
+            journal.close();
+        } catch (IOException e) {
+            System.out.println("Could not close sale journal: " + e.getMessage());
+        }
+    }
+
+    // Places Order for a Cart of Books, All Lines Succeed or None Do
+    private static void placeOrder(BookstoreService service) {
+        System.out.println("Enter customer ID, email or phone:");
+        Long customerID = readCustomerID(service);
+        if (customerID == null) {
+            return;
+        }
+
+        List<OrderLine> cart = new ArrayList<>();
+        System.out.println("Enter book ID and books count per line, e.g. 12 2, empty line to finish:");
+        String line;
+        while (!(line = scanner.nextLine().trim()).isEmpty()) {
+            String[] fields = line.split("\\s+");
+            if (fields.length != 2) {
+                System.out.println("Expected book ID and books count: " + line);
+                continue;
             }
+            cart.add(new OrderLine(Long.parseLong(fields[0]), Integer.parseInt(fields[1])));
+        }
+
+        CustomerOrder order = operations.time("placeOrder", () -> service.placeOrder(customerID, cart),
+                placedOrder -> placedOrder.getLines().size());
+        if (analytics != null) {
+            order.getLines().forEach(analytics::append);
         }
+        System.out.printf("Order %d placed: %d line(s), Total: %s%n",
+                order.getOrderID(), order.getLines().size(), order.getTotalPrice());
     }
 
-    // Prints Customer's Purchase History
-    private static void viewCustomerPurchaseHistory(Session session) throws SQLException {
+    // Calculates Total Revenue by Genre
+    private static void calculateTotalRevenueByGenre(BookstoreService service) {
+        System.out.print("Enter genre: ");
+        String genre = scanner.nextLine();
+
+        printGenreRevenues(operations.time("calculateTotalRevenueByGenre",
+                () -> service.calculateTotalRevenueByGenre(genre), List::size));
+    }
+
+    // Report of All Sold Books, Printed While Rows Are Read
+    private static void reportOfAllSoldBooks(BookstoreService service) {
+        long rows = operations.timeStream("reportOfAllSoldBooks", service::streamAllSoldBooks, Bookstore::printSoldBookEntry);
+
+        if (rows == 0) {
+            System.out.println("No records found.");
+        }
+    }
+
+    // Report of Sold Books Matching Filter
+    private static void reportOfFilteredSoldBooks(BookstoreService service) {
+        System.out.println("Leave any filter empty to skip it.");
+        System.out.print("Enter start date (YYYY-MM-DD): ");
+        String from = scanner.nextLine().trim();
+        System.out.print("Enter end date (YYYY-MM-DD): ");
+        String to = scanner.nextLine().trim();
         System.out.print("Enter customer ID: ");
-        int customerID = Integer.parseInt(scanner.nextLine());
-
-        CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
-        CriteriaQuery<Object[]> criteriaQuery = criteriaBuilder.createQuery(Object[].class);
-        Root<Customer> customerRoot = criteriaQuery.from(Customer.class);
-        Root<Sale> saleRoot = criteriaQuery.from(Sale.class);
-        Root<Book> bookRoot = criteriaQuery.from(Book.class);
-
-        criteriaQuery.multiselect(
-                customerRoot.get("name").alias("CustomerName"),
-                bookRoot.get("title"),
-                bookRoot.get("author"),
-                bookRoot.get("genre"),
-                saleRoot.get("dateOfSale")
-        );
+        String customerID = scanner.nextLine().trim();
+        System.out.print("Enter genre: ");
+        String genre = scanner.nextLine().trim();
+        System.out.print("Enter author: ");
+        String author = scanner.nextLine().trim();
 
-        criteriaQuery.where(
-                criteriaBuilder.equal(customerRoot.get("customerID"), saleRoot.get("customer").get("customerID")),
-                criteriaBuilder.equal(bookRoot.get("bookID"), saleRoot.get("book").get("bookID")),
-                criteriaBuilder.equal(customerRoot.get("customerID"), customerID)
+        SalesReportFilter filter = new SalesReportFilter(
+                from.isEmpty() ? null : LocalDate.parse(from),
+                to.isEmpty() ? null : LocalDate.parse(to),
+                customerID.isEmpty() ? null : Long.parseLong(customerID),
+                genre.isEmpty() ? null : genre,
+                author.isEmpty() ? null : author
         );
 
-        List<Object[]> resultList = session.createQuery(criteriaQuery).getResultList();
+        long rows = operations.timeStream("reportOfFilteredSoldBooks",
+                consumer -> service.streamSoldBooks(filter, consumer), Bookstore::printSoldBookEntry);
 
-        if (resultList.isEmpty()) {
+        if (rows == 0) {
             System.out.println("No records found.");
-            return;
         }
+    }
+
+    // Browses Sold Books Page by Page
+    private static void browseSalesReport(BookstoreService service) {
+        int pageSize = service.reportPageSize();
+        Long lastSaleID = null;
+
+        while (true) {
+            Long afterSaleID = lastSaleID;
+            List<SoldBookEntry> page = operations.time("reportOfSoldBooksPage",
+                    () -> service.reportOfSoldBooksPage(afterSaleID, pageSize), List::size);
 
-        for (Object[] row : resultList) {
-            String customerName = (String) row[0];
-            String title = (String) row[1];
-            String author = (String) row[2];
-            String genre = (String) row[3];
-            LocalDate dateOfSale = (LocalDate) row[4];
+            if (page.isEmpty()) {
+                System.out.println(lastSaleID == null ? "No records found." : "End of report.");
+                return;
+            }
+
+            page.forEach(Bookstore::printSoldBookEntry);
+            lastSaleID = page.get(page.size() - 1).saleID();
+
+            if (page.size() < pageSize) {
+                System.out.println("End of report.");
+                return;
+            }
 
-            System.out.printf("Customer: %s, Title: %s, Author: %s, Genre: %s, Date of Sale: %s%n",
-                    customerName, title, author, genre, dateOfSale);
+            System.out.println("Press Enter for next page or q to stop:");
+            if (scanner.nextLine().trim().equalsIgnoreCase("q")) {
+                return;
+            }
         }
     }
 
-    // Processes New Sale
-    private static void  handleNewSales(Session session) throws SQLException, NumberFormatException {
-        Transaction transaction = null;
+    // Best Sellers and Top Customers of a Trailing Window, or One Customer's Lifetime Value
+    private static void topSellers(BookstoreService service) {
+        if (rankings == null) {
+            rankings = new SalesRankings(service.getReadRouter());
+        }
 
-        try {
+        System.out.println("Show top (b)ooks, top books per (g)enre, top (a)uthors, top (c)ustomers or customer lifetime (v)alue?");
+        String report = scanner.nextLine().trim().toLowerCase();
+
+        if (report.equals("v")) {
             System.out.println("Enter customer ID:");
             Long customerID = Long.parseLong(scanner.nextLine());
-            System.out.println("Enter book ID:");
-            Long bookID = Long.parseLong(scanner.nextLine());
 
-            System.out.println("Enter books count:");
-            int count = Integer.parseInt(scanner.nextLine());
+            CustomerLifetimeValue value = operations.time("customerLifetimeValue",
+                    () -> rankings.cachedCustomerLifetimeValue(customerID), result -> result != null ? 1 : 0);
+            if (value == null) {
+                System.out.println("No purchases found for customer with ID " + customerID + ".");
+                return;
+            }
+            System.out.printf("Customer: %s, Purchases: %d, Books Bought: %d, Total Spend: %s, Average Purchase: %s, " +
+                            "First Purchase: %s, Last Purchase: %s, Spend Rank: %d of %d%n",
+                    value.name(), value.purchases(), value.booksBought(), value.totalSpend(), value.averagePurchase(),
+                    value.firstPurchase(), value.lastPurchase(), value.spendRank(), value.customersWithPurchases());
+            return;
+        }
+        if (!List.of("b", "g", "a", "c").contains(report)) {
+            System.out.println("Invalid choice. Please enter b, g, a, c or v.");
+            return;
+        }
+
+        System.out.print("Enter window in days: ");
+        int days = Integer.parseInt(scanner.nextLine().trim());
+        RankingMetric metric = RankingMetric.REVENUE;
+        if (!report.equals("c")) {
+            System.out.println("Rank by quantity or revenue? (q/r)");
+            metric = scanner.nextLine().trim().equalsIgnoreCase("q") ? RankingMetric.QUANTITY : RankingMetric.REVENUE;
+        }
+        System.out.print(report.equals("g") ? "Enter number of books per genre: " : "Enter number of results: ");
+        int limit = Integer.parseInt(scanner.nextLine().trim());
+
+        RankingMetric rankBy = metric;
+        switch (report) {
+            case "b", "g" -> {
+                List<BookRanking> resultList = operations.time(report.equals("b") ? "topBooks" : "topBooksPerGenre",
+                        () -> report.equals("b") ? rankings.topBooks(rankBy, days, limit)
+                                : rankings.topBooksPerGenre(rankBy, days, limit), List::size);
+                for (BookRanking row : resultList) {
+                    System.out.printf("#%d Title: %s, Author: %s, Genre: %s, Sold: %d, Revenue: %s%n",
+                            row.rank(), row.title(), row.author(), row.genre(), row.quantitySold(), row.revenue());
+                }
+                printNoRecords(resultList);
+            }
+            case "a" -> {
+                List<AuthorRanking> resultList = operations.time("topAuthors",
+                        () -> rankings.topAuthors(rankBy, days, limit), List::size);
+                for (AuthorRanking row : resultList) {
+                    System.out.printf("#%d Author: %s, Sold: %d, Revenue: %s%n",
+                            row.rank(), row.author(), row.quantitySold(), row.revenue());
+                }
+                printNoRecords(resultList);
+            }
+            default -> {
+                List<CustomerRanking> resultList = operations.time("topCustomers",
+                        () -> rankings.topCustomers(days, limit), List::size);
+                for (CustomerRanking row : resultList) {
+                    System.out.printf("#%d Customer: %s, Purchases: %d, Spend: %s%n",
+                            row.rank(), row.name(), row.purchases(), row.spend());
+                }
+                printNoRecords(resultList);
+            }
+        }
+    }
+
+    private static void printNoRecords(List<?> resultList) {
+        if (resultList.isEmpty()) {
+            System.out.println("No records found.");
+        }
+    }
 
-            transaction = session.beginTransaction();
+    // Searches Books by Title or Author Page by Page, Best Matches First
+    private static void searchCatalog(BookstoreService service) {
+        System.out.print("Enter title or author, or the beginning of it: ");
+        String text = scanner.nextLine();
 
-            String jpql = "SELECT b.price FROM Book b WHERE b.bookID = :bookID";
-            float price = session.createQuery(jpql, Float.class)
-                    .setParameter("bookID", bookID)
-                    .getSingleResult() * count;
+        CatalogSearch search = new CatalogSearch(service.getReadRouter().forRead());
+        int pageSize = Math.min(service.reportPageSize(), CatalogSearch.MAX_PAGE_SIZE);
 
-            Sale newSale = new Sale(session.get(Book.class, bookID),
-                                    session.get(Customer.class, customerID),
-                                    LocalDate.now(), count, price);
+        BookSearchResult lastRow = null;
+        int shown = 0;
+        while (true) {
+            BookSearchResult after = lastRow;
+            List<BookSearchResult> resultList = operations.time("searchCatalog",
+                    () -> search.search(text, after, pageSize), List::size);
 
-            session.persist(newSale);
-            session.flush();
-            transaction.commit();
-        } catch (NumberFormatException e) {
-            System.out.println("Invalid input format. Please enter valid numeric values.");
-        } finally {
-            if (transaction != null && transaction.isActive()) {
-                transaction.rollback();
+            if (resultList.isEmpty()) {
+                System.out.println(after == null ? "No records found." : endOfSearchResults(search, shown));
+                return;
             }
-        }
-    }
 
-    // Calculates Total Revenue by Genre
-    private static void calculateTotalRevenueByGenre(Session session) throws SQLException {
-        System.out.print("Enter genre: ");
-        String genre = scanner.nextLine();
+            for (BookSearchResult row : resultList) {
+                System.out.printf("ID: %d, Title: %s, Author: %s, Genre: %s, Price: %s%n",
+                        row.bookID(), row.title(), row.author(), row.genre(), row.price());
+            }
+            lastRow = resultList.get(resultList.size() - 1);
+            shown += resultList.size();
 
-        CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
-        CriteriaQuery<Object[]> criteriaQuery = criteriaBuilder.createQuery(Object[].class);
-        Root<Sale> saleRoot = criteriaQuery.from(Sale.class);
-        Root<Book> bookRoot = criteriaQuery.from(Book.class);
+            if (resultList.size() < pageSize) {
+                System.out.println(endOfSearchResults(search, shown));
+                return;
+            }
 
-        criteriaQuery.multiselect(
-                bookRoot.get("genre"),
-                criteriaBuilder.sum(saleRoot.get("totalPrice"))
-        );
+            System.out.println("Press Enter for next page or q to stop:");
+            if (scanner.nextLine().trim().equalsIgnoreCase("q")) {
+                return;
+            }
+        }
+    }
 
-        criteriaQuery.where(
-                criteriaBuilder.equal(saleRoot.get("book"), bookRoot),
-                criteriaBuilder.equal(bookRoot.get("genre"), genre)
-        );
+    // Says So When Matches Past the Candidate Bound Were Left Out
+    private static String endOfSearchResults(CatalogSearch search, int shown) {
+        return shown < search.getMaxCandidates() ? "End of results."
+                : "End of results, only the " + search.getMaxCandidates() + " best matches are shown. Refine the search to see others.";
+    }
 
-        criteriaQuery.groupBy(bookRoot.get("genre"));
+    // Prints Sold Book Entry
+    private static void printSoldBookEntry(SoldBookEntry row) {
+        System.out.printf("Customer: %s, Book Title: %s, Date of Sale: %s%n",
+                row.customerName(), row.bookTitle(), row.dateOfSale());
+    }
 
-        List<Object[]> resultList = session.createQuery(criteriaQuery).getResultList();
+    // Report of Total Revenue from Each Genre
+    private static void reportOfTotalRevenueFromEachGenre(BookstoreService service) {
+        printGenreRevenues(operations.time("reportOfTotalRevenueFromEachGenre",
+                service::reportOfTotalRevenueFromEachGenre, List::size));
+    }
 
+    // Prints Revenues by Genre
+    private static void printGenreRevenues(List<GenreRevenue> resultList) {
         if (resultList.isEmpty()) {
             System.out.println("No records found.");
             return;
         }
 
-        for (Object[] row : resultList) {
-            genre = (String) row[0];
-            float totalRevenue = (Float) row[1];
+        for (GenreRevenue row : resultList) {
+            System.out.printf("Genre: %s, Total Revenue: %s%n", row.genre(), row.totalRevenue());
+        }
+    }
+
+    // Imports Sales from CSV File
+    private static void importSales(BookstoreService service) throws IOException {
+        System.out.println("Enter CSV file path (customer_id,book_id,date_of_sale,quantity_sold):");
+        Path path = Path.of(scanner.nextLine().trim());
+
+        ImportResult result = operations.time("importSales",
+                () -> new SaleImporter(service.getSessionFactory()).importCsv(path), ImportResult::importedSales);
+        service.getReadRouter().recordWrite();
+        refreshAnalytics(service);
+
+        System.out.printf("Imported Sales: %d, Elapsed: %d ms%n", result.importedSales(), result.elapsedMillis());
+    }
 
-            System.out.printf("Genre: %s, Total Revenue: %.2f%n", genre, totalRevenue);
+    // Exports Report to CSV or Compact Columnar File Instead of Printing It
+    private static void exportReport(BookstoreService service) throws IOException {
+        System.out.println("Export (s)ales report, customer (p)urchase history, (r)evenue by genre or (d)aily revenue by genre?");
+        String report = scanner.nextLine().trim().toLowerCase();
+        if (!List.of("s", "p", "r", "d").contains(report)) {
+            System.out.println("Invalid choice. Please enter s, p, r or d.");
+            return;
+        }
+
+        Long customerID = null;
+        LocalDate from = null;
+        LocalDate to = null;
+        if (report.equals("p")) {
+            System.out.println("Enter customer ID:");
+            customerID = Long.parseLong(scanner.nextLine());
+        } else if (report.equals("d")) {
+            System.out.print("Enter start date (YYYY-MM-DD): ");
+            from = LocalDate.parse(scanner.nextLine().trim());
+            System.out.print("Enter end date (YYYY-MM-DD): ");
+            to = LocalDate.parse(scanner.nextLine().trim());
         }
+
+        System.out.println("Write CSV or columnar binary? (c/b)");
+        ExportFormat format = scanner.nextLine().trim().equalsIgnoreCase("b") ? ExportFormat.COLUMNAR : ExportFormat.CSV;
+        System.out.println("Enter output file path (." + format.getExtension() + "):");
+        Path path = Path.of(scanner.nextLine().trim());
+
+        ReportExporter exporter = new ReportExporter(service);
+        Long exportedCustomerID = customerID;
+        LocalDate exportedFrom = from;
+        LocalDate exportedTo = to;
+        ExportResult result = operations.time("exportReport", () -> switch (report) {
+            case "s" -> exporter.exportSoldBooks(SalesReportFilter.none(), path, format);
+            case "p" -> exporter.exportPurchaseHistory(exportedCustomerID, path, format);
+            case "r" -> exporter.exportRevenueByGenre(path, format);
+            default -> exporter.exportDailyRevenue(exportedFrom, exportedTo, path, format);
+        }, ExportResult::exportedRows);
+
+        System.out.printf("Exported Rows: %d, Partitions: %d, Elapsed: %d ms, File: %s%n",
+                result.exportedRows(), result.partitions(), result.elapsedMillis(), result.file());
     }
 
-    // Report of All Sold Books
-    private static void reportOfAllSoldBooks(Session session) throws SQLException {
-        CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
-        CriteriaQuery<Object[]> criteriaQuery = criteriaBuilder.createQuery(Object[].class);
-        Root<Customer> customerRoot = criteriaQuery.from(Customer.class);
-        Root<Sale> saleRoot = criteriaQuery.from(Sale.class);
-        Root<Book> bookRoot = criteriaQuery.from(Book.class);
+    // Sales of the Coming Months Go to Their Own Partitions, Not the Default One. Startup Goes On When This Fails,
+    // the Default Partition Still Takes Their Sales and Scheduled Archiving Runs Try Again
+    private static void createUpcomingPartitions() {
+        try {
+            archiver.createUpcomingPartitions();
+        } catch (PersistenceException e) {
+            System.out.println("Could not create upcoming sales partitions: " + e.getMessage());
+        }
+    }
 
-        criteriaQuery.multiselect(
-                customerRoot.get("name").alias("CustomerName"),
-                bookRoot.get("title"),
-                saleRoot.get("dateOfSale")
-        );
+    // Moves Sales Past the Retention Window into One Archive Row per Book and Day, Revenue Reports Stay the Same
+    private static void archiveSales(BookstoreService service) {
+        System.out.println("Enter months of sales to keep row by row or - for " + archiver.getRetentionMonths() + ":");
+        String months = readOptionalText();
+        int keptMonths = months != null ? Integer.parseInt(months.trim()) : archiver.getRetentionMonths();
 
-        criteriaQuery.where(
-                criteriaBuilder.equal(customerRoot.get("customerID"), saleRoot.get("customer").get("customerID")),
-                criteriaBuilder.equal(bookRoot.get("bookID"), saleRoot.get("book").get("bookID"))
-        );
+        ArchiveResult result = operations.time("archiveSales", () -> archiver.archive(keptMonths), ArchiveResult::archivedSales);
 
-        List<Object[]> resultList = session.createQuery(criteriaQuery).getResultList();
+        System.out.printf("Archived Sales Before %s: %d, Archive Rows: %d, Dropped Partitions: %d, Elapsed: %d ms%n",
+                result.cutoff(), result.archivedSales(), result.archiveRows(), result.droppedPartitions(),
+                result.elapsedMillis());
+        refreshAnalytics(service);
+    }
 
-        if (resultList.isEmpty()) {
-            System.out.println("No records found.");
+    // Reprices All Books of Genre or Author by Percentage
+    private static void repriceBooks(BookstoreService service) {
+        System.out.println("Reprice by genre or author? (g/a)");
+        String by = scanner.nextLine().trim().toLowerCase();
+        if (!by.equals("g") && !by.equals("a")) {
+            System.out.println("Invalid choice. Please enter g or a.");
             return;
         }
 
-        for (Object[] row : resultList) {
-            String customerName = (String) row[0];
-            String bookTitle = (String) row[1];
-            LocalDate dateOfSale = (LocalDate) row[2];
+        System.out.print(by.equals("g") ? "Enter genre: " : "Enter author: ");
+        String value = scanner.nextLine().trim();
+        System.out.print("Enter price change in percent (e.g. 10 or -15.5): ");
+        BigDecimal percentage = new BigDecimal(scanner.nextLine().trim());
 
-            System.out.printf("Customer: %s, Book Title: %s, Date of Sale: %s%n",
-                    customerName, bookTitle, dateOfSale);
+        CatalogUpdater updater = new CatalogUpdater(service.getSessionFactory());
+        BulkUpdateResult result = operations.time("repriceBooks",
+                () -> by.equals("g") ? updater.repriceGenre(value, percentage) : updater.repriceAuthor(value, percentage),
+                BulkUpdateResult::updatedBooks);
+        service.getReadRouter().recordWrite();
+
+        printBulkUpdateResult(result);
+    }
+
+    // Applies Stock Deltas from CSV File
+    private static void applyStockDeltas(BookstoreService service) throws IOException {
+        System.out.println("Enter CSV file path (book_id,delta):");
+        Path path = Path.of(scanner.nextLine().trim());
+
+        BulkUpdateResult result = operations.time("applyStockDeltas",
+                () -> new CatalogUpdater(service.getSessionFactory()).applyStockDeltas(path), BulkUpdateResult::updatedBooks);
+        service.getReadRouter().recordWrite();
+
+        printBulkUpdateResult(result);
+    }
+
+    // Renames Genre on All Books
+    private static void renameGenre(BookstoreService service) {
+        System.out.print("Enter current genre: ");
+        String oldGenre = scanner.nextLine().trim();
+        System.out.print("Enter new genre: ");
+        String newGenre = scanner.nextLine().trim();
+
+        BulkUpdateResult result = operations.time("renameGenre",
+                () -> new CatalogUpdater(service.getSessionFactory()).renameGenre(oldGenre, newGenre),
+                BulkUpdateResult::updatedBooks);
+        service.getReadRouter().recordWrite();
+        refreshAnalytics(service);
+
+        printBulkUpdateResult(result);
+    }
+
+    // Answers Revenue Reports from the In-Memory Column Store, Loads It on First Use
+    private static void analyticsReport(BookstoreService service) {
+        if (analytics == null) {
+            analytics = operations.time("loadAnalytics",
+                    () -> SalesColumnStore.load(service.getReadRouter().forRead()), SalesColumnStore::size);
+            if (journal != null) {
+                // Journaled Sales Committed While Loading Found No Store to Publish To
+                analytics.refresh(service.getSessionFactory());
+            }
+            System.out.printf("Loaded %d sales into memory.%n", analytics.size());
         }
+
+        System.out.println("Group by genre, author or day? (g/a/d)");
+        SalesColumnStore.Dimension dimension = switch (scanner.nextLine().trim().toLowerCase()) {
+            case "g" -> SalesColumnStore.Dimension.GENRE;
+            case "a" -> SalesColumnStore.Dimension.AUTHOR;
+            case "d" -> SalesColumnStore.Dimension.DAY;
+            default -> null;
+        };
+        if (dimension == null) {
+            System.out.println("Invalid choice. Please enter g, a or d.");
+            return;
+        }
+
+        System.out.println("Leave any value empty to skip it.");
+        System.out.print("Enter start date (YYYY-MM-DD): ");
+        String from = scanner.nextLine().trim();
+        System.out.print("Enter end date (YYYY-MM-DD): ");
+        String to = scanner.nextLine().trim();
+        System.out.print("Enter number of top groups by revenue: ");
+        String top = scanner.nextLine().trim();
+
+        LocalDate fromDay = from.isEmpty() ? null : LocalDate.parse(from);
+        LocalDate toDay = to.isEmpty() ? null : LocalDate.parse(to);
+
+        long start = System.nanoTime();
+        List<RevenueGroup> resultList = operations.time("analyticsReport",
+                () -> top.isEmpty() ? analytics.revenueBy(dimension, fromDay, toDay)
+                        : analytics.topBy(dimension, Integer.parseInt(top), fromDay, toDay), List::size);
+        double elapsedMillis = (System.nanoTime() - start) / 1_000_000.0;
+
+        if (resultList.isEmpty()) {
+            System.out.println("No records found.");
+        }
+        String label = switch (dimension) {
+            case GENRE -> "Genre";
+            case AUTHOR -> "Author";
+            case DAY -> "Day";
+        };
+        for (RevenueGroup row : resultList) {
+            System.out.printf("%s: %s, Revenue: %s, Books Sold: %d, Sales: %d%n",
+                    label, row.key(), row.revenue(), row.booksSold(), row.salesCount());
+        }
+        System.out.printf("Answered from %d sales in %.3f ms%n", analytics.size(), elapsedMillis);
     }
 
-    // Report of Total Revenue from Each Genre
-    private static void reportOfTotalRevenueFromEachGenre(Session session) throws SQLException {
-        CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
-        CriteriaQuery<Object[]> criteriaQuery = criteriaBuilder.createQuery(Object[].class);
-        Root<Sale> saleRoot = criteriaQuery.from(Sale.class);
-        Root<Book> bookRoot = criteriaQuery.from(Book.class);
-
-        criteriaQuery.multiselect(
-                bookRoot.get("genre"),
-                criteriaBuilder.sum(saleRoot.get("totalPrice"))
-        );
+    // Picks Up Sales and Book Changes Made Outside handleNewSale, If Analytics Are Loaded. Reads the Primary,
+    // a Replica Could Still Lack the Change That Triggered the Refresh
+    private static void refreshAnalytics(BookstoreService service) {
+        if (analytics != null) {
+            analytics.refresh(service.getSessionFactory());
+        }
+    }
 
-        criteriaQuery.where(
-                criteriaBuilder.equal(saleRoot.get("book"), bookRoot)
-        );
+    // Prints Bulk Update Result
+    private static void printBulkUpdateResult(BulkUpdateResult result) {
+        System.out.printf("Updated Books: %d, Skipped: %d, Elapsed: %d ms%n",
+                result.updatedBooks(), result.skippedRows(), result.elapsedMillis());
+        if (result.unknownRows() > 0) {
+            System.out.printf("Outcome unknown for %d rows, the database driver did not report update counts.%n",
+                    result.unknownRows());
+        }
+    }
 
-        criteriaQuery.groupBy(bookRoot.get("genre"));
+    // Report of Revenue per Genre and Day
+    private static void reportOfDailyRevenueByGenre(BookstoreService service) {
+        System.out.print("Enter start date (YYYY-MM-DD): ");
+        LocalDate from = LocalDate.parse(scanner.nextLine().trim());
+        System.out.print("Enter end date (YYYY-MM-DD): ");
+        LocalDate to = LocalDate.parse(scanner.nextLine().trim());
 
-        List<Object[]> resultList = session.createQuery(criteriaQuery).getResultList();
+        List<GenreDailyRevenue> resultList = operations.time("reportOfDailyRevenueByGenre",
+                () -> service.reportOfDailyRevenueByGenre(from, to), List::size);
 
         if (resultList.isEmpty()) {
             System.out.println("No records found.");
             return;
         }
 
-        for (Object[] row : resultList) {
-            String genre = (String) row[0];
-            float totalRevenue = (Float) row[1];
+        for (GenreDailyRevenue row : resultList) {
+            System.out.printf("Date: %s, Genre: %s, Sales: %d, Revenue: %s%n",
+                    row.getDay(), row.getGenre(), row.getSalesCount(), row.getRevenue());
+        }
+    }
+
+    // Verifies Revenue Summary Against Raw Sales
+    private static void verifyRevenueSummary(BookstoreService service) {
+        List<RevenueMismatch> mismatches = operations.time("verifyRevenueSummary",
+                service::verifyRevenueSummary, List::size);
+
+        if (mismatches.isEmpty()) {
+            System.out.println("Revenue summary matches sales.");
+            return;
+        }
 
-            System.out.printf("Genre: %s, Total Revenue: %.2f%n", genre, totalRevenue);
+        for (RevenueMismatch mismatch : mismatches) {
+            System.out.printf("Genre: %s, Summary Revenue: %s, Sales Revenue: %s%n",
+                    mismatch.genre(), mismatch.summaryRevenue(), mismatch.salesRevenue());
         }
     }
-}
\ No newline at end of file
+
+    // Rebuilds Revenue Summary from Raw Sales
+    private static void rebuildRevenueSummary(BookstoreService service) {
+        operations.time("rebuildRevenueSummary", () -> {
+            service.rebuildRevenueSummary();
+            return null;
+        }, result -> 0);
+        System.out.println("Revenue summary rebuilt.");
+    }
+}
@@ -0,0 +1,49 @@
+package org.example;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+public class BookstoreExecutor implements AutoCloseable {
+    private final BookstoreService service;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+
+    // Allows One In-Flight Task per Pooled Connection
+    public BookstoreExecutor(BookstoreService service) {
+        this(service, new ConnectionPoolMetrics(service.getSessionFactory()).getMaximumPoolSize());
+    }
+
+    public BookstoreExecutor(BookstoreService service, int maxConcurrentTasks) {
+        this.service = service;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.permits = new Semaphore(maxConcurrentTasks, true);
+    }
+
+    // Runs Task on Its Own Virtual Thread, Every Service Call Uses Its Own Session
+    public <T> CompletableFuture<T> submit(Function<BookstoreService, T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+
+            try {
+                return task.apply(service);
+            } finally {
+                permits.release();
+            }
+        }, executor);
+    }
+
+    // Waits for Submitted Tasks and Stops Accepting New Ones
+    @Override
+    public void close() {
+        executor.close();
+    }
+}
@@ -0,0 +1,585 @@
+package org.example;
+
+import org.hibernate.CacheMode;
+import org.hibernate.LockMode;
+import org.hibernate.LockOptions;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.engine.spi.NaturalIdResolutions;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.graph.GraphSemantic;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.query.Query;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+public class BookstoreService {
+    public static final String BOOK_LOOKUPS_REGION = "book-lookups";
+    public static final String CUSTOMER_LOOKUPS_REGION = "customer-lookups";
+    public static final String REPORT_FETCH_SIZE = "bookstore.report.fetch_size";
+    public static final String REPORT_PAGE_SIZE = "bookstore.report.page_size";
+    private static final int DEFAULT_REPORT_FETCH_SIZE = 1000;
+    private static final int DEFAULT_REPORT_PAGE_SIZE = 50;
+
+    // Sold Books Filters in Bit Order: Predicate and the Parameter It Binds
+    private static final String[] SOLD_BOOKS_PREDICATES = {"s.dateOfSale >= :from", "s.dateOfSale <= :to",
+            "s.customer.customerID = :customerID", "b.genre = :genre", "b.author = :author",
+            "s.saleID > :afterSaleID", "s.saleID <= :throughSaleID"};
+    private static final String[] SOLD_BOOKS_PARAMETERS = {"from", "to", "customerID", "genre", "author",
+            "afterSaleID", "throughSaleID"};
+    private static final Map<Integer, String> SOLD_BOOKS_QUERIES = new ConcurrentHashMap<>();
+
+    private final SessionFactory sessionFactory;
+    private final ReadReplicaRouter readRouter;
+
+    public BookstoreService(SessionFactory sessionFactory) {
+        this(ReadReplicaRouter.primaryOnly(sessionFactory));
+    }
+
+    public BookstoreService(ReadReplicaRouter readRouter) {
+        this.sessionFactory = readRouter.getPrimary();
+        this.readRouter = readRouter;
+    }
+
+    public SessionFactory getSessionFactory() {
+        return sessionFactory;
+    }
+
+    public ReadReplicaRouter getReadRouter() {
+        return readRouter;
+    }
+
+    // Updates Book's Details, Null Values Are Left Unchanged
+    public boolean updateBookDetails(Long bookID, String newTitle, String newAuthor, String newGenre,
+                                     Money newPrice, Integer newQuantity) {
+        Session session = null;
+        Transaction transaction = null;
+
+        try {
+            session = sessionFactory.openSession();
+            transaction = session.beginTransaction();
+
+            Book book = session.get(Book.class, bookID);
+
+            if (book == null) {
+                return false;
+            }
+
+            if (newGenre != null) {
+                // Re-Read Under the Row Lock, the Loaded Genre May Be Cached or Changed Since. Sales Take Their Genre
+                // Under the Same Lock in Inventory.reserve, So Each Is Either Counted by the Move or Recorded Afterwards
+                // Under the New Genre
+                session.refresh(book, new LockOptions(LockMode.PESSIMISTIC_WRITE));
+                if (!newGenre.equals(book.getGenre())) {
+                    RevenueSummary.moveBook(session, bookID, book.getGenre(), newGenre);
+                    book.setGenre(newGenre);
+                }
+            }
+            if (newTitle != null) {
+                book.setTitle(newTitle);
+            }
+            if (newAuthor != null) {
+                book.setAuthor(newAuthor);
+            }
+            if (newPrice != null) {
+                book.setPrice(newPrice);
+            }
+            if (newQuantity != null) {
+                book.setQuantityInStock(newQuantity);
+            }
+
+            // Managed Entity, Commit Flushes Only the Changed Columns
+            transaction.commit();
+            readRouter.recordWrite();
+            return true;
+        } finally {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
+    // Lists Books by Genre
+    public List<Book> listBooksByGenre(String genre) {
+        return listBooksBy(Book.BY_GENRE, "genre", genre);
+    }
+
+    // Lists Books by Author
+    public List<Book> listBooksByAuthor(String author) {
+        return listBooksBy(Book.BY_AUTHOR, "author", author);
+    }
+
+    private List<Book> listBooksBy(String queryName, String parameter, String value) {
+        try (Session session = sessionFactory.openSession()) {
+            return session.createNamedQuery(queryName, Book.class)
+                    .setParameter(parameter, value)
+                    .setCacheable(true)
+                    .setCacheRegion(BOOK_LOOKUPS_REGION)
+                    .getResultList();
+        }
+    }
+
+    // Updates Customer's Information, Null Values Are Left Unchanged
+    public boolean updateCustomerInformation(Long customerID, String newName, String newEmail, String newPhone) {
+        Session session = null;
+        Transaction transaction = null;
+
+        try {
+            session = sessionFactory.openSession();
+            transaction = session.beginTransaction();
+
+            Customer customer = session.get(Customer.class, customerID);
+
+            if (customer == null) {
+                return false;
+            }
+
+            if (newName != null) {
+                customer.setName(newName);
+            }
+            if (newEmail != null) {
+                customer.setEmail(newEmail);
+            }
+            if (newPhone != null) {
+                customer.setPhone(newPhone);
+            }
+
+            // Managed Entity, Commit Flushes Only the Changed Columns
+            transaction.commit();
+            readRouter.recordWrite();
+            return true;
+        } finally {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
+    // Finds Customer by Email, Repeat Lookups Are Resolved from the Natural-ID Cache
+    public Customer findCustomerByEmail(String email) {
+        try (Session session = sessionFactory.openSession()) {
+            return session.bySimpleNaturalId(Customer.class).load(email);
+        }
+    }
+
+    // Finds Customers by Emails, Emails Already in the Natural-ID Cache Are Loaded by ID, the Rest in One Query,
+    // Unknown Emails Are Left Out
+    public Map<String, Customer> findCustomersByEmails(List<String> emails) {
+        try (Session session = sessionFactory.openSession()) {
+            SessionImplementor sessionImplementor = session.unwrap(SessionImplementor.class);
+            EntityPersister persister = sessionImplementor.getFactory().getMappingMetamodel()
+                    .getEntityDescriptor(Customer.class);
+            NaturalIdResolutions resolutions = sessionImplementor.getPersistenceContextInternal().getNaturalIdResolutions();
+
+            List<Object> cachedIDs = new ArrayList<>();
+            List<String> uncachedEmails = new ArrayList<>();
+            for (String email : emails) {
+                Object customerID = resolutions.findCachedIdByNaturalId(email, persister);
+                if (customerID != null) {
+                    cachedIDs.add(customerID);
+                } else {
+                    uncachedEmails.add(email);
+                }
+            }
+
+            List<Customer> found = new ArrayList<>(session.byMultipleIds(Customer.class)
+                    .with(CacheMode.NORMAL)
+                    .multiLoad(cachedIDs));
+            if (!uncachedEmails.isEmpty()) {
+                found.addAll(session.byMultipleNaturalId(Customer.class)
+                        .withBatchSize(uncachedEmails.size())
+                        .enableOrderedReturn(false)
+                        .multiLoad(uncachedEmails));
+            }
+
+            Map<String, Customer> customers = new LinkedHashMap<>();
+            for (Customer customer : found) {
+                if (customer != null) {
+                    customers.put(customer.getEmail(), customer);
+                }
+            }
+            return customers;
+        }
+    }
+
+    // Finds Customers by Phone, Phone Is Not Unique So Several May Share It
+    public List<Customer> findCustomersByPhone(String phone) {
+        try (Session session = sessionFactory.openSession()) {
+            return session.createNamedQuery(Customer.BY_PHONE, Customer.class)
+                    .setParameter("phone", phone)
+                    .setCacheable(true)
+                    .setCacheRegion(CUSTOMER_LOOKUPS_REGION)
+                    .getResultList();
+        }
+    }
+
+    // Gets Customer's Purchase History
+    public List<PurchaseHistoryEntry> viewCustomerPurchaseHistory(Long customerID) {
+        try (Session session = readRouter.forRead().openSession()) {
+            return purchaseHistoryQuery(session, customerID, null).getResultList();
+        }
+    }
+
+    // Gets Page of Customer's Purchase History After Given Sale ID
+    public List<PurchaseHistoryEntry> viewCustomerPurchaseHistoryPage(Long customerID, Long afterSaleID, int pageSize) {
+        try (Session session = readRouter.forRead().openSession()) {
+            return purchaseHistoryQuery(session, customerID, afterSaleID)
+                    .setMaxResults(pageSize)
+                    .getResultList();
+        }
+    }
+
+    // Streams Customer's Purchase History Row by Row from Database Cursor
+    public long streamCustomerPurchaseHistory(Long customerID, Consumer<PurchaseHistoryEntry> consumer) {
+        return stream(session -> purchaseHistoryQuery(session, customerID, null), consumer);
+    }
+
+    // First Page and Later Pages Are Separate Named Queries, Each with One Cached Plan
+    private static Query<PurchaseHistoryEntry> purchaseHistoryQuery(Session session, Long customerID, Long afterSaleID) {
+        if (afterSaleID == null) {
+            return session.createNamedQuery(Sale.PURCHASE_HISTORY, PurchaseHistoryEntry.class)
+                    .setParameter("customerID", customerID);
+        }
+        return session.createNamedQuery(Sale.PURCHASE_HISTORY_AFTER, PurchaseHistoryEntry.class)
+                .setParameter("customerID", customerID)
+                .setParameter("afterSaleID", afterSaleID);
+    }
+
+    // Loads Sale Together with Its Book and Customer in One Select
+    public Sale findSale(Long saleID) {
+        try (Session session = readRouter.forRead().openSession()) {
+            return session.find(Sale.class, saleID,
+                    Map.of(GraphSemantic.FETCH.getJakartaHintName(), session.getEntityGraph(Sale.WITH_BOOK_AND_CUSTOMER)));
+        }
+    }
+
+    // Lists Customer's Sales with Books and Customer Fetched in the Same Select
+    public List<Sale> listSalesOfCustomer(Long customerID) {
+        try (Session session = readRouter.forRead().openSession()) {
+            return session.createNamedQuery(Sale.OF_CUSTOMER, Sale.class)
+                    .setParameter("customerID", customerID)
+                    .setHint(GraphSemantic.FETCH.getJakartaHintName(), session.getEntityGraph(Sale.WITH_BOOK_AND_CUSTOMER))
+                    .getResultList();
+        }
+    }
+
+    // Processes New Sale
+    public Sale handleNewSale(Long customerID, Long bookID, int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Books count must be positive.");
+        }
+
+        Session session = null;
+        Transaction transaction = null;
+
+        try {
+            session = sessionFactory.openSession();
+            transaction = session.beginTransaction();
+
+            Book book = session.get(Book.class, bookID);
+            if (book == null) {
+                throw new IllegalArgumentException("Book with ID " + bookID + " not found.");
+            }
+
+            Customer customer = session.get(Customer.class, customerID);
+            if (customer == null) {
+                throw new IllegalArgumentException("Customer with ID " + customerID + " not found.");
+            }
+
+            String genre = Inventory.reserve(session, bookID, count);
+
+            Sale newSale = new Sale(book, customer, LocalDate.now(), count, book.getPrice().times(count));
+
+            session.persist(newSale);
+            RevenueSummary.record(session, genre, newSale.getDateOfSale(), newSale.getTotalPrice(), 1);
+            session.flush();
+            transaction.commit();
+            readRouter.recordWrite();
+            return newSale;
+        } finally {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
+    // Places Order for a Cart of Books: One Price Query, Stock Reserved for Every Line, Lines Inserted in One Batch
+    public CustomerOrder placeOrder(Long customerID, List<OrderLine> cart) {
+        if (cart.isEmpty()) {
+            throw new IllegalArgumentException("Order must contain at least one book.");
+        }
+
+        // Repeated Books Become One Line, Sorted by Book ID So Concurrent Orders Lock Stock Rows in the Same Order
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (OrderLine line : cart) {
+            if (line.quantity() <= 0) {
+                throw new IllegalArgumentException("Books count must be positive.");
+            }
+            quantities.merge(line.bookID(), line.quantity(), Integer::sum);
+        }
+
+        Session session = null;
+        Transaction transaction = null;
+
+        try {
+            session = sessionFactory.openSession();
+            transaction = session.beginTransaction();
+
+            Customer customer = session.get(Customer.class, customerID);
+            if (customer == null) {
+                throw new IllegalArgumentException("Customer with ID " + customerID + " not found.");
+            }
+
+            // Books Already in the Second-Level Cache Are Taken from It, the Rest Are Loaded with One Query
+            Map<Long, Book> books = new HashMap<>();
+            for (Book book : session.byMultipleIds(Book.class)
+                    .with(CacheMode.NORMAL)
+                    .multiLoad(new ArrayList<>(quantities.keySet()))) {
+                if (book != null) {
+                    books.put(book.getBookID(), book);
+                }
+            }
+
+            Map<Long, String> genres = new HashMap<>();
+            for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+                if (!books.containsKey(entry.getKey())) {
+                    throw new IllegalArgumentException("Book with ID " + entry.getKey() + " not found.");
+                }
+                genres.put(entry.getKey(), Inventory.reserve(session, entry.getKey(), entry.getValue()));
+            }
+
+            CustomerOrder order = new CustomerOrder(customer, LocalDate.now());
+            Map<String, long[]> genreRevenues = new HashMap<>();
+            for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+                Book book = books.get(entry.getKey());
+                Sale sale = new Sale(book, customer, order.getDateOfOrder(), entry.getValue(),
+                        book.getPrice().times(entry.getValue()));
+                order.addLine(sale);
+
+                long[] revenue = genreRevenues.computeIfAbsent(genres.get(entry.getKey()), genre -> new long[2]);
+                revenue[0] += sale.getTotalPrice().minorUnits();
+                revenue[1]++;
+            }
+
+            // Persisted Once the Total Is Known, Otherwise the Flush Would Follow the Insert with an Update
+            session.persist(order);
+            order.getLines().forEach(session::persist);
+            session.flush();
+
+            for (Map.Entry<String, long[]> entry : genreRevenues.entrySet()) {
+                RevenueSummary.record(session, entry.getKey(), order.getDateOfOrder(),
+                        Money.ofMinor(entry.getValue()[0]), entry.getValue()[1]);
+            }
+            transaction.commit();
+            readRouter.recordWrite();
+            return order;
+        } finally {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
+    // Calculates Total Revenue by Genre from Revenue Summary
+    public List<GenreRevenue> calculateTotalRevenueByGenre(String genre) {
+        try (Session session = sessionFactory.openSession()) {
+            GenreRevenueTotal total = session.get(GenreRevenueTotal.class, genre);
+
+            if (total == null || total.getSalesCount() == 0) {
+                return List.of();
+            }
+            return List.of(new GenreRevenue(total.getGenre(), total.getTotalRevenue()));
+        }
+    }
+
+    // Report of All Sold Books
+    public List<SoldBookEntry> reportOfAllSoldBooks() {
+        try (Session session = readRouter.forRead().openSession()) {
+            return soldBooksQuery(session, SalesReportFilter.none(), null, null).getResultList();
+        }
+    }
+
+    // Gets Page of Sold Books After Given Sale ID, Null Starts from the Beginning
+    public List<SoldBookEntry> reportOfSoldBooksPage(Long afterSaleID, int pageSize) {
+        return reportOfSoldBooksPage(SalesReportFilter.none(), afterSaleID, pageSize);
+    }
+
+    // Gets Page of Filtered Sold Books After Given Sale ID
+    public List<SoldBookEntry> reportOfSoldBooksPage(SalesReportFilter filter, Long afterSaleID, int pageSize) {
+        try (Session session = readRouter.forRead().openSession()) {
+            return soldBooksQuery(session, filter, afterSaleID, null)
+                    .setMaxResults(pageSize)
+                    .getResultList();
+        }
+    }
+
+    // Streams All Sold Books Row by Row from Database Cursor
+    public long streamAllSoldBooks(Consumer<SoldBookEntry> consumer) {
+        return streamSoldBooks(SalesReportFilter.none(), consumer);
+    }
+
+    // Streams Sold Books Matching Filter Row by Row from Database Cursor
+    public long streamSoldBooks(SalesReportFilter filter, Consumer<SoldBookEntry> consumer) {
+        return streamSoldBooks(filter, null, null, consumer);
+    }
+
+    // Streams Sold Books with Sale ID in (afterSaleID, throughSaleID], Null Leaves That End Open
+    public long streamSoldBooks(SalesReportFilter filter, Long afterSaleID, Long throughSaleID,
+                                Consumer<SoldBookEntry> consumer) {
+        return stream(session -> soldBooksQuery(session, filter, afterSaleID, throughSaleID), consumer);
+    }
+
+    // Each Combination of Filters Gets One Query String, Built Once, So Hibernate Translates It Once
+    private static Query<SoldBookEntry> soldBooksQuery(Session session, SalesReportFilter filter, Long afterSaleID,
+                                                      Long throughSaleID) {
+        Object[] values = {filter.from(), filter.to(), filter.customerID(), filter.genre(), filter.author(),
+                afterSaleID, throughSaleID};
+
+        int shape = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                shape |= 1 << i;
+            }
+        }
+
+        Query<SoldBookEntry> query = session.createQuery(
+                SOLD_BOOKS_QUERIES.computeIfAbsent(shape, BookstoreService::soldBooksJpql), SoldBookEntry.class);
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                query.setParameter(SOLD_BOOKS_PARAMETERS[i], values[i]);
+            }
+        }
+        return query;
+    }
+
+    private static String soldBooksJpql(int shape) {
+        StringBuilder jpql = new StringBuilder("SELECT new org.example.SoldBookEntry(s.saleID, c.name, b.title, s.dateOfSale) " +
+                "FROM Sale s JOIN s.customer c JOIN s.book b");
+
+        String separator = " WHERE ";
+        for (int i = 0; i < SOLD_BOOKS_PREDICATES.length; i++) {
+            if ((shape & 1 << i) != 0) {
+                jpql.append(separator).append(SOLD_BOOKS_PREDICATES[i]);
+                separator = " AND ";
+            }
+        }
+        return jpql.append(" ORDER BY s.saleID").toString();
+    }
+
+    // Runs Query with Forward-Only Cursor so Rows Are Never Held in Memory Together, on a Replica If Any
+    private <T> long stream(Function<Session, Query<T>> queryFactory, Consumer<T> consumer) {
+        Session session = null;
+        Transaction transaction = null;
+
+        try {
+            session = readRouter.forRead().openSession();
+            // PostgreSQL Only Uses Cursor Fetching Inside a Transaction
+            transaction = session.beginTransaction();
+
+            long rows = 0;
+            try (ScrollableResults<T> results = queryFactory.apply(session)
+                    .setFetchSize(reportFetchSize())
+                    .setReadOnly(true)
+                    .scroll(ScrollMode.FORWARD_ONLY)) {
+                while (results.next()) {
+                    consumer.accept(results.get());
+                    rows++;
+                }
+            }
+
+            transaction.commit();
+            return rows;
+        } finally {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
+    public int reportFetchSize() {
+        return intSetting(REPORT_FETCH_SIZE, DEFAULT_REPORT_FETCH_SIZE);
+    }
+
+    public int reportPageSize() {
+        return intSetting(REPORT_PAGE_SIZE, DEFAULT_REPORT_PAGE_SIZE);
+    }
+
+    private int intSetting(String name, int defaultValue) {
+        Object value = sessionFactory.getProperties().get(name);
+        return value != null ? Integer.parseInt(value.toString()) : defaultValue;
+    }
+
+    // Report of Total Revenue from Each Genre from Revenue Summary
+    public List<GenreRevenue> reportOfTotalRevenueFromEachGenre() {
+        try (Session session = readRouter.forRead().openSession()) {
+            return session.createNamedQuery(GenreRevenueTotal.REPORT, GenreRevenue.class).getResultList();
+        }
+    }
+
+    // Revenue per Genre and Day Within Date Range
+    public List<GenreDailyRevenue> reportOfDailyRevenueByGenre(LocalDate from, LocalDate to) {
+        try (Session session = readRouter.forRead().openSession()) {
+            return session.createNamedQuery(GenreDailyRevenue.BETWEEN, GenreDailyRevenue.class)
+                    .setParameter("from", from)
+                    .setParameter("to", to)
+                    .getResultList();
+        }
+    }
+
+    // Recomputes Revenue Summary from Raw Sales
+    public void rebuildRevenueSummary() {
+        Session session = null;
+        Transaction transaction = null;
+
+        try {
+            session = sessionFactory.openSession();
+            transaction = session.beginTransaction();
+
+            RevenueSummary.rebuild(session);
+
+            transaction.commit();
+            readRouter.recordWrite();
+        } finally {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
+    // Compares Revenue Summary with Raw Sales
+    public List<RevenueMismatch> verifyRevenueSummary() {
+        try (Session session = sessionFactory.openSession()) {
+            return RevenueSummary.verify(session);
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package org.example;
+
+// unknownRows Ran in a Batch Whose Driver Reported No Update Count, Neither Counted as Updated Nor as Skipped
+public record BulkUpdateResult(long updatedBooks, long skippedRows, long unknownRows, long elapsedMillis) {
+}
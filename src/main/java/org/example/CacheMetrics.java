@@ -0,0 +1,91 @@
+package org.example;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+import java.util.TreeSet;
+
+public class CacheMetrics {
+    private final SessionFactory sessionFactory;
+    private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+    public CacheMetrics(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    public Set<String> getRegionNames() {
+        return new TreeSet<>(sessionFactory.unwrap(SessionFactoryImplementor.class).getCache().getCacheRegionNames());
+    }
+
+    public long getHitCount(String region) {
+        CacheRegionStatistics statistics = regionStatistics(region);
+        return statistics != null ? statistics.getHitCount() : 0;
+    }
+
+    public long getMissCount(String region) {
+        CacheRegionStatistics statistics = regionStatistics(region);
+        return statistics != null ? statistics.getMissCount() : 0;
+    }
+
+    public long getPutCount(String region) {
+        CacheRegionStatistics statistics = regionStatistics(region);
+        return statistics != null ? statistics.getPutCount() : 0;
+    }
+
+    // Evictions Are Only Known to the Cache Provider, Read Through Its JCache Statistics MBean
+    public long getEvictionCount(String region) {
+        try {
+            ObjectName pattern = new ObjectName("javax.cache:type=CacheStatistics,CacheManager=*,Cache=" + region);
+
+            long evictions = 0;
+            for (ObjectName name : mBeanServer.queryNames(pattern, null)) {
+                evictions += ((Number) mBeanServer.getAttribute(name, "CacheEvictions")).longValue();
+            }
+            return evictions;
+        } catch (JMException e) {
+            return 0;
+        }
+    }
+
+    public long getQueryCacheHitCount() {
+        return statistics().getQueryCacheHitCount();
+    }
+
+    public long getQueryCacheMissCount() {
+        return statistics().getQueryCacheMissCount();
+    }
+
+    // Prints Hit, Miss, Put and Eviction Counts per Region
+    public void print(PrintStream out) {
+        for (String region : getRegionNames()) {
+            out.printf("Cache Region: %s, Hits: %d, Misses: %d, Puts: %d, Evictions: %d%n",
+                    region, getHitCount(region), getMissCount(region), getPutCount(region), getEvictionCount(region));
+        }
+        out.printf("Query Cache Hits: %d, Query Cache Misses: %d%n",
+                getQueryCacheHitCount(), getQueryCacheMissCount());
+    }
+
+    public void print() {
+        print(System.out);
+    }
+
+    private CacheRegionStatistics regionStatistics(String region) {
+        try {
+            return statistics().getCacheRegionStatistics(region);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private Statistics statistics() {
+        return sessionFactory.getStatistics();
+    }
+}
@@ -0,0 +1,162 @@
+package org.example;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Title and Author Search Ranked Prefix Matches First, Then Substring Matches, Then Near Matches with Typos.
+// On PostgreSQL Served by pg_trgm Indexes (Migrations 006 and 012), Elsewhere Substring Matches Only.
+// Only the bookstore.search.max_candidates Best Matches Are Ranked and Shown, So a Short Query Matching Much of the
+// Catalog Costs a Bounded Sort. Pages Continue After the Last Row of the Previous One Instead of Skipping an Offset
+public class CatalogSearch {
+    public static final String SIMILARITY_THRESHOLD = "bookstore.search.similarity_threshold";
+    public static final String MAX_CANDIDATES = "bookstore.search.max_candidates";
+    public static final int MAX_PAGE_SIZE = 100;
+    private static final String DEFAULT_SIMILARITY_THRESHOLD = "0.4";
+    private static final int DEFAULT_MAX_CANDIDATES = 1000;
+
+    // Each Tier's Filter Also Takes In the Tiers Above It, Whose Books Rank Higher Anyway
+    private static final String PREFIX_MATCH = "title ILIKE :prefix OR author ILIKE :prefix " +
+            "OR title ILIKE :wordPrefix OR author ILIKE :wordPrefix";
+    private static final String SUBSTRING_MATCH = "title ILIKE :contains OR author ILIKE :contains";
+    // <% Is Word Similarity Above pg_trgm.word_similarity_threshold, the Only Form the Trigram Index Serves
+    private static final String ANY_MATCH = SUBSTRING_MATCH + " OR :query <% title OR :query <% author";
+
+    private static final String MATCH_RANK = "CASE WHEN " + PREFIX_MATCH + " THEN 3 WHEN " + SUBSTRING_MATCH + " THEN 2 ELSE 1 END";
+
+    private static final String SCORE_POSTGRESQL = "GREATEST(word_similarity(:query, title), word_similarity(:query, author))";
+    private static final String SCORE_STANDARD = "CAST(1 AS DOUBLE PRECISION)";
+
+    // Best max_candidates of One Tier in the Final Order of One Column. A Book Among the Overall Best Is Among Them for
+    // the Column Its Score Comes From, Every Book Ahead of It There Also Ranks Ahead of It Overall
+    private static final String TIER = "(SELECT book_id FROM books WHERE %s ORDER BY %s LIMIT :candidates)";
+
+    // <<-> Is Word Similarity Distance, Read in Order from the GiST Indexes of Migration 012
+    private static final String CANDIDATES_POSTGRESQL = String.join(" UNION ",
+            TIER.formatted(PREFIX_MATCH, ":query <<-> title, book_id DESC"),
+            TIER.formatted(PREFIX_MATCH, ":query <<-> author, book_id DESC"),
+            TIER.formatted(SUBSTRING_MATCH, ":query <<-> title, book_id DESC"),
+            TIER.formatted(SUBSTRING_MATCH, ":query <<-> author, book_id DESC"),
+            TIER.formatted(ANY_MATCH, ":query <<-> title, book_id DESC"),
+            TIER.formatted(ANY_MATCH, ":query <<-> author, book_id DESC"));
+
+    // Every Score Is the Same, Book ID Alone Orders a Tier
+    private static final String CANDIDATES_STANDARD = String.join(" UNION ",
+            TIER.formatted(PREFIX_MATCH, "book_id DESC"),
+            TIER.formatted(SUBSTRING_MATCH, "book_id DESC"));
+
+    // Candidates Are Ranked and Cut to the Overall Best, Then Paged by a Keyset in One Direction for Every Column So a
+    // Row Value Comparison Continues the Order
+    private static final String SEARCH = "SELECT book_id, title, author, genre, price, match_rank, score FROM (" +
+            "SELECT book_id, title, author, genre, price, match_rank, score, " +
+            "ROW_NUMBER() OVER (ORDER BY match_rank DESC, score DESC, book_id DESC) AS position FROM (" +
+            "SELECT book_id, title, author, genre, price, " + MATCH_RANK + " AS match_rank, %s AS score FROM books " +
+            "WHERE book_id IN (SELECT book_id FROM (%s) candidates)) ranked) best " +
+            "WHERE position <= :candidates %s" +
+            "ORDER BY match_rank DESC, score DESC, book_id DESC LIMIT :pageSize";
+
+    private static final String AFTER = "AND (match_rank, score, book_id) < (:afterRank, :afterScore, :afterBookID) ";
+
+    private static final String SET_SIMILARITY_THRESHOLD = "SELECT set_config('pg_trgm.word_similarity_threshold', :threshold, true)";
+
+    private final SessionFactory sessionFactory;
+
+    public CatalogSearch(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    // Gets Page of Books Matching Text, Starting After the Last Row of the Previous Page, Null for the First Page
+    public List<BookSearchResult> search(String text, BookSearchResult after, int pageSize) {
+        String query = text != null ? text.trim() : "";
+        if (query.isEmpty()) {
+            throw new IllegalArgumentException("Search text must not be empty.");
+        }
+        if (pageSize <= 0 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+
+        Session session = null;
+        Transaction transaction = null;
+
+        try {
+            session = sessionFactory.openSession();
+            transaction = session.beginTransaction();
+
+            boolean postgreSQL = isPostgreSQL(session);
+            if (postgreSQL) {
+                // Local to This Transaction, Pooled Connections Keep Their Default
+                session.createNativeQuery(SET_SIMILARITY_THRESHOLD, String.class)
+                        .setParameter("threshold", similarityThreshold())
+                        .getSingleResult();
+            }
+
+            String sql = SEARCH.formatted(postgreSQL ? SCORE_POSTGRESQL : SCORE_STANDARD,
+                    postgreSQL ? CANDIDATES_POSTGRESQL : CANDIDATES_STANDARD, after != null ? AFTER : "");
+            String pattern = escapeLike(query);
+            NativeQuery<Object[]> searchQuery = session.createNativeQuery(sql, Object[].class)
+                    .addScalar("book_id", Long.class)
+                    .addScalar("title", String.class)
+                    .addScalar("author", String.class)
+                    .addScalar("genre", String.class)
+                    .addScalar("price", Long.class)
+                    .addScalar("match_rank", Integer.class)
+                    .addScalar("score", Double.class)
+                    .setParameter("prefix", pattern + "%")
+                    .setParameter("wordPrefix", "% " + pattern + "%")
+                    .setParameter("contains", "%" + pattern + "%")
+                    .setParameter("candidates", getMaxCandidates())
+                    .setParameter("pageSize", pageSize);
+            if (postgreSQL) {
+                searchQuery.setParameter("query", query);
+            }
+            if (after != null) {
+                searchQuery.setParameter("afterRank", after.matchRank())
+                        .setParameter("afterScore", after.score())
+                        .setParameter("afterBookID", after.bookID());
+            }
+
+            List<BookSearchResult> results = new ArrayList<>();
+            for (Object[] row : searchQuery.getResultList()) {
+                results.add(new BookSearchResult((Long) row[0], (String) row[1], (String) row[2], (String) row[3],
+                        Money.ofMinor((Long) row[4]), (Integer) row[5], (Double) row[6]));
+            }
+
+            transaction.commit();
+            return results;
+        } finally {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
+    // Matches Past This Many Best Ones Are Never Shown
+    public int getMaxCandidates() {
+        Object value = sessionFactory.getProperties().get(MAX_CANDIDATES);
+        return value != null && !value.toString().isBlank() ? Integer.parseInt(value.toString().trim()) : DEFAULT_MAX_CANDIDATES;
+    }
+
+    // Matches %, _ and \ in Search Text Literally
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private String similarityThreshold() {
+        Object value = sessionFactory.getProperties().get(SIMILARITY_THRESHOLD);
+        return value != null ? value.toString() : DEFAULT_SIMILARITY_THRESHOLD;
+    }
+
+    private static boolean isPostgreSQL(Session session) {
+        return session.getSessionFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+    }
+}
@@ -0,0 +1,211 @@
+package org.example;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+public class CatalogUpdater {
+    private static final String BOOKS_TABLE = "books";
+    private static final String[] BOOK_QUERY_SPACES = {BOOKS_TABLE};
+
+    // Prices Stay in Whole Cents and Never Drop Below One Cent, books.price Must Stay Positive
+    private static final String REPRICE = "UPDATE books SET price = GREATEST(1, CAST(ROUND(price * CAST(:factor AS NUMERIC(12, 6))) AS BIGINT)) " +
+            "WHERE %s = :value";
+
+    private static final String RENAME_GENRE = "UPDATE books SET genre = :newGenre WHERE genre = :oldGenre";
+
+    private static final String APPLY_STOCK_DELTA = "UPDATE books SET quantity_in_stock = quantity_in_stock + ? " +
+            "WHERE book_id = ? AND quantity_in_stock + ? >= 0";
+
+    private static final int DEFAULT_BATCH_SIZE = 50;
+
+    private final SessionFactory sessionFactory;
+
+    public CatalogUpdater(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    // Changes Price of Every Book in Genre by Percentage, e.g. 10 or -15.5
+    public BulkUpdateResult repriceGenre(String genre, BigDecimal percentage) {
+        return reprice("genre", genre, percentage);
+    }
+
+    // Changes Price of Every Book by Author by Percentage
+    public BulkUpdateResult repriceAuthor(String author, BigDecimal percentage) {
+        return reprice("author", author, percentage);
+    }
+
+    private BulkUpdateResult reprice(String column, String value, BigDecimal percentage) {
+        BigDecimal factor = BigDecimal.ONE.add(percentage.divide(BigDecimal.valueOf(100), 6, RoundingMode.HALF_EVEN));
+        if (factor.signum() <= 0) {
+            throw new IllegalArgumentException("Price change must be greater than -100%.");
+        }
+
+        return inTransaction(session -> session.createNativeQuery(REPRICE.formatted(column))
+                // Declaring the Table Evicts Cached Books and Stale Book Query Results on Commit
+                .addSynchronizedQuerySpace(BOOKS_TABLE)
+                .setParameter("factor", factor)
+                .setParameter("value", value)
+                .executeUpdate());
+    }
+
+    // Renames Genre on All Its Books and Moves Its Revenue Summary Rows Along
+    public BulkUpdateResult renameGenre(String oldGenre, String newGenre) {
+        if (oldGenre.equals(newGenre)) {
+            return new BulkUpdateResult(0, 0, 0, 0);
+        }
+
+        return inTransaction(session -> {
+            // Locks the Genre's Books Before the Summary Moves. A Sale Reads Its Genre Only Once It Holds the Book's
+            // Row Lock (Inventory.reserve), So One That Waited Here Records Under the New Genre, and One That Got
+            // the Lock First Has Committed Its Revenue Before the Rows Below Are Moved
+            int updatedBooks = session.createNativeQuery(RENAME_GENRE)
+                    .addSynchronizedQuerySpace(BOOKS_TABLE)
+                    .setParameter("newGenre", newGenre)
+                    .setParameter("oldGenre", oldGenre)
+                    .executeUpdate();
+
+            RevenueSummary.renameGenre(session, oldGenre, newGenre);
+            return updatedBooks;
+        });
+    }
+
+    // Applies Stock Deltas from CSV File: book_id,delta
+    public BulkUpdateResult applyStockDeltas(Path path) throws IOException {
+        try (Stream<String> lines = Files.lines(path)) {
+            Iterator<StockDelta> deltas = lines
+                    .filter(line -> !line.isBlank())
+                    .filter(line -> !line.startsWith("book_id"))
+                    .map(StockDelta::fromCsv)
+                    .iterator();
+
+            return applyStockDeltas(deltas);
+        }
+    }
+
+    // Applies Stock Deltas in JDBC Batches, Skips Unknown Books and Deltas That Would Make Stock Negative
+    public BulkUpdateResult applyStockDeltas(Iterator<StockDelta> deltas) {
+        long start = System.nanoTime();
+
+        // Summed per Book and Applied in Book ID Order So Concurrent Updates Lock Rows in the Same Order
+        Map<Long, Integer> deltasByBook = new TreeMap<>();
+        while (deltas.hasNext()) {
+            StockDelta delta = deltas.next();
+            deltasByBook.merge(delta.bookID(), delta.delta(), Math::addExact);
+        }
+
+        Session session = null;
+        Transaction transaction = null;
+
+        try {
+            session = sessionFactory.openSession();
+            transaction = session.beginTransaction();
+            invalidateBooksOnCompletion(session);
+
+            // Updated Books, Then Rows the Driver Ran Without Reporting a Count
+            long[] counts = session.doReturningWork(connection -> {
+                long[] totals = new long[2];
+                try (PreparedStatement statement = connection.prepareStatement(APPLY_STOCK_DELTA)) {
+                    int pending = 0;
+                    for (Map.Entry<Long, Integer> entry : deltasByBook.entrySet()) {
+                        statement.setInt(1, entry.getValue());
+                        statement.setLong(2, entry.getKey());
+                        statement.setInt(3, entry.getValue());
+                        statement.addBatch();
+
+                        if (++pending == batchSize()) {
+                            add(totals, statement.executeBatch());
+                            pending = 0;
+                        }
+                    }
+                    if (pending > 0) {
+                        add(totals, statement.executeBatch());
+                    }
+                }
+                return totals;
+            });
+
+            transaction.commit();
+            return new BulkUpdateResult(counts[0], deltasByBook.size() - counts[0] - counts[1], counts[1],
+                    (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
+    private BulkUpdateResult inTransaction(ToIntFunction<Session> work) {
+        long start = System.nanoTime();
+        Session session = null;
+        Transaction transaction = null;
+
+        try {
+            session = sessionFactory.openSession();
+            transaction = session.beginTransaction();
+
+            int updatedBooks = work.applyAsInt(session);
+
+            transaction.commit();
+            return new BulkUpdateResult(updatedBooks, 0, 0, (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
+    // Plain JDBC Bypasses Hibernate, So Cached Books and Book Query Results Are Dropped by Hand
+    private void invalidateBooksOnCompletion(Session session) {
+        SessionImplementor sessionImplementor = session.unwrap(SessionImplementor.class);
+        SessionFactoryImplementor factory = sessionImplementor.getFactory();
+        boolean queryCacheEnabled = factory.getSessionFactoryOptions().isQueryCacheEnabled();
+
+        if (queryCacheEnabled) {
+            factory.getCache().getTimestampsCache().preInvalidate(BOOK_QUERY_SPACES, sessionImplementor);
+        }
+        sessionImplementor.getActionQueue().registerProcess((success, completedSession) -> {
+            factory.getCache().evictEntityData(Book.class);
+            if (queryCacheEnabled) {
+                factory.getCache().getTimestampsCache().invalidate(BOOK_QUERY_SPACES, completedSession);
+            }
+        });
+    }
+
+    private int batchSize() {
+        Object batchSize = sessionFactory.getProperties().get(AvailableSettings.STATEMENT_BATCH_SIZE);
+        return batchSize != null ? Integer.parseInt(batchSize.toString()) : DEFAULT_BATCH_SIZE;
+    }
+
+    // Drivers May Report SUCCESS_NO_INFO (-2) for Batched Statements, Whether That Row Was Updated or Skipped Is Unknown
+    private static void add(long[] totals, int[] updateCounts) {
+        for (int count : updateCounts) {
+            if (count == PreparedStatement.SUCCESS_NO_INFO) {
+                totals[1]++;
+            } else {
+                totals[0] += count;
+            }
+        }
+    }
+}
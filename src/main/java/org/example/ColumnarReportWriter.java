@@ -0,0 +1,149 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Compact Binary Columnar Format, Rows Are Written in Self-Contained Groups So Partition Files Can Be Concatenated.
+// File: "BCOL", version byte, column count, per column a type byte and its name, then row groups until the end.
+// Row group: row count, then one block per column. All counts and values are unsigned or zigzag varints.
+// LONG: delta from the previous row, so ascending IDs take a byte each. MONEY: minor units.
+// DATE: epoch day + 1, 0 for no date. STRING: dictionary of the group, then one code per row, 0 for null.
+public class ColumnarReportWriter<T> extends ReportFileWriter<T> {
+    public static final byte[] MAGIC = {'B', 'C', 'O', 'L'};
+    public static final byte VERSION = 1;
+    public static final byte LONG = 1;
+    public static final byte MONEY = 2;
+    public static final byte DATE = 3;
+    public static final byte STRING = 4;
+
+    private static final int ROWS_PER_GROUP = 1 << 16;
+
+    private final long[][] numbers;
+    private final int[][] codes;
+    private final List<Map<String, Integer>> dictionaries = new ArrayList<>();
+    private int rows;
+
+    public ColumnarReportWriter(Path file, List<ExportColumn<T>> columns) throws IOException {
+        super(file, columns);
+        this.numbers = new long[columns.size()][];
+        this.codes = new int[columns.size()][];
+
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i) instanceof ExportColumn.StringColumn<T>) {
+                codes[i] = new int[ROWS_PER_GROUP];
+            } else {
+                numbers[i] = new long[ROWS_PER_GROUP];
+            }
+            dictionaries.add(new HashMap<>());
+        }
+    }
+
+    @Override
+    protected void writeHeader() throws IOException {
+        room(MAGIC.length + 1).put(MAGIC).put(VERSION);
+        putVarint(columns.size());
+        for (ExportColumn<T> column : columns) {
+            room(1).put(switch (column) {
+                case ExportColumn.LongColumn<T> longColumn -> LONG;
+                case ExportColumn.MoneyColumn<T> moneyColumn -> MONEY;
+                case ExportColumn.DateColumn<T> dateColumn -> DATE;
+                case ExportColumn.StringColumn<T> stringColumn -> STRING;
+            });
+            putString(column.name());
+        }
+    }
+
+    @Override
+    protected void write(T row) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            switch (columns.get(i)) {
+                case ExportColumn.LongColumn<T> column -> numbers[i][rows] = column.value().applyAsLong(row);
+                case ExportColumn.MoneyColumn<T> column -> {
+                    Money money = column.value().apply(row);
+                    numbers[i][rows] = money != null ? money.minorUnits() : 0;
+                }
+                case ExportColumn.DateColumn<T> column -> {
+                    LocalDate date = column.value().apply(row);
+                    numbers[i][rows] = date != null ? date.toEpochDay() + 1 : 0;
+                }
+                case ExportColumn.StringColumn<T> column -> {
+                    String value = column.value().apply(row);
+                    Map<String, Integer> dictionary = dictionaries.get(i);
+                    codes[i][rows] = value != null ? dictionary.computeIfAbsent(value, key -> dictionary.size() + 1) : 0;
+                }
+            }
+        }
+
+        if (++rows == ROWS_PER_GROUP) {
+            writeGroup();
+        }
+    }
+
+    @Override
+    protected void finish() throws IOException {
+        if (rows > 0) {
+            writeGroup();
+        }
+    }
+
+    private void writeGroup() throws IOException {
+        putVarint(rows);
+        for (int i = 0; i < columns.size(); i++) {
+            if (codes[i] != null) {
+                writeDictionary(dictionaries.get(i));
+                for (int row = 0; row < rows; row++) {
+                    putVarint(codes[i][row]);
+                }
+                dictionaries.get(i).clear();
+            } else if (columns.get(i) instanceof ExportColumn.LongColumn<T>) {
+                long previous = 0;
+                for (int row = 0; row < rows; row++) {
+                    putVarint(zigzag(numbers[i][row] - previous));
+                    previous = numbers[i][row];
+                }
+            } else {
+                for (int row = 0; row < rows; row++) {
+                    putVarint(zigzag(numbers[i][row]));
+                }
+            }
+        }
+        rows = 0;
+    }
+
+    // Entries in Code Order, Code 1 First
+    private void writeDictionary(Map<String, Integer> dictionary) throws IOException {
+        String[] entries = new String[dictionary.size()];
+        dictionary.forEach((value, code) -> entries[code - 1] = value);
+
+        putVarint(entries.length);
+        for (String entry : entries) {
+            putString(entry);
+        }
+    }
+
+    private void putString(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        putVarint(bytes.length);
+        putBytes(bytes);
+    }
+
+    private void putVarint(long value) throws IOException {
+        ByteBuffer buffer = room(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+}
@@ -0,0 +1,64 @@
+package org.example;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.io.PrintStream;
+
+public class ConnectionPoolMetrics {
+    private final HikariDataSource dataSource;
+
+    public ConnectionPoolMetrics(SessionFactory sessionFactory) {
+        ConnectionProvider connectionProvider = sessionFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(ConnectionProvider.class);
+
+        this.dataSource = connectionProvider.unwrap(HikariDataSource.class);
+    }
+
+    public String getPoolName() {
+        return dataSource.getPoolName();
+    }
+
+    public int getMinimumIdle() {
+        return dataSource.getMinimumIdle();
+    }
+
+    public int getMaximumPoolSize() {
+        return dataSource.getMaximumPoolSize();
+    }
+
+    public int getActiveConnections() {
+        return pool().getActiveConnections();
+    }
+
+    public int getIdleConnections() {
+        return pool().getIdleConnections();
+    }
+
+    public int getTotalConnections() {
+        return pool().getTotalConnections();
+    }
+
+    public int getThreadsAwaitingConnection() {
+        return pool().getThreadsAwaitingConnection();
+    }
+
+    // Prints Current Pool State
+    public void print(PrintStream out) {
+        out.printf("Pool: %s, Active: %d, Idle: %d, Total: %d, Awaiting: %d, Min Idle: %d, Max Size: %d%n",
+                getPoolName(), getActiveConnections(), getIdleConnections(), getTotalConnections(),
+                getThreadsAwaitingConnection(), getMinimumIdle(), getMaximumPoolSize());
+    }
+
+    public void print() {
+        print(System.out);
+    }
+
+    private HikariPoolMXBean pool() {
+        return dataSource.getHikariPoolMXBean();
+    }
+}
@@ -0,0 +1,138 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+// RFC 4180 CSV in UTF-8, Dates as YYYY-MM-DD and Money as Decimal Amounts, Missing Values Left Empty
+public class CsvReportWriter<T> extends ReportFileWriter<T> {
+    private final byte[] digits = new byte[20];
+
+    public CsvReportWriter(Path file, List<ExportColumn<T>> columns) throws IOException {
+        super(file, columns);
+    }
+
+    @Override
+    protected void writeHeader() throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                room(1).put((byte) ',');
+            }
+            putString(columns.get(i).name());
+        }
+        room(1).put((byte) '\n');
+    }
+
+    @Override
+    protected void write(T row) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                room(1).put((byte) ',');
+            }
+
+            switch (columns.get(i)) {
+                case ExportColumn.LongColumn<T> column -> putLong(column.value().applyAsLong(row));
+                case ExportColumn.MoneyColumn<T> column -> {
+                    Money money = column.value().apply(row);
+                    if (money != null) {
+                        putMoney(money.minorUnits());
+                    }
+                }
+                case ExportColumn.DateColumn<T> column -> {
+                    LocalDate date = column.value().apply(row);
+                    if (date != null) {
+                        putDate(date);
+                    }
+                }
+                case ExportColumn.StringColumn<T> column -> {
+                    String value = column.value().apply(row);
+                    if (value != null) {
+                        putString(value);
+                    }
+                }
+            }
+        }
+        room(1).put((byte) '\n');
+    }
+
+    // Digits Are Written Backwards into a Scratch Array, No String per Number
+    private void putLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            putBytes(Long.toString(value).getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+
+        ByteBuffer buffer = room(digits.length);
+        if (value < 0) {
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        int position = digits.length;
+        do {
+            digits[--position] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        buffer.put(digits, position, digits.length - position);
+    }
+
+    private void putMoney(long minorUnits) throws IOException {
+        if (minorUnits < 0) {
+            room(1).put((byte) '-');
+        }
+        long units = Math.abs(minorUnits / 100);
+        int cents = (int) Math.abs(minorUnits % 100);
+
+        putLong(units);
+        room(3).put((byte) '.').put((byte) ('0' + cents / 10)).put((byte) ('0' + cents % 10));
+    }
+
+    private void putDate(LocalDate date) throws IOException {
+        int year = date.getYear();
+        if (year < 1000 || year > 9999) {
+            putBytes(date.toString().getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+
+        ByteBuffer buffer = room(10);
+        putDigits(buffer, year, 1000);
+        buffer.put((byte) '-');
+        putDigits(buffer, date.getMonthValue(), 10);
+        buffer.put((byte) '-');
+        putDigits(buffer, date.getDayOfMonth(), 10);
+    }
+
+    // Zero-Padded to as Many Digits as the Leading Divisor Has
+    private static void putDigits(ByteBuffer buffer, int value, int leadingDivisor) {
+        for (int divisor = leadingDivisor; divisor > 0; divisor /= 10) {
+            buffer.put((byte) ('0' + value / divisor % 10));
+        }
+    }
+
+    // Plain ASCII Without Separators Is Copied Byte by Byte, Anything Else Is Quoted or Encoded as UTF-8
+    private void putString(String value) throws IOException {
+        boolean plainAscii = true;
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                needsQuotes = true;
+            } else if (c >= 0x80) {
+                plainAscii = false;
+            }
+        }
+
+        if (needsQuotes) {
+            putBytes(('"' + value.replace("\"", "\"\"") + '"').getBytes(StandardCharsets.UTF_8));
+        } else if (!plainAscii || value.length() > 4096) {
+            putBytes(value.getBytes(StandardCharsets.UTF_8));
+        } else {
+            ByteBuffer buffer = room(value.length());
+            for (int i = 0; i < value.length(); i++) {
+                buffer.put((byte) value.charAt(i));
+            }
+        }
+    }
+}
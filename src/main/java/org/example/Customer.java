@@ -1,23 +1,40 @@
 package org.example;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 @Entity
-@Table(name = "customers")
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache(region = Customer.EMAIL_REGION)
+@Table(name = "customers", indexes = @Index(name = "idx_customers_phone", columnList = "phone"))
+@NamedQuery(name = Customer.BY_PHONE, query = "FROM Customer c WHERE c.phone = :phone ORDER BY c.customerID")
 public class Customer {
+    public static final String EMAIL_REGION = "customer-emails";
+    public static final String BY_PHONE = "Customer.byPhone";
+
+
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_id_generator")
+    @SequenceGenerator(name = "customer_id_generator", sequenceName = "customers_customer_id_seq", allocationSize = 50)
     @Column(name = "customer_id")
-    Long customerID;
+    private Long customerID;
 
     @Column(name = "name", nullable = false)
-    String name;
+    private String name;
 
+    // Email Changes Move the Cached Email-to-ID Entry Along with the Row
+    @NaturalId(mutable = true)
     @Column(name = "email", nullable = false, unique = true)
-    String email;
+    private String email;
 
     @Column(name = "phone", nullable = false)
-    String phone;
+    private String phone;
 
     public Customer() {
     }
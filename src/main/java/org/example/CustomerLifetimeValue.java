@@ -0,0 +1,9 @@
+package org.example;
+
+import java.time.LocalDate;
+
+// Spend Rank Is 1 for the Customer Who Spent the Most, Out of All Customers with Purchases
+public record CustomerLifetimeValue(Long customerID, String name, long purchases, long booksBought, Money totalSpend,
+                                    Money averagePurchase, LocalDate firstPurchase, LocalDate lastPurchase,
+                                    long spendRank, long customersWithPurchases) {
+}
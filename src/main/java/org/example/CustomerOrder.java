@@ -0,0 +1,74 @@
+package org.example;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// Cart Checked Out in One Transaction, Each Line Is a Sale Row Pointing Back to Its Order
+@Entity
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_customer_id", columnList = "customer_id")
+})
+public class CustomerOrder {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_id_generator")
+    @SequenceGenerator(name = "order_id_generator", sequenceName = "orders_order_id_seq", allocationSize = 50)
+    @Column(name = "order_id")
+    private Long orderID;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "customer_id", nullable = false)
+    private Customer customer;
+
+    @Column(name = "date_of_order", nullable = false)
+    private LocalDate dateOfOrder;
+
+    @Column(name = "total_price", nullable = false)
+    private Money totalPrice;
+
+    @OneToMany(mappedBy = "order")
+    private List<Sale> lines = new ArrayList<>();
+
+    CustomerOrder() {
+
+    }
+
+    public CustomerOrder(Customer customer, LocalDate dateOfOrder) {
+        this.customer = customer;
+        this.dateOfOrder = dateOfOrder;
+        this.totalPrice = Money.ZERO;
+    }
+
+    // Adds Line and Keeps Order Total in Step
+    public void addLine(Sale sale) {
+        sale.setOrder(this);
+        lines.add(sale);
+        totalPrice = totalPrice.plus(sale.getTotalPrice());
+    }
+
+    public Long getOrderID() {
+        return orderID;
+    }
+
+    public Customer getCustomer() {
+        return customer;
+    }
+
+    public Long getCustomerID() {
+        return customer.getCustomerID();
+    }
+
+    public LocalDate getDateOfOrder() {
+        return dateOfOrder;
+    }
+
+    public Money getTotalPrice() {
+        return totalPrice;
+    }
+
+    public List<Sale> getLines() {
+        return lines;
+    }
+}
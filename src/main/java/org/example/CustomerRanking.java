@@ -0,0 +1,4 @@
+package org.example;
+
+public record CustomerRanking(long rank, Long customerID, String name, long purchases, Money spend) {
+}
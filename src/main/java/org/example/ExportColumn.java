@@ -0,0 +1,22 @@
+package org.example;
+
+import java.time.LocalDate;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+// Column of an Exported Report, the Type Decides How Values Are Encoded
+public sealed interface ExportColumn<T> {
+    String name();
+
+    record LongColumn<T>(String name, ToLongFunction<T> value) implements ExportColumn<T> {
+    }
+
+    record MoneyColumn<T>(String name, Function<T, Money> value) implements ExportColumn<T> {
+    }
+
+    record DateColumn<T>(String name, Function<T, LocalDate> value) implements ExportColumn<T> {
+    }
+
+    record StringColumn<T>(String name, Function<T, String> value) implements ExportColumn<T> {
+    }
+}
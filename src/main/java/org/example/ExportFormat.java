@@ -0,0 +1,16 @@
+package org.example;
+
+public enum ExportFormat {
+    CSV("csv"),
+    COLUMNAR("bcol");
+
+    private final String extension;
+
+    ExportFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,6 @@
+package org.example;
+
+import java.nio.file.Path;
+
+public record ExportResult(Path file, long exportedRows, int partitions, long elapsedMillis) {
+}
@@ -0,0 +1,11 @@
+package org.example;
+
+import org.hibernate.BaseSessionEventListener;
+
+// Registered Through hibernate.session.events.auto, Reports When the First Statement Completes
+public class FirstQueryListener extends BaseSessionEventListener {
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        StartupMetrics.recordQuery();
+    }
+}
@@ -0,0 +1,71 @@
+package org.example;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+@Entity
+@IdClass(GenreDailyRevenue.Key.class)
+@Table(name = "genre_daily_revenue")
+@NamedQuery(name = GenreDailyRevenue.BETWEEN, query = "FROM GenreDailyRevenue r " +
+        "WHERE r.day BETWEEN :from AND :to AND r.salesCount > 0 ORDER BY r.day, r.genre")
+public class GenreDailyRevenue {
+    public static final String BETWEEN = "GenreDailyRevenue.between";
+
+    @Id
+    @Column(name = "genre", length = 30)
+    private String genre;
+
+    @Id
+    @Column(name = "sale_day")
+    private LocalDate day;
+
+    @Column(name = "revenue", nullable = false)
+    private Money revenue;
+
+    @Column(name = "sales_count", nullable = false)
+    private Long salesCount;
+
+    public GenreDailyRevenue() {
+    }
+
+    public String getGenre() {
+        return genre;
+    }
+
+    public LocalDate getDay() {
+        return day;
+    }
+
+    public Money getRevenue() {
+        return revenue;
+    }
+
+    public Long getSalesCount() {
+        return salesCount;
+    }
+
+    public static class Key implements Serializable {
+        private String genre;
+        private LocalDate day;
+
+        public Key() {
+        }
+        public Key(String genre, LocalDate day) {
+            this.genre = genre;
+            this.day = day;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && Objects.equals(genre, key.genre) && Objects.equals(day, key.day);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(genre, day);
+        }
+    }
+}
@@ -0,0 +1,4 @@
+package org.example;
+
+public record GenreRevenue(String genre, Money totalRevenue) {
+}
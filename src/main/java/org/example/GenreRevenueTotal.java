@@ -0,0 +1,36 @@
+package org.example;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "genre_revenue")
+@NamedQuery(name = GenreRevenueTotal.REPORT, query = "SELECT new org.example.GenreRevenue(r.genre, r.totalRevenue) " +
+        "FROM GenreRevenueTotal r WHERE r.salesCount > 0 ORDER BY r.genre")
+public class GenreRevenueTotal {
+    public static final String REPORT = "GenreRevenueTotal.report";
+
+    @Id
+    @Column(name = "genre", length = 30)
+    private String genre;
+
+    @Column(name = "total_revenue", nullable = false)
+    private Money totalRevenue;
+
+    @Column(name = "sales_count", nullable = false)
+    private Long salesCount;
+
+    public GenreRevenueTotal() {
+    }
+
+    public String getGenre() {
+        return genre;
+    }
+
+    public Money getTotalRevenue() {
+        return totalRevenue;
+    }
+
+    public Long getSalesCount() {
+        return salesCount;
+    }
+}
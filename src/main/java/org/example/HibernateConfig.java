@@ -6,32 +6,105 @@ import org.hibernate.boot.MetadataSources;
 import org.hibernate.boot.registry.StandardServiceRegistry;
 import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 public class HibernateConfig {
+    private static final Object lock = new Object();
+
     private static StandardServiceRegistry registry;
-    private static SessionFactory sessionFactory;
+    private static volatile SessionFactory sessionFactory;
+    private static CompletableFuture<SessionFactory> bootstrap;
+
+    // Starts Building Session Factory on Background Thread, Safe to Call Any Number of Times
+    public static CompletableFuture<SessionFactory> startBootstrap() {
+        synchronized (lock) {
+            if (bootstrap == null) {
+                CompletableFuture<SessionFactory> future = new CompletableFuture<>();
+                Thread.ofPlatform().daemon().name("hibernate-bootstrap").start(() -> {
+                    // Errors Too, e.g. a Missing Driver Class, or Waiting Callers Would Never Return
+                    try {
+                        future.complete(build());
+                    } catch (Throwable e) {
+                        future.completeExceptionally(e);
+                    }
+                });
+                bootstrap = future;
+            }
+            return bootstrap;
+        }
+    }
 
+    // Waits for Bootstrap Started Earlier or Starts It, Every Caller Gets the Same Session Factory.
+    // A Failed Bootstrap Throws IllegalStateException with the Cause, the Next Call Starts It Again
     public static SessionFactory getSessionFactory() {
-        if (sessionFactory == null) {
-            try {
-                registry = new StandardServiceRegistryBuilder().configure().build();
+        SessionFactory factory = sessionFactory;
+        if (factory != null) {
+            return factory;
+        }
 
-                Metadata metadata = new MetadataSources(registry).getMetadataBuilder().build();
+        try {
+            return startBootstrap().join();
+        } catch (CompletionException e) {
+            synchronized (lock) {
+                bootstrap = null;
+            }
+            throw new IllegalStateException("Could not start Hibernate: " + e.getCause(), e.getCause());
+        }
+    }
 
-                sessionFactory = metadata.getSessionFactoryBuilder().build();
-            } catch (Exception e) {
-                System.out.println(e.getMessage());
+    private static SessionFactory build() {
+        long start = System.nanoTime();
+        StandardServiceRegistry serviceRegistry = new StandardServiceRegistryBuilder().configure().build();
 
-                if (registry != null) {
-                    StandardServiceRegistryBuilder.destroy(registry);
-                }
+        try {
+            Metadata metadata = new MetadataSources(serviceRegistry).getMetadataBuilder().build();
+            SessionFactory factory = metadata.getSessionFactoryBuilder().build();
+            StartupMetrics.recordSessionFactoryReady(System.nanoTime() - start);
+
+            if (StartupWarmup.isEnabled(factory)) {
+                StartupWarmup.run(factory);
+            }
+
+            synchronized (lock) {
+                registry = serviceRegistry;
+                sessionFactory = factory;
             }
+            return factory;
+        } catch (Throwable e) {
+            StandardServiceRegistryBuilder.destroy(serviceRegistry);
+            throw e;
+        }
+    }
+
+    // Builds Separate Session Factory with Settings Overriding hibernate.cfg.xml, Caller Closes It
+    public static SessionFactory buildSessionFactory(Map<String, Object> settings) {
+        StandardServiceRegistry serviceRegistry = new StandardServiceRegistryBuilder()
+                .configure()
+                .applySettings(settings)
+                .build();
+
+        try {
+            return new MetadataSources(serviceRegistry).getMetadataBuilder().build()
+                    .getSessionFactoryBuilder().build();
+        } catch (RuntimeException e) {
+            StandardServiceRegistryBuilder.destroy(serviceRegistry);
+            throw e;
         }
-        return sessionFactory;
     }
 
     public static void shutdown() {
-        if (registry != null) {
-            StandardServiceRegistryBuilder.destroy(registry);
+        synchronized (lock) {
+            if (sessionFactory != null) {
+                sessionFactory.close();
+            }
+            if (registry != null) {
+                StandardServiceRegistryBuilder.destroy(registry);
+            }
+            sessionFactory = null;
+            registry = null;
+            bootstrap = null;
         }
     }
 }
@@ -0,0 +1,121 @@
+package org.example;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import java.io.PrintStream;
+
+// Session, Statement, Flush and Cache Counters from Hibernate Statistics
+public class HibernateMetrics implements HibernateMetricsMXBean {
+    private final SessionFactory sessionFactory;
+
+    public HibernateMetrics(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    @Override
+    public long getSessionOpenCount() {
+        return statistics().getSessionOpenCount();
+    }
+
+    @Override
+    public long getSessionCloseCount() {
+        return statistics().getSessionCloseCount();
+    }
+
+    @Override
+    public long getTransactionCount() {
+        return statistics().getTransactionCount();
+    }
+
+    @Override
+    public long getPrepareStatementCount() {
+        return statistics().getPrepareStatementCount();
+    }
+
+    @Override
+    public long getQueryExecutionCount() {
+        return statistics().getQueryExecutionCount();
+    }
+
+    @Override
+    public long getQueryExecutionMaxTime() {
+        return statistics().getQueryExecutionMaxTime();
+    }
+
+    @Override
+    public String getQueryExecutionMaxTimeQueryString() {
+        return statistics().getQueryExecutionMaxTimeQueryString();
+    }
+
+    @Override
+    public long getFlushCount() {
+        return statistics().getFlushCount();
+    }
+
+    @Override
+    public long getEntityLoadCount() {
+        return statistics().getEntityLoadCount();
+    }
+
+    @Override
+    public long getSecondLevelCacheHitCount() {
+        return statistics().getSecondLevelCacheHitCount();
+    }
+
+    @Override
+    public long getSecondLevelCacheMissCount() {
+        return statistics().getSecondLevelCacheMissCount();
+    }
+
+    @Override
+    public long getQueryCacheHitCount() {
+        return statistics().getQueryCacheHitCount();
+    }
+
+    @Override
+    public long getQueryCacheMissCount() {
+        return statistics().getQueryCacheMissCount();
+    }
+
+    @Override
+    public long getQueryPlanCacheHitCount() {
+        return statistics().getQueryPlanCacheHitCount();
+    }
+
+    @Override
+    public long getQueryPlanCacheMissCount() {
+        return statistics().getQueryPlanCacheMissCount();
+    }
+
+    // Share of Queries Whose Parsed and Translated Plan Was Reused, a Low Ratio Means the Cache Is Too Small
+    // or Query Strings Keep Changing
+    @Override
+    public double getQueryPlanCacheHitRatio() {
+        long hits = getQueryPlanCacheHitCount();
+        long total = hits + getQueryPlanCacheMissCount();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    // Prints Session, Statement, Flush and Cache Counters
+    public void print(PrintStream out) {
+        out.printf("Sessions Opened: %d, Closed: %d, Transactions: %d, Statements: %d, Flushes: %d, Entities Loaded: %d%n",
+                getSessionOpenCount(), getSessionCloseCount(), getTransactionCount(), getPrepareStatementCount(),
+                getFlushCount(), getEntityLoadCount());
+        out.printf("Queries: %d, Slowest Query: %d ms %s%n",
+                getQueryExecutionCount(), getQueryExecutionMaxTime(),
+                getQueryExecutionMaxTimeQueryString() != null ? getQueryExecutionMaxTimeQueryString() : "");
+        out.printf("Second-Level Cache Hits: %d, Misses: %d%n",
+                getSecondLevelCacheHitCount(), getSecondLevelCacheMissCount());
+        out.printf("Query Plan Cache Hits: %d, Misses: %d, Hit Ratio: %.1f%%%n",
+                getQueryPlanCacheHitCount(), getQueryPlanCacheMissCount(), getQueryPlanCacheHitRatio() * 100);
+    }
+
+    public void print() {
+        print(System.out);
+    }
+
+    private Statistics statistics() {
+        return sessionFactory.getStatistics();
+    }
+}
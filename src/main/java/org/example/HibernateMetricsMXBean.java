@@ -0,0 +1,35 @@
+package org.example;
+
+public interface HibernateMetricsMXBean {
+    long getSessionOpenCount();
+
+    long getSessionCloseCount();
+
+    long getTransactionCount();
+
+    long getPrepareStatementCount();
+
+    long getQueryExecutionCount();
+
+    long getQueryExecutionMaxTime();
+
+    String getQueryExecutionMaxTimeQueryString();
+
+    long getFlushCount();
+
+    long getEntityLoadCount();
+
+    long getSecondLevelCacheHitCount();
+
+    long getSecondLevelCacheMissCount();
+
+    long getQueryCacheHitCount();
+
+    long getQueryCacheMissCount();
+
+    long getQueryPlanCacheHitCount();
+
+    long getQueryPlanCacheMissCount();
+
+    double getQueryPlanCacheHitRatio();
+}
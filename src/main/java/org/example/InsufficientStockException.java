@@ -0,0 +1,20 @@
+package org.example;
+
+public class InsufficientStockException extends IllegalStateException {
+    private final Long bookID;
+    private final int requestedQuantity;
+
+    public InsufficientStockException(Long bookID, int requestedQuantity) {
+        super("Not enough copies of book with ID " + bookID + " in stock for " + requestedQuantity + " sold.");
+        this.bookID = bookID;
+        this.requestedQuantity = requestedQuantity;
+    }
+
+    public Long getBookID() {
+        return bookID;
+    }
+
+    public int getRequestedQuantity() {
+        return requestedQuantity;
+    }
+}
@@ -0,0 +1,86 @@
+package org.example;
+
+import org.hibernate.Session;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.util.List;
+
+public class Inventory {
+    private static final String RESERVE_STOCK = "UPDATE books SET quantity_in_stock = quantity_in_stock - :quantity " +
+            "WHERE book_id = :bookID AND quantity_in_stock >= :quantity";
+
+    private static final String RESERVE_STOCK_RETURNING_GENRE = RESERVE_STOCK + " RETURNING genre";
+
+    private static final String LOCKED_GENRE = "SELECT genre FROM books WHERE book_id = :bookID";
+
+    // Declared Instead of "books" So Hibernate Does Not Wipe the Whole Book Cache Region
+    private static final String STOCK_QUERY_SPACE = "books_stock";
+    private static final String[] BOOK_QUERY_SPACES = {"books"};
+
+    private Inventory() {
+    }
+
+    // Decrements Stock Atomically, Rejects Oversells Instead of Going Below Zero. Returns the Book's Genre as Read
+    // Under the Row Lock the Update Took: a Genre Change Either Committed Before It, or Waits Until This Sale Commits
+    // and Then Moves Its Revenue Too, So Revenue Must Be Recorded Under This Genre, Never One Read Earlier
+    public static String reserve(Session session, Long bookID, int quantity) {
+        SessionImplementor sessionImplementor = session.unwrap(SessionImplementor.class);
+        SessionFactoryImplementor sessionFactory = sessionImplementor.getFactory();
+        EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(Book.class);
+        EntityDataAccess cacheAccess = persister.getCacheAccessStrategy();
+
+        // Locks Only This Book's Cache Entry Until the Transaction Ends
+        Object cacheKey = null;
+        SoftLock lock = null;
+        if (cacheAccess != null) {
+            cacheKey = cacheAccess.generateCacheKey(bookID, persister, sessionFactory, null);
+            lock = cacheAccess.lockItem(sessionImplementor, cacheKey, null);
+        }
+        if (sessionFactory.getSessionFactoryOptions().isQueryCacheEnabled()) {
+            sessionFactory.getCache().getTimestampsCache().preInvalidate(BOOK_QUERY_SPACES, sessionImplementor);
+        }
+
+        Object lockedKey = cacheKey;
+        SoftLock softLock = lock;
+        sessionImplementor.getActionQueue().registerProcess((success, completedSession) -> {
+            if (cacheAccess != null) {
+                cacheAccess.unlockItem(completedSession, lockedKey, softLock);
+            }
+            if (sessionFactory.getSessionFactoryOptions().isQueryCacheEnabled()) {
+                sessionFactory.getCache().getTimestampsCache().invalidate(BOOK_QUERY_SPACES, completedSession);
+            }
+        });
+
+        if (sessionFactory.getJdbcServices().getDialect() instanceof PostgreSQLDialect) {
+            List<String> genres = session.createNativeQuery(RESERVE_STOCK_RETURNING_GENRE, String.class)
+                    .addSynchronizedQuerySpace(STOCK_QUERY_SPACE)
+                    .setParameter("quantity", quantity)
+                    .setParameter("bookID", bookID)
+                    .getResultList();
+
+            if (genres.isEmpty()) {
+                throw new InsufficientStockException(bookID, quantity);
+            }
+            return genres.getFirst();
+        }
+
+        int updatedRows = session.createNativeQuery(RESERVE_STOCK)
+                .addSynchronizedQuerySpace(STOCK_QUERY_SPACE)
+                .setParameter("quantity", quantity)
+                .setParameter("bookID", bookID)
+                .executeUpdate();
+
+        if (updatedRows == 0) {
+            throw new InsufficientStockException(bookID, quantity);
+        }
+        // The Row Is Locked Now, a Fresh Statement Sees Any Genre Change Committed While the Update Waited
+        return session.createNativeQuery(LOCKED_GENRE, String.class)
+                .setParameter("bookID", bookID)
+                .getSingleResult();
+    }
+}
@@ -10,7 +10,23 @@ public enum MenuCodes {
     PROCESS_NEW_SALE("6"),
     CALCULATE_TOTAL_REVENUE_BY_GENRE("7"),
     GENERATE_SALES_REPORT("8"),
-    GENERATE_REVENUE_REPORT_BY_GENRE("9");
+    GENERATE_REVENUE_REPORT_BY_GENRE("9"),
+    SHOW_STATISTICS("10"),
+    IMPORT_SALES("11"),
+    GENERATE_DAILY_REVENUE_REPORT("12"),
+    VERIFY_REVENUE_SUMMARY("13"),
+    REBUILD_REVENUE_SUMMARY("14"),
+    BROWSE_SALES_REPORT("15"),
+    GENERATE_FILTERED_SALES_REPORT("16"),
+    REPRICE_BOOKS("17"),
+    APPLY_STOCK_DELTAS("18"),
+    RENAME_GENRE("19"),
+    ANALYTICS_REPORT("20"),
+    SEARCH_CATALOG("21"),
+    TOP_SELLERS("22"),
+    PLACE_ORDER("23"),
+    EXPORT_REPORT("24"),
+    ARCHIVE_SALES("25");
 
     private final String value;
 
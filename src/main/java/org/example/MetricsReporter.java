@@ -0,0 +1,86 @@
+package org.example;
+
+import org.hibernate.SessionFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+// Exposes Hibernate Statistics over JMX Next to the Pool, Cache and Operation MBeans, and Logs a Snapshot of
+// Everything Every bookstore.metrics.dump_interval_seconds, 0 Turns the Periodic Dump Off
+public class MetricsReporter implements AutoCloseable {
+    public static final String DUMP_INTERVAL = "bookstore.metrics.dump_interval_seconds";
+    private static final Logger logger = Logger.getLogger("org.example.metrics");
+
+    private final SessionFactory sessionFactory;
+    private final OperationMetrics operationMetrics;
+    private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+    private final ObjectName hibernateName;
+    private final ScheduledExecutorService scheduler;
+
+    public MetricsReporter(SessionFactory sessionFactory, OperationMetrics operationMetrics) {
+        this.sessionFactory = sessionFactory;
+        this.operationMetrics = operationMetrics;
+        this.hibernateName = registerHibernateMetrics();
+
+        Object interval = sessionFactory.getProperties().get(DUMP_INTERVAL);
+        long intervalSeconds = interval != null ? Long.parseLong(interval.toString()) : 0;
+
+        if (intervalSeconds > 0) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().daemon().name("metrics-dump").factory());
+            scheduler.scheduleAtFixedRate(this::dump, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        } else {
+            scheduler = null;
+        }
+    }
+
+    // Prints Startup, Pool, Cache, Hibernate and Operation Metrics
+    public void print(PrintStream out) {
+        StartupMetrics.print(out);
+        new ConnectionPoolMetrics(sessionFactory).print(out);
+        new CacheMetrics(sessionFactory).print(out);
+        new HibernateMetrics(sessionFactory).print(out);
+        operationMetrics.print(out);
+    }
+
+    private void dump() {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (PrintStream out = new PrintStream(buffer, true, StandardCharsets.UTF_8)) {
+            print(out);
+        }
+        logger.info(buffer.toString(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (hibernateName != null) {
+            try {
+                mBeanServer.unregisterMBean(hibernateName);
+            } catch (JMException e) {
+                // Already Gone
+            }
+        }
+        operationMetrics.close();
+    }
+
+    private ObjectName registerHibernateMetrics() {
+        try {
+            ObjectName name = new ObjectName("org.example:type=Hibernate");
+            mBeanServer.registerMBean(new HibernateMetrics(sessionFactory), name);
+            return name;
+        } catch (JMException e) {
+            return null;
+        }
+    }
+}
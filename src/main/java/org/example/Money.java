@@ -0,0 +1,71 @@
+package org.example;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Exact Amount of Money in Minor Units (Cents), Stored as BIGINT
+public record Money(long minorUnits) implements Comparable<Money>, Serializable {
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    public static Money ofMinor(long minorUnits) {
+        return new Money(minorUnits);
+    }
+
+    // Parses Amount Like "12.5" or "12.50", Rejects More Than Two Decimal Places
+    public static Money parse(String amount) {
+        return of(new BigDecimal(amount.trim()));
+    }
+
+    public static Money of(BigDecimal amount) {
+        try {
+            return new Money(amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount " + amount.toPlainString() + " is not a valid amount of money.");
+        }
+    }
+
+    // Overflow Is Reported Like an Invalid Amount, Callers Already Handle IllegalArgumentException
+    public Money plus(Money other) {
+        try {
+            return new Money(Math.addExact(minorUnits, other.minorUnits));
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(this + " plus " + other + " is too large an amount of money.");
+        }
+    }
+
+    public Money minus(Money other) {
+        try {
+            return new Money(Math.subtractExact(minorUnits, other.minorUnits));
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(this + " minus " + other + " is too large an amount of money.");
+        }
+    }
+
+    public Money times(int quantity) {
+        try {
+            return new Money(Math.multiplyExact(minorUnits, quantity));
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(this + " times " + quantity + " is too large an amount of money.");
+        }
+    }
+
+    public boolean isNegative() {
+        return minorUnits < 0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,115 @@
+package org.example;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+// Timers per Operation, Each Also Readable over JMX as org.example:type=Operation,name=<operation>
+public class OperationMetrics implements AutoCloseable {
+    private final Map<String, OperationTimer> timers = new ConcurrentHashMap<>();
+    private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+    @FunctionalInterface
+    public interface Operation<T, E extends Exception> {
+        T run() throws E;
+    }
+
+    // Runs Operation, Recording Latency and Rows on Success or an Error on Exception
+    public <T, E extends Exception> T time(String operation, Operation<T, E> action, ToLongFunction<? super T> rows) throws E {
+        OperationTimer timer = timer(operation);
+        long start = System.nanoTime();
+
+        T result;
+        try {
+            result = action.run();
+        } catch (Exception e) {
+            timer.recordError(System.nanoTime() - start);
+            throw e;
+        }
+
+        timer.recordSuccess(System.nanoTime() - start, rows.applyAsLong(result));
+        return result;
+    }
+
+    // Runs Streaming Operation That Hands Rows to renderer, Returning Its Row Count. Time Spent in renderer Is Left
+    // Out of operation and Recorded as operationRendering, So a Slow Terminal Does Not Look Like a Slow Query.
+    // Rows Must Be Rendered on the Calling Thread
+    public <T> long timeStream(String operation, ToLongFunction<Consumer<T>> stream, Consumer<T> renderer) {
+        OperationTimer timer = timer(operation);
+        long[] renderNanos = new long[1];
+        Consumer<T> timedRenderer = row -> {
+            long start = System.nanoTime();
+            try {
+                renderer.accept(row);
+            } finally {
+                renderNanos[0] += System.nanoTime() - start;
+            }
+        };
+        long start = System.nanoTime();
+
+        long rows;
+        try {
+            rows = stream.applyAsLong(timedRenderer);
+        } catch (RuntimeException e) {
+            timer.recordError(System.nanoTime() - start - renderNanos[0]);
+            throw e;
+        }
+
+        timer.recordSuccess(System.nanoTime() - start - renderNanos[0], rows);
+        timer(operation + "Rendering").recordSuccess(renderNanos[0], rows);
+        return rows;
+    }
+
+    public OperationTimer timer(String operation) {
+        return timers.computeIfAbsent(operation, this::register);
+    }
+
+    public Map<String, OperationTimer> getTimers() {
+        return new TreeMap<>(timers);
+    }
+
+    // Prints Count, Errors, Rows and Latency per Operation
+    public void print(PrintStream out) {
+        for (OperationTimer timer : getTimers().values()) {
+            out.printf("Operation: %s, Calls: %d, Errors: %d, Rows: %d, Mean: %.3f ms, p50: %.3f ms, p95: %.3f ms, p99: %.3f ms, Max: %.3f ms%n",
+                    timer.getName(), timer.getCount(), timer.getErrorCount(), timer.getRowCount(), timer.getMeanMillis(),
+                    timer.getP50Millis(), timer.getP95Millis(), timer.getP99Millis(), timer.getMaxMillis());
+        }
+    }
+
+    public void print() {
+        print(System.out);
+    }
+
+    @Override
+    public void close() {
+        for (String operation : timers.keySet()) {
+            try {
+                mBeanServer.unregisterMBean(objectName(operation));
+            } catch (JMException e) {
+                // Already Gone
+            }
+        }
+    }
+
+    private OperationTimer register(String operation) {
+        OperationTimer timer = new OperationTimer(operation);
+        try {
+            mBeanServer.registerMBean(timer, objectName(operation));
+        } catch (JMException e) {
+            // Still Counted and Printed, Just Not Visible over JMX
+        }
+        return timer;
+    }
+
+    private static ObjectName objectName(String operation) throws JMException {
+        return new ObjectName("org.example:type=Operation,name=" + ObjectName.quote(operation));
+    }
+}
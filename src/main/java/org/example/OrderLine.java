@@ -0,0 +1,4 @@
+package org.example;
+
+public record OrderLine(Long bookID, int quantity) {
+}
@@ -0,0 +1,7 @@
+package org.example;
+
+import java.time.LocalDate;
+
+public record PurchaseHistoryEntry(Long saleID, String customerName, String title, String author,
+                                   String genre, LocalDate dateOfSale) {
+}
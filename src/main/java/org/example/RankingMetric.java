@@ -0,0 +1,17 @@
+package org.example;
+
+// What Best Sellers Are Ranked By, Column Names Are Fixed Here and Never Come from Input
+public enum RankingMetric {
+    QUANTITY("quantity"),
+    REVENUE("revenue");
+
+    private final String alias;
+
+    RankingMetric(String alias) {
+        this.alias = alias;
+    }
+
+    public String alias() {
+        return alias;
+    }
+}
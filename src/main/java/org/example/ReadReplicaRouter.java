@@ -0,0 +1,125 @@
+package org.example;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Sends Read-Only Work to Replicas Listed in bookstore.replica.urls, Round Robin, Writes Stay on the Primary.
+// Within bookstore.replica.read_your_writes_millis After a Write Reads Go to the Primary Too, 0 Turns That Off
+public class ReadReplicaRouter implements AutoCloseable {
+    public static final String REPLICA_URLS = "bookstore.replica.urls";
+    public static final String REPLICA_USERNAME = "bookstore.replica.username";
+    public static final String REPLICA_PASSWORD = "bookstore.replica.password";
+    public static final String READ_YOUR_WRITES_MILLIS = "bookstore.replica.read_your_writes_millis";
+
+    private final SessionFactory primary;
+    private final List<SessionFactory> replicas;
+    private final long readYourWritesNanos;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private volatile long lastWriteNanos;
+
+    public ReadReplicaRouter(SessionFactory primary, List<SessionFactory> replicas, long readYourWritesMillis) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.readYourWritesNanos = TimeUnit.MILLISECONDS.toNanos(readYourWritesMillis);
+        // Starts Outside the Window so Reads Use Replicas Until the First Write
+        this.lastWriteNanos = System.nanoTime() - readYourWritesNanos;
+    }
+
+    // Primary Only, Every Read Goes to the Primary
+    public static ReadReplicaRouter primaryOnly(SessionFactory primary) {
+        return new ReadReplicaRouter(primary, List.of(), 0);
+    }
+
+    // Builds One Session Factory per Replica URL, Credentials Default to the Primary's
+    public static ReadReplicaRouter fromSettings(SessionFactory primary) {
+        Map<String, Object> properties = primary.getProperties();
+        Object urls = properties.get(REPLICA_URLS);
+        Object username = properties.getOrDefault(REPLICA_USERNAME, properties.get(AvailableSettings.USER));
+        Object password = properties.getOrDefault(REPLICA_PASSWORD, properties.get(AvailableSettings.PASS));
+        Object readYourWrites = properties.get(READ_YOUR_WRITES_MILLIS);
+
+        List<SessionFactory> replicas = new ArrayList<>();
+        if (urls != null) {
+            for (String url : urls.toString().split(",")) {
+                if (url.isBlank()) {
+                    continue;
+                }
+
+                Map<String, Object> settings = replicaSettings(replicas.size() + 1);
+                settings.put(AvailableSettings.URL, url.trim());
+                settings.put(AvailableSettings.USER, username);
+                settings.put(AvailableSettings.PASS, password);
+
+                try {
+                    replicas.add(HibernateConfig.buildSessionFactory(settings));
+                } catch (RuntimeException e) {
+                    replicas.forEach(SessionFactory::close);
+                    throw e;
+                }
+            }
+        }
+
+        return new ReadReplicaRouter(primary, replicas,
+                readYourWrites != null ? Long.parseLong(readYourWrites.toString()) : 0);
+    }
+
+    // Replicas Skip the Second-Level and Query Cache, a Lagging Replica Must Not Fill Them with Stale Rows
+    public static Map<String, Object> replicaSettings(int index) {
+        Map<String, Object> settings = new HashMap<>();
+        settings.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, "false");
+        settings.put(AvailableSettings.USE_QUERY_CACHE, "false");
+        settings.put(AvailableSettings.HBM2DDL_AUTO, "none");
+        settings.put("hibernate.hikari.poolName", "bookstore-replica-" + index);
+        settings.put("hibernate.hikari.readOnly", "true");
+        return settings;
+    }
+
+    public SessionFactory getPrimary() {
+        return primary;
+    }
+
+    public List<SessionFactory> getReplicas() {
+        return replicas;
+    }
+
+    // Session Factory for Read-Only Work
+    public SessionFactory forRead() {
+        if (replicas.isEmpty()) {
+            return primary;
+        }
+        if (readYourWritesNanos > 0 && System.nanoTime() - lastWriteNanos < readYourWritesNanos) {
+            return primary;
+        }
+        return replicas.get(Math.floorMod(nextReplica.getAndIncrement(), replicas.size()));
+    }
+
+    // Marks a Committed Write so Reads Right After It See It on the Primary
+    public void recordWrite() {
+        if (readYourWritesNanos > 0) {
+            lastWriteNanos = System.nanoTime();
+        }
+    }
+
+    // Prints Pool State of Every Replica
+    public void print(PrintStream out) {
+        for (SessionFactory replica : replicas) {
+            new ConnectionPoolMetrics(replica).print(out);
+        }
+    }
+
+    // Closes Replicas Only, the Primary Belongs to the Caller
+    @Override
+    public void close() {
+        for (SessionFactory replica : replicas) {
+            replica.close();
+        }
+    }
+}
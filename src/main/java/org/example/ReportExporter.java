@@ -0,0 +1,214 @@
+package org.example;
+
+import org.hibernate.Session;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+// Writes Reports to Files Instead of the Console. Sold Books Are Split into Sale ID Ranges That Are Streamed from
+// Their Own Cursors and Encoded in Parallel into Part Files, Then the Parts Are Appended to the Target File by the OS
+public class ReportExporter {
+    public static final String PARTITIONS = "bookstore.export.partitions";
+    private static final int DEFAULT_PARTITIONS = 4;
+
+    public static final List<ExportColumn<SoldBookEntry>> SOLD_BOOK_COLUMNS = List.of(
+            new ExportColumn.LongColumn<>("sale_id", SoldBookEntry::saleID),
+            new ExportColumn.StringColumn<>("customer_name", SoldBookEntry::customerName),
+            new ExportColumn.StringColumn<>("title", SoldBookEntry::bookTitle),
+            new ExportColumn.DateColumn<>("date_of_sale", SoldBookEntry::dateOfSale));
+
+    public static final List<ExportColumn<PurchaseHistoryEntry>> PURCHASE_HISTORY_COLUMNS = List.of(
+            new ExportColumn.LongColumn<>("sale_id", PurchaseHistoryEntry::saleID),
+            new ExportColumn.StringColumn<>("customer_name", PurchaseHistoryEntry::customerName),
+            new ExportColumn.StringColumn<>("title", PurchaseHistoryEntry::title),
+            new ExportColumn.StringColumn<>("author", PurchaseHistoryEntry::author),
+            new ExportColumn.StringColumn<>("genre", PurchaseHistoryEntry::genre),
+            new ExportColumn.DateColumn<>("date_of_sale", PurchaseHistoryEntry::dateOfSale));
+
+    public static final List<ExportColumn<GenreRevenue>> GENRE_REVENUE_COLUMNS = List.of(
+            new ExportColumn.StringColumn<>("genre", GenreRevenue::genre),
+            new ExportColumn.MoneyColumn<>("total_revenue", GenreRevenue::totalRevenue));
+
+    public static final List<ExportColumn<GenreDailyRevenue>> DAILY_REVENUE_COLUMNS = List.of(
+            new ExportColumn.StringColumn<>("genre", GenreDailyRevenue::getGenre),
+            new ExportColumn.DateColumn<>("sale_day", GenreDailyRevenue::getDay),
+            new ExportColumn.MoneyColumn<>("revenue", GenreDailyRevenue::getRevenue),
+            new ExportColumn.LongColumn<>("sales_count", GenreDailyRevenue::getSalesCount));
+
+    private final BookstoreService service;
+    private final int partitions;
+
+    public ReportExporter(BookstoreService service) {
+        this(service, configuredPartitions(service));
+    }
+
+    public ReportExporter(BookstoreService service, int partitions) {
+        if (partitions <= 0) {
+            throw new IllegalArgumentException("Export partitions must be positive.");
+        }
+        this.service = service;
+        this.partitions = partitions;
+    }
+
+    // Exports Sold Books Matching Filter, in Sale ID Order
+    public ExportResult exportSoldBooks(SalesReportFilter filter, Path file, ExportFormat format) throws IOException {
+        long start = System.nanoTime();
+        List<SaleIDRange> ranges = saleIDRanges();
+
+        if (ranges.size() <= 1) {
+            long rows = export(file, format, SOLD_BOOK_COLUMNS, writer -> service.streamSoldBooks(filter, writer));
+            return new ExportResult(file, rows, 1, (System.nanoTime() - start) / 1_000_000);
+        }
+
+        List<Path> parts = new ArrayList<>();
+        try {
+            // Header Goes First, Every Part Holds Only Rows
+            ReportFileWriter.open(file, format, SOLD_BOOK_COLUMNS, true).close();
+
+            List<CompletableFuture<Long>> futures = new ArrayList<>();
+            try (BookstoreExecutor executor = new BookstoreExecutor(service)) {
+                for (SaleIDRange range : ranges) {
+                    Path part = file.resolveSibling(file.getFileName() + ".part" + parts.size());
+                    parts.add(part);
+                    futures.add(executor.submit(partService -> writePart(partService, filter, range, part, format)));
+                }
+            }
+
+            long rows = 0;
+            for (CompletableFuture<Long> future : futures) {
+                rows += join(future);
+            }
+
+            appendParts(file, parts);
+            return new ExportResult(file, rows, parts.size(), (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            for (Path part : parts) {
+                Files.deleteIfExists(part);
+            }
+        }
+    }
+
+    // Exports One Customer's Purchase History
+    public ExportResult exportPurchaseHistory(Long customerID, Path file, ExportFormat format) throws IOException {
+        long start = System.nanoTime();
+        long rows = export(file, format, PURCHASE_HISTORY_COLUMNS,
+                writer -> service.streamCustomerPurchaseHistory(customerID, writer));
+        return new ExportResult(file, rows, 1, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Exports Revenue of Each Genre
+    public ExportResult exportRevenueByGenre(Path file, ExportFormat format) throws IOException {
+        long start = System.nanoTime();
+        long rows = export(file, format, GENRE_REVENUE_COLUMNS, writer -> {
+            List<GenreRevenue> resultList = service.reportOfTotalRevenueFromEachGenre();
+            resultList.forEach(writer);
+            return resultList.size();
+        });
+        return new ExportResult(file, rows, 1, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Exports Revenue per Genre and Day Between Dates
+    public ExportResult exportDailyRevenue(LocalDate from, LocalDate to, Path file, ExportFormat format) throws IOException {
+        long start = System.nanoTime();
+        long rows = export(file, format, DAILY_REVENUE_COLUMNS, writer -> {
+            List<GenreDailyRevenue> resultList = service.reportOfDailyRevenueByGenre(from, to);
+            resultList.forEach(writer);
+            return resultList.size();
+        });
+        return new ExportResult(file, rows, 1, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static <T> long export(Path file, ExportFormat format, List<ExportColumn<T>> columns,
+                                   RowSource<T> source) throws IOException {
+        try (ReportFileWriter<T> writer = ReportFileWriter.open(file, format, columns, true)) {
+            return source.writeTo(writer);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static long writePart(BookstoreService service, SalesReportFilter filter, SaleIDRange range, Path part,
+                                  ExportFormat format) {
+        try (ReportFileWriter<SoldBookEntry> writer = ReportFileWriter.open(part, format, SOLD_BOOK_COLUMNS, false)) {
+            return service.streamSoldBooks(filter, range.afterSaleID(), range.throughSaleID(), writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Copied File to File by the OS Without Passing Through the Java Heap
+    private static void appendParts(Path file, List<Path> parts) throws IOException {
+        try (FileChannel target = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            for (Path part : parts) {
+                try (FileChannel source = FileChannel.open(part, StandardOpenOption.READ)) {
+                    long size = source.size();
+                    for (long position = 0; position < size; ) {
+                        position += source.transferTo(position, size - position, target);
+                    }
+                }
+            }
+        }
+    }
+
+    // Equal Sale ID Spans, the First and Last Are Left Open So Rows Outside the Sampled Range Are Not Lost
+    private List<SaleIDRange> saleIDRanges() {
+        Object[] range;
+        try (Session session = service.getReadRouter().forRead().openSession()) {
+            range = session.createQuery("SELECT MIN(s.saleID), MAX(s.saleID) FROM Sale s", Object[].class)
+                    .getSingleResult();
+        }
+        if (range[0] == null) {
+            return List.of();
+        }
+
+        long lowest = (Long) range[0];
+        long highest = (Long) range[1];
+        long span = highest - lowest + 1;
+        int count = (int) Math.min(partitions, span);
+        long step = (span + count - 1) / count;
+
+        List<SaleIDRange> ranges = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Long after = i == 0 ? null : lowest - 1 + i * step;
+            Long through = i == count - 1 ? null : lowest - 1 + (i + 1) * step;
+            ranges.add(new SaleIDRange(after, through));
+        }
+        return ranges;
+    }
+
+    private static long join(CompletableFuture<Long> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException uncheckedIOException) {
+                throw uncheckedIOException.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    private static int configuredPartitions(BookstoreService service) {
+        Object partitions = service.getSessionFactory().getProperties().get(PARTITIONS);
+        return partitions != null ? Integer.parseInt(partitions.toString()) : DEFAULT_PARTITIONS;
+    }
+
+    private interface RowSource<T> {
+        long writeTo(Consumer<T> writer);
+    }
+
+    private record SaleIDRange(Long afterSaleID, Long throughSaleID) {
+    }
+}
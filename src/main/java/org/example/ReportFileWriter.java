@@ -0,0 +1,100 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Encodes Report Rows Straight into a Direct Buffer, the File Channel Writes It Without Another Heap Copy
+public abstract class ReportFileWriter<T> implements Consumer<T>, AutoCloseable {
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    protected final List<ExportColumn<T>> columns;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+
+    protected ReportFileWriter(Path file, List<ExportColumn<T>> columns) throws IOException {
+        this.columns = List.copyOf(columns);
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+    }
+
+    // Header Is Left Out for Partitions That Are Appended to Another File
+    public static <T> ReportFileWriter<T> open(Path file, ExportFormat format, List<ExportColumn<T>> columns,
+                                               boolean withHeader) throws IOException {
+        ReportFileWriter<T> writer = switch (format) {
+            case CSV -> new CsvReportWriter<>(file, columns);
+            case COLUMNAR -> new ColumnarReportWriter<>(file, columns);
+        };
+
+        try {
+            if (withHeader) {
+                writer.writeHeader();
+            }
+            return writer;
+        } catch (IOException | RuntimeException e) {
+            writer.channel.close();
+            throw e;
+        }
+    }
+
+    // Writes Row, I/O Errors Are Rethrown Unchecked So the Writer Can Consume a Report Stream
+    @Override
+    public void accept(T row) {
+        try {
+            write(row);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    protected abstract void writeHeader() throws IOException;
+
+    protected abstract void write(T row) throws IOException;
+
+    // Writes Rows Still Held Back by the Format
+    protected void finish() throws IOException {
+    }
+
+    // Buffer With at Least the Given Number of Free Bytes, at Most the Buffer Size
+    protected ByteBuffer room(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+        return buffer;
+    }
+
+    protected void putBytes(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.capacity()) {
+            flush();
+            ByteBuffer wrapped = ByteBuffer.wrap(bytes);
+            while (wrapped.hasRemaining()) {
+                channel.write(wrapped);
+            }
+            return;
+        }
+        room(bytes.length).put(bytes);
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
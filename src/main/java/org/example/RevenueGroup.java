@@ -0,0 +1,4 @@
+package org.example;
+
+public record RevenueGroup(String key, Money revenue, long booksSold, long salesCount) {
+}
@@ -0,0 +1,4 @@
+package org.example;
+
+public record RevenueMismatch(String genre, Money summaryRevenue, Money salesRevenue) {
+}
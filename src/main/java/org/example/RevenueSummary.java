@@ -0,0 +1,216 @@
+package org.example;
+
+import org.hibernate.Session;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+public class RevenueSummary {
+    private static final String TOTALS_TABLE = "genre_revenue";
+    private static final String DAILY_TABLE = "genre_daily_revenue";
+
+    private static final String UPSERT_TOTAL_POSTGRESQL = "INSERT INTO genre_revenue (genre, total_revenue, sales_count) " +
+            "VALUES (:genre, :revenue, :salesCount) " +
+            "ON CONFLICT (genre) DO UPDATE SET " +
+            "total_revenue = genre_revenue.total_revenue + EXCLUDED.total_revenue, " +
+            "sales_count = genre_revenue.sales_count + EXCLUDED.sales_count";
+
+    private static final String UPSERT_DAILY_POSTGRESQL = "INSERT INTO genre_daily_revenue (genre, sale_day, revenue, sales_count) " +
+            "VALUES (:genre, :day, :revenue, :salesCount) " +
+            "ON CONFLICT (genre, sale_day) DO UPDATE SET " +
+            "revenue = genre_daily_revenue.revenue + EXCLUDED.revenue, " +
+            "sales_count = genre_daily_revenue.sales_count + EXCLUDED.sales_count";
+
+    private static final String UPSERT_TOTAL_STANDARD = "MERGE INTO genre_revenue r " +
+            "USING (VALUES (CAST(:genre AS VARCHAR(30)), CAST(:revenue AS BIGINT), CAST(:salesCount AS BIGINT))) " +
+            "AS v (genre, total_revenue, sales_count) ON r.genre = v.genre " +
+            "WHEN MATCHED THEN UPDATE SET total_revenue = r.total_revenue + v.total_revenue, " +
+            "sales_count = r.sales_count + v.sales_count " +
+            "WHEN NOT MATCHED THEN INSERT (genre, total_revenue, sales_count) " +
+            "VALUES (v.genre, v.total_revenue, v.sales_count)";
+
+    private static final String UPSERT_DAILY_STANDARD = "MERGE INTO genre_daily_revenue r " +
+            "USING (VALUES (CAST(:genre AS VARCHAR(30)), CAST(:day AS DATE), CAST(:revenue AS BIGINT), CAST(:salesCount AS BIGINT))) " +
+            "AS v (genre, sale_day, revenue, sales_count) ON r.genre = v.genre AND r.sale_day = v.sale_day " +
+            "WHEN MATCHED THEN UPDATE SET revenue = r.revenue + v.revenue, " +
+            "sales_count = r.sales_count + v.sales_count " +
+            "WHEN NOT MATCHED THEN INSERT (genre, sale_day, revenue, sales_count) " +
+            "VALUES (v.genre, v.sale_day, v.revenue, v.sales_count)";
+
+    // Raw Sales and Archived Ones Alike as Revenue and Sales Count per Book and Day
+    private static final String BOOK_DAY_SALES = "(SELECT book_id, date_of_sale AS sale_day, total_price AS revenue, " +
+            "1 AS sales_count FROM sales " +
+            "UNION ALL SELECT book_id, sale_day, revenue, sales_count FROM sales_archive)";
+
+    private static final String REBUILD_TOTALS = "INSERT INTO genre_revenue (genre, total_revenue, sales_count) " +
+            "SELECT b.genre, SUM(s.revenue), SUM(s.sales_count) FROM " + BOOK_DAY_SALES + " s " +
+            "JOIN books b ON b.book_id = s.book_id GROUP BY b.genre";
+
+    private static final String REBUILD_DAILY = "INSERT INTO genre_daily_revenue (genre, sale_day, revenue, sales_count) " +
+            "SELECT b.genre, s.sale_day, SUM(s.revenue), SUM(s.sales_count) FROM " + BOOK_DAY_SALES + " s " +
+            "JOIN books b ON b.book_id = s.book_id WHERE s.sale_day IS NOT NULL GROUP BY b.genre, s.sale_day";
+
+    private static final String MOVE_TOTAL_POSTGRESQL = "INSERT INTO genre_revenue (genre, total_revenue, sales_count) " +
+            "SELECT :newGenre, total_revenue, sales_count FROM genre_revenue WHERE genre = :oldGenre " +
+            "ON CONFLICT (genre) DO UPDATE SET " +
+            "total_revenue = genre_revenue.total_revenue + EXCLUDED.total_revenue, " +
+            "sales_count = genre_revenue.sales_count + EXCLUDED.sales_count";
+
+    private static final String MOVE_DAILY_POSTGRESQL = "INSERT INTO genre_daily_revenue (genre, sale_day, revenue, sales_count) " +
+            "SELECT :newGenre, sale_day, revenue, sales_count FROM genre_daily_revenue WHERE genre = :oldGenre " +
+            "ON CONFLICT (genre, sale_day) DO UPDATE SET " +
+            "revenue = genre_daily_revenue.revenue + EXCLUDED.revenue, " +
+            "sales_count = genre_daily_revenue.sales_count + EXCLUDED.sales_count";
+
+    private static final String MOVE_TOTAL_STANDARD = "MERGE INTO genre_revenue r " +
+            "USING (SELECT CAST(:newGenre AS VARCHAR(30)) AS genre, total_revenue, sales_count FROM genre_revenue " +
+            "WHERE genre = :oldGenre) AS v ON r.genre = v.genre " +
+            "WHEN MATCHED THEN UPDATE SET total_revenue = r.total_revenue + v.total_revenue, " +
+            "sales_count = r.sales_count + v.sales_count " +
+            "WHEN NOT MATCHED THEN INSERT (genre, total_revenue, sales_count) " +
+            "VALUES (v.genre, v.total_revenue, v.sales_count)";
+
+    private static final String MOVE_DAILY_STANDARD = "MERGE INTO genre_daily_revenue r " +
+            "USING (SELECT CAST(:newGenre AS VARCHAR(30)) AS genre, sale_day, revenue, sales_count FROM genre_daily_revenue " +
+            "WHERE genre = :oldGenre) AS v ON r.genre = v.genre AND r.sale_day = v.sale_day " +
+            "WHEN MATCHED THEN UPDATE SET revenue = r.revenue + v.revenue, " +
+            "sales_count = r.sales_count + v.sales_count " +
+            "WHEN NOT MATCHED THEN INSERT (genre, sale_day, revenue, sales_count) " +
+            "VALUES (v.genre, v.sale_day, v.revenue, v.sales_count)";
+
+    private static final String BOOK_REVENUE_BY_DAY = "SELECT sale_day, SUM(revenue) AS revenue, SUM(sales_count) AS sales_count FROM (" +
+            "SELECT date_of_sale AS sale_day, total_price AS revenue, 1 AS sales_count FROM sales WHERE book_id = :bookID " +
+            "UNION ALL SELECT sale_day, revenue, sales_count FROM sales_archive WHERE book_id = :bookID) s " +
+            "GROUP BY sale_day";
+
+    private static final String SALES_REVENUE_BY_GENRE = "SELECT b.genre AS genre, SUM(s.revenue) AS revenue " +
+            "FROM " + BOOK_DAY_SALES + " s JOIN books b ON b.book_id = s.book_id GROUP BY b.genre";
+
+    private RevenueSummary() {
+    }
+
+    // Adds Sales to Genre Total and Genre Daily Revenue in the Caller's Transaction
+    public static void record(Session session, String genre, LocalDate day, Money revenue, long salesCount) {
+        boolean postgreSQL = isPostgreSQL(session);
+
+        session.createNativeQuery(postgreSQL ? UPSERT_TOTAL_POSTGRESQL : UPSERT_TOTAL_STANDARD)
+                .addSynchronizedQuerySpace(TOTALS_TABLE)
+                .setParameter("genre", genre)
+                .setParameter("revenue", revenue.minorUnits())
+                .setParameter("salesCount", salesCount)
+                .executeUpdate();
+
+        if (day != null) {
+            session.createNativeQuery(postgreSQL ? UPSERT_DAILY_POSTGRESQL : UPSERT_DAILY_STANDARD)
+                    .addSynchronizedQuerySpace(DAILY_TABLE)
+                    .setParameter("genre", genre)
+                    .setParameter("day", day)
+                    .setParameter("revenue", revenue.minorUnits())
+                    .setParameter("salesCount", salesCount)
+                    .executeUpdate();
+        }
+    }
+
+    // Moves Revenue of All Sales of the Book from Old Genre to New Genre
+    public static void moveBook(Session session, Long bookID, String oldGenre, String newGenre) {
+        // Sums Raw Minor Units in the Database, Exact Unlike the Former Float Sums
+        List<Object[]> resultList = session.createNativeQuery(BOOK_REVENUE_BY_DAY, Object[].class)
+                .addScalar("sale_day", LocalDate.class)
+                .addScalar("revenue", Long.class)
+                .addScalar("sales_count", Long.class)
+                .setParameter("bookID", bookID)
+                .getResultList();
+
+        for (Object[] row : resultList) {
+            LocalDate day = (LocalDate) row[0];
+            Money revenue = Money.ofMinor((Long) row[1]);
+            long salesCount = (Long) row[2];
+
+            record(session, oldGenre, day, Money.ZERO.minus(revenue), -salesCount);
+            record(session, newGenre, day, revenue, salesCount);
+        }
+    }
+
+    // Merges All Summary Rows of Old Genre into New Genre with Set-Based Statements
+    public static void renameGenre(Session session, String oldGenre, String newGenre) {
+        boolean postgreSQL = isPostgreSQL(session);
+
+        session.createNativeQuery(postgreSQL ? MOVE_TOTAL_POSTGRESQL : MOVE_TOTAL_STANDARD)
+                .addSynchronizedQuerySpace(TOTALS_TABLE)
+                .setParameter("newGenre", newGenre)
+                .setParameter("oldGenre", oldGenre)
+                .executeUpdate();
+        session.createNativeQuery(postgreSQL ? MOVE_DAILY_POSTGRESQL : MOVE_DAILY_STANDARD)
+                .addSynchronizedQuerySpace(DAILY_TABLE)
+                .setParameter("newGenre", newGenre)
+                .setParameter("oldGenre", oldGenre)
+                .executeUpdate();
+
+        session.createNativeQuery("DELETE FROM genre_daily_revenue WHERE genre = :oldGenre")
+                .addSynchronizedQuerySpace(DAILY_TABLE)
+                .setParameter("oldGenre", oldGenre)
+                .executeUpdate();
+        session.createNativeQuery("DELETE FROM genre_revenue WHERE genre = :oldGenre")
+                .addSynchronizedQuerySpace(TOTALS_TABLE)
+                .setParameter("oldGenre", oldGenre)
+                .executeUpdate();
+    }
+
+    // Recomputes Both Summary Tables from Raw and Archived Sales
+    public static void rebuild(Session session) {
+        session.createNativeQuery("DELETE FROM genre_daily_revenue")
+                .addSynchronizedQuerySpace(DAILY_TABLE)
+                .executeUpdate();
+        session.createNativeQuery("DELETE FROM genre_revenue")
+                .addSynchronizedQuerySpace(TOTALS_TABLE)
+                .executeUpdate();
+        session.createNativeQuery(REBUILD_TOTALS)
+                .addSynchronizedQuerySpace(TOTALS_TABLE)
+                .executeUpdate();
+        session.createNativeQuery(REBUILD_DAILY)
+                .addSynchronizedQuerySpace(DAILY_TABLE)
+                .executeUpdate();
+    }
+
+    // Compares Genre Totals with Raw and Archived Sales Exactly, Returns Genres That Differ
+    public static List<RevenueMismatch> verify(Session session) {
+        Map<String, Money> summaryRevenues = new HashMap<>();
+        for (GenreRevenueTotal total : session.createQuery("FROM GenreRevenueTotal", GenreRevenueTotal.class).getResultList()) {
+            summaryRevenues.put(total.getGenre(), total.getTotalRevenue());
+        }
+
+        Map<String, Money> salesRevenues = new HashMap<>();
+        List<Object[]> resultList = session.createNativeQuery(SALES_REVENUE_BY_GENRE, Object[].class)
+                .addScalar("genre", String.class)
+                .addScalar("revenue", Long.class)
+                .getResultList();
+        for (Object[] row : resultList) {
+            salesRevenues.put((String) row[0], Money.ofMinor((Long) row[1]));
+        }
+
+        TreeSet<String> genres = new TreeSet<>(summaryRevenues.keySet());
+        genres.addAll(salesRevenues.keySet());
+
+        List<RevenueMismatch> mismatches = new ArrayList<>();
+        for (String genre : genres) {
+            Money summaryRevenue = summaryRevenues.getOrDefault(genre, Money.ZERO);
+            Money salesRevenue = salesRevenues.getOrDefault(genre, Money.ZERO);
+
+            if (!summaryRevenue.equals(salesRevenue)) {
+                mismatches.add(new RevenueMismatch(genre, summaryRevenue, salesRevenue));
+            }
+        }
+        return mismatches;
+    }
+
+    private static boolean isPostgreSQL(Session session) {
+        return session.getSessionFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+    }
+}
@@ -1,39 +1,68 @@
 package org.example;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "sales")
+@DynamicUpdate
+@Table(name = "sales", indexes = {
+        @Index(name = "idx_sales_date_of_sale", columnList = "date_of_sale"),
+        @Index(name = "idx_sales_customer_id", columnList = "customer_id"),
+        @Index(name = "idx_sales_book_id", columnList = "book_id"),
+        @Index(name = "idx_sales_order_id", columnList = "order_id")
+})
+@NamedEntityGraph(name = Sale.WITH_BOOK_AND_CUSTOMER, attributeNodes = {
+        @NamedAttributeNode("book"),
+        @NamedAttributeNode("customer")
+})
+@NamedQuery(name = Sale.OF_CUSTOMER, query = "FROM Sale s WHERE s.customer.customerID = :customerID ORDER BY s.saleID")
+@NamedQuery(name = Sale.PURCHASE_HISTORY, query = Sale.PURCHASE_HISTORY_SELECT + "ORDER BY s.saleID")
+@NamedQuery(name = Sale.PURCHASE_HISTORY_AFTER, query = Sale.PURCHASE_HISTORY_SELECT + "AND s.saleID > :afterSaleID ORDER BY s.saleID")
 public class Sale {
+    public static final String WITH_BOOK_AND_CUSTOMER = "Sale.withBookAndCustomer";
+    public static final String OF_CUSTOMER = "Sale.ofCustomer";
+    public static final String PURCHASE_HISTORY = "Sale.purchaseHistory";
+    public static final String PURCHASE_HISTORY_AFTER = "Sale.purchaseHistoryAfter";
+
+    static final String PURCHASE_HISTORY_SELECT = "SELECT new org.example.PurchaseHistoryEntry(" +
+            "s.saleID, c.name, b.title, b.author, b.genre, s.dateOfSale) " +
+            "FROM Sale s JOIN s.customer c JOIN s.book b WHERE s.customer.customerID = :customerID ";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sale_id_generator")
+    @SequenceGenerator(name = "sale_id_generator", sequenceName = "sales_sale_id_seq", allocationSize = 50)
     @Column(name = "sale_id")
-    Long saleID;
+    private Long saleID;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "book_id", nullable = false)
-    Book book;
+    private Book book;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "customer_id", nullable = false)
-    Customer customer;
+    private Customer customer;
+
+    // Null for Sales Made One Book at a Time
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id")
+    private CustomerOrder order;
 
     @Column(name = "date_of_sale")
-    LocalDate dateOfSale;
+    private LocalDate dateOfSale;
 
     @Column(name = "quantity_sold", nullable = false)
-    Integer quantitySold;
+    private Integer quantitySold;
 
     @Column(name = "total_price", nullable = false)
-    Float totalPrice;
+    private Money totalPrice;
 
     Sale() {
 
     }
 
-    public Sale(Book book, Customer customer, LocalDate dateOfSale, Integer quantitySold, Float totalPrice) {
+    public Sale(Book book, Customer customer, LocalDate dateOfSale, Integer quantitySold, Money totalPrice) {
         this.book = book;
         this.customer = customer;
         this.dateOfSale = dateOfSale;
@@ -66,6 +95,12 @@ public class Sale {
         return customer.getCustomerID();
     }
 
+    public CustomerOrder getOrder() {
+        return order;
+    }
+    void setOrder(CustomerOrder order) {
+        this.order = order;
+    }
 
     public LocalDate getDateOfSale() {
         return dateOfSale;
@@ -81,10 +116,10 @@ public class Sale {
         this.quantitySold = quantitySold;
     }
 
-    public Float getTotalPrice() {
+    public Money getTotalPrice() {
         return totalPrice;
     }
-    public void setTotalPrice(Float totalPrice) {
+    public void setTotalPrice(Money totalPrice) {
         this.totalPrice = totalPrice;
     }
 }
@@ -0,0 +1,190 @@
+package org.example;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.cfg.AvailableSettings;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public class SaleImporter {
+    private static final int DEFAULT_BATCH_SIZE = 50;
+    private static final int DEFAULT_COMMIT_INTERVAL = 5000;
+
+    private final SessionFactory sessionFactory;
+    private final int batchSize;
+    private final int commitInterval;
+
+    public SaleImporter(SessionFactory sessionFactory) {
+        this(sessionFactory, configuredBatchSize(sessionFactory), DEFAULT_COMMIT_INTERVAL);
+    }
+
+    public SaleImporter(SessionFactory sessionFactory, int batchSize, int commitInterval) {
+        this.sessionFactory = sessionFactory;
+        this.batchSize = batchSize;
+        this.commitInterval = commitInterval;
+    }
+
+    // Imports Sales from CSV File: customer_id,book_id,date_of_sale,quantity_sold
+    public ImportResult importCsv(Path path) throws IOException {
+        try (Stream<String> lines = Files.lines(path)) {
+            Iterator<SaleRecord> records = lines
+                    .filter(line -> !line.isBlank())
+                    .filter(line -> !line.startsWith("customer_id"))
+                    .map(SaleRecord::fromCsv)
+                    .iterator();
+
+            return importSales(records);
+        }
+    }
+
+    // Imports Sales, Committing Every commitInterval Records
+    public ImportResult importSales(Iterator<SaleRecord> records) {
+        long start = System.nanoTime();
+        long importedSales = 0;
+
+        Map<Long, CatalogEntry> catalog = new HashMap<>();
+        List<SaleRecord> chunk = new ArrayList<>(commitInterval);
+
+        while (records.hasNext()) {
+            chunk.add(records.next());
+
+            if (chunk.size() == commitInterval) {
+                importedSales += importChunk(chunk, catalog, session -> { }, sale -> { });
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importedSales += importChunk(chunk, catalog, session -> { }, sale -> { });
+        }
+
+        return new ImportResult(importedSales, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Imports Sales in One Transaction at Current Prices, beforeCommit Runs in That Same Transaction. Returns the
+    // Committed Sales, Their Books Are Unloaded References
+    List<Sale> importBatch(List<SaleRecord> records, Consumer<Session> beforeCommit) {
+        List<Sale> imported = new ArrayList<>(records.size());
+        importChunk(records, new HashMap<>(), beforeCommit, imported::add);
+        return imported;
+    }
+
+    private int importChunk(List<SaleRecord> chunk, Map<Long, CatalogEntry> catalog, Consumer<Session> beforeCommit,
+                            Consumer<Sale> imported) {
+        Session session = null;
+        Transaction transaction = null;
+
+        try {
+            session = sessionFactory.openSession();
+            session.setJdbcBatchSize(batchSize);
+            transaction = session.beginTransaction();
+
+            loadMissingBooks(session, chunk, catalog);
+
+            Map<Long, Integer> soldQuantities = new TreeMap<>();
+            for (SaleRecord record : chunk) {
+                if (!catalog.containsKey(record.bookID())) {
+                    throw new IllegalArgumentException("Book with ID " + record.bookID() + " not found.");
+                }
+                soldQuantities.merge(record.bookID(), record.quantitySold(), Integer::sum);
+            }
+
+            // Reserved in Book ID Order So Concurrent Imports Lock Rows in the Same Order. Revenue Goes Under the
+            // Genre Read Under the Lock, the Cached Catalog's May Predate a Genre Change
+            Map<Long, String> genres = new HashMap<>();
+            for (Map.Entry<Long, Integer> entry : soldQuantities.entrySet()) {
+                genres.put(entry.getKey(), Inventory.reserve(session, entry.getKey(), entry.getValue()));
+            }
+
+            Map<GenreRevenueKey, long[]> genreRevenues = new HashMap<>();
+
+            int count = 0;
+            for (SaleRecord record : chunk) {
+                CatalogEntry book = catalog.get(record.bookID());
+                Money totalPrice = book.price().times(record.quantitySold());
+
+                Sale sale = new Sale(session.getReference(Book.class, record.bookID()),
+                                     session.getReference(Customer.class, record.customerID()),
+                                     record.dateOfSale(), record.quantitySold(), totalPrice);
+                session.persist(sale);
+                imported.accept(sale);
+
+                // Accumulated as Primitive Minor Units, No Boxing per Sale
+                long[] revenue = genreRevenues.computeIfAbsent(
+                        new GenreRevenueKey(genres.get(record.bookID()), record.dateOfSale()), key -> new long[2]);
+                revenue[0] += totalPrice.minorUnits();
+                revenue[1]++;
+
+                if (++count % batchSize == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+
+            session.flush();
+
+            // One Summary Update per Genre and Day Instead of One per Sale
+            for (Map.Entry<GenreRevenueKey, long[]> entry : genreRevenues.entrySet()) {
+                RevenueSummary.record(session, entry.getKey().genre(), entry.getKey().day(),
+                        Money.ofMinor(entry.getValue()[0]), entry.getValue()[1]);
+            }
+
+            beforeCommit.accept(session);
+            transaction.commit();
+            return count;
+        } finally {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
+    // Loads Prices of Books Not Seen in Previous Chunks with One Query
+    private void loadMissingBooks(Session session, List<SaleRecord> chunk, Map<Long, CatalogEntry> catalog) {
+        Set<Long> missingBookIDs = new HashSet<>();
+        for (SaleRecord record : chunk) {
+            if (!catalog.containsKey(record.bookID())) {
+                missingBookIDs.add(record.bookID());
+            }
+        }
+        if (missingBookIDs.isEmpty()) {
+            return;
+        }
+
+        String jpql = "SELECT b.bookID, b.price FROM Book b WHERE b.bookID IN :bookIDs";
+        List<Object[]> resultList = session.createQuery(jpql, Object[].class)
+                .setParameter("bookIDs", missingBookIDs)
+                .getResultList();
+
+        for (Object[] row : resultList) {
+            catalog.put((Long) row[0], new CatalogEntry((Money) row[1]));
+        }
+    }
+
+    private static int configuredBatchSize(SessionFactory sessionFactory) {
+        Object batchSize = sessionFactory.getProperties().get(AvailableSettings.STATEMENT_BATCH_SIZE);
+        return batchSize != null ? Integer.parseInt(batchSize.toString()) : DEFAULT_BATCH_SIZE;
+    }
+
+    private record CatalogEntry(Money price) {
+    }
+
+    private record GenreRevenueKey(String genre, LocalDate day) {
+    }
+}
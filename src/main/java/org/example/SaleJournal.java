@@ -0,0 +1,537 @@
+package org.example;
+
+import org.hibernate.Session;
+import org.hibernate.exception.ConstraintViolationException;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32C;
+
+// Write-Behind Sale Entry: Sales Are Appended to a Memory-Mapped Journal and Acknowledged Right Away, a Background
+// Writer Moves Them into the Sales Table in Group-Committed Batches Together with the Journal Checkpoint.
+// The Journal Is a Ring of Fixed-Size Entries, a Slot Is Reused Only After Its Sale Was Committed, and Appends Wait
+// Up to bookstore.journal.append_timeout_millis for a Free Slot. Entries Survive an Application Crash at Once and
+// a Machine Crash After the Next Force, Every bookstore.journal.force_interval_millis, 0 Forces on Every Append
+public class SaleJournal implements SaleJournalMXBean, AutoCloseable {
+    public static final String PATH = "bookstore.journal.path";
+    public static final String CAPACITY = "bookstore.journal.capacity";
+    public static final String BATCH_SIZE = "bookstore.journal.batch_size";
+    public static final String FORCE_INTERVAL_MILLIS = "bookstore.journal.force_interval_millis";
+    public static final String APPEND_TIMEOUT_MILLIS = "bookstore.journal.append_timeout_millis";
+
+    private static final Logger logger = Logger.getLogger("org.example.journal");
+    // Sequence, Customer ID, Book ID, Quantity, Epoch Day, Accepted At, CRC-32C of the Preceding Bytes, Padding
+    private static final int ENTRY_BYTES = 48;
+    private static final int CHECKSUMMED_BYTES = 40;
+    private static final long RETRY_DELAY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final BookstoreService service;
+    private final SaleImporter importer;
+    private final String name;
+    private final int capacity;
+    private final int batchSize;
+    private final long forceIntervalMillis;
+    private final long appendTimeoutNanos;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer journal;
+    private final byte[] entryBytes = new byte[ENTRY_BYTES];
+    private final CRC32C checksum = new CRC32C();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final ArrayDeque<JournalEntry> pending = new ArrayDeque<>();
+    private List<JournalEntry> inFlight = List.of();
+    private long appendedSequence;
+    private long committedSequence;
+    private boolean dirty;
+    private boolean closing;
+
+    private final LongAdder committedSales = new LongAdder();
+    private final LongAdder rejectedSales = new LongAdder();
+    private final LongAdder groupCommits = new LongAdder();
+    private final LongAdder backpressureWaits = new LongAdder();
+
+    // Called by the Writer with Each Batch of Sales Right After Its Commit
+    private volatile Consumer<List<Sale>> commitListener = sales -> { };
+
+    private Thread writer;
+    private ScheduledExecutorService forcer;
+    private ObjectName objectName;
+
+    // Opens or Creates the Journal, Sales Not Yet in the Database Are Queued Again for the Writer
+    public SaleJournal(BookstoreService service, Path file, int capacity, int batchSize, long forceIntervalMillis,
+                       long appendTimeoutMillis) throws IOException {
+        if (capacity <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Journal capacity and batch size must be positive.");
+        }
+        this.service = service;
+        this.importer = new SaleImporter(service.getSessionFactory());
+        this.name = file.getFileName().toString();
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.forceIntervalMillis = forceIntervalMillis;
+        this.appendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(appendTimeoutMillis);
+
+        long journalBytes = (long) capacity * ENTRY_BYTES;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() != 0 && channel.size() != journalBytes) {
+                throw new IllegalStateException("Journal " + file + " holds " + channel.size() / ENTRY_BYTES +
+                        " entries, it must be drained before changing " + CAPACITY + ".");
+            }
+            this.journal = channel.map(FileChannel.MapMode.READ_WRITE, 0, journalBytes);
+            recover();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Journal Configured in bookstore.journal.path with Its Writer Running, Null When Write-Behind Is Off
+    public static SaleJournal fromSettings(BookstoreService service) throws IOException {
+        Map<String, Object> properties = service.getSessionFactory().getProperties();
+        Object path = properties.get(PATH);
+        if (path == null || path.toString().isBlank()) {
+            return null;
+        }
+
+        return new SaleJournal(service, Path.of(path.toString().trim()),
+                intSetting(properties, CAPACITY, 65536), intSetting(properties, BATCH_SIZE, 500),
+                intSetting(properties, FORCE_INTERVAL_MILLIS, 10), intSetting(properties, APPEND_TIMEOUT_MILLIS, 1000))
+                .start();
+    }
+
+    // Lets In-Memory Views Pick Up Journaled Sales Once They Are in the Database, Replayed Ones Included
+    public void onCommit(Consumer<List<Sale>> listener) {
+        commitListener = listener;
+    }
+
+    // Starts the Writer and the Periodic Force, Registers the Lag Metrics over JMX
+    public SaleJournal start() {
+        writer = Thread.ofPlatform().daemon().name("sale-journal-writer").start(this::drain);
+        if (forceIntervalMillis > 0) {
+            forcer = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().daemon().name("sale-journal-force").factory());
+            forcer.scheduleWithFixedDelay(this::force, forceIntervalMillis, forceIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+
+        try {
+            objectName = new ObjectName("org.example:type=SaleJournal,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        } catch (JMException e) {
+            objectName = null;
+        }
+        return this;
+    }
+
+    // Accepts Sale Without Waiting for the Database, Returns Its Journal Sequence.
+    // Unknown Books or Customers and Missing Stock Are Found Only When the Writer Reaches the Sale
+    public long append(Long customerID, Long bookID, int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Books count must be positive.");
+        }
+
+        lock.lock();
+        try {
+            long remainingNanos = appendTimeoutNanos;
+            boolean waited = false;
+            while (!closing && appendedSequence + 1 - committedSequence > capacity) {
+                if (!waited) {
+                    backpressureWaits.increment();
+                    waited = true;
+                }
+                if (remainingNanos <= 0) {
+                    throw new IllegalStateException("Sale journal is full, " + (appendedSequence - committedSequence) +
+                            " sales are waiting for the database.");
+                }
+                remainingNanos = notFull.awaitNanos(remainingNanos);
+            }
+            if (closing) {
+                throw new IllegalStateException("Sale journal is closed.");
+            }
+
+            JournalEntry entry = new JournalEntry(appendedSequence + 1, customerID, bookID, count, LocalDate.now(),
+                    System.currentTimeMillis());
+            int offset = write(entry);
+            appendedSequence = entry.sequence();
+            pending.add(entry);
+            notEmpty.signal();
+
+            if (forceIntervalMillis > 0) {
+                dirty = true;
+            } else {
+                journal.force(offset, ENTRY_BYTES);
+            }
+            return entry.sequence();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for room in the sale journal.", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Waits Until Every Appended Sale Was Written or Rejected
+    public boolean awaitDrained(long timeout, TimeUnit unit) throws InterruptedException {
+        lock.lock();
+        try {
+            long remainingNanos = unit.toNanos(timeout);
+            while (committedSequence < appendedSequence) {
+                if (remainingNanos <= 0) {
+                    return false;
+                }
+                remainingNanos = notFull.awaitNanos(remainingNanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long getAppendedSequence() {
+        lock.lock();
+        try {
+            return appendedSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long getCommittedSequence() {
+        lock.lock();
+        try {
+            return committedSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long getPendingSales() {
+        lock.lock();
+        try {
+            return pending.size() + inFlight.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Age of the Oldest Sale Not Yet in the Database
+    @Override
+    public long getLagMillis() {
+        lock.lock();
+        try {
+            JournalEntry oldest = !inFlight.isEmpty() ? inFlight.getFirst() : pending.peek();
+            return oldest != null ? Math.max(0, System.currentTimeMillis() - oldest.acceptedAtMillis()) : 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long getCommittedSales() {
+        return committedSales.sum();
+    }
+
+    @Override
+    public long getRejectedSales() {
+        return rejectedSales.sum();
+    }
+
+    @Override
+    public long getGroupCommits() {
+        return groupCommits.sum();
+    }
+
+    @Override
+    public long getBackpressureWaits() {
+        return backpressureWaits.sum();
+    }
+
+    // Prints Journal Position, Lag and Writer Counters
+    public void print(PrintStream out) {
+        out.printf("Sale Journal: %s, Appended: %d, Committed: %d, Pending: %d, Lag: %d ms%n",
+                name, getAppendedSequence(), getCommittedSequence(), getPendingSales(), getLagMillis());
+        out.printf("Journaled Sales Written: %d, Rejected: %d, Group Commits: %d, Backpressure Waits: %d%n",
+                getCommittedSales(), getRejectedSales(), getGroupCommits(), getBackpressureWaits());
+    }
+
+    // Writer Finishes Queued Sales First, Whatever It Cannot Write Stays in the Journal for the Next Start
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closing = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            if (writer != null) {
+                writer.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (forcer != null) {
+                forcer.shutdownNow();
+            }
+            if (objectName != null) {
+                try {
+                    ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+                } catch (JMException e) {
+                    // Already Gone
+                }
+            }
+            journal.force();
+            channel.close();
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            List<JournalEntry> batch;
+            lock.lock();
+            try {
+                while (pending.isEmpty() && !closing) {
+                    notEmpty.await();
+                }
+                if (pending.isEmpty()) {
+                    return;
+                }
+
+                batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+                while (!pending.isEmpty() && batch.size() < batchSize) {
+                    batch.add(pending.poll());
+                }
+                inFlight = batch;
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            if (!commit(batch)) {
+                return;
+            }
+
+            lock.lock();
+            try {
+                committedSequence = batch.getLast().sequence();
+                inFlight = List.of();
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Sales Are Already Committed, a Failing Listener Must Not Make the Writer Write Them Again
+    private void publish(List<Sale> sales) {
+        try {
+            commitListener.accept(sales);
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Could not publish " + sales.size() + " committed journal sales.", e);
+        }
+    }
+
+    // Writes Batch in One Transaction, Retrying While the Database Is Unavailable. False When Closed Meanwhile
+    private boolean commit(List<JournalEntry> batch) {
+        while (true) {
+            try {
+                List<Sale> sales = importer.importBatch(batch.stream().map(JournalEntry::toSaleRecord).toList(),
+                        session -> checkpoint(session, batch.getLast().sequence()));
+                committedSales.add(batch.size());
+                groupCommits.increment();
+                service.getReadRouter().recordWrite();
+                publish(sales);
+                return true;
+            } catch (RuntimeException e) {
+                if (isRejection(e)) {
+                    if (batch.size() > 1) {
+                        // One Bad Sale Must Not Hold Back the Others, They Are Retried One by One
+                        for (JournalEntry entry : batch) {
+                            if (!commit(List.of(entry))) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }
+                    if (reject(batch.getFirst(), e)) {
+                        return true;
+                    }
+                } else {
+                    logger.log(Level.WARNING, "Could not write journaled sales, retrying.", e);
+                }
+            }
+
+            if (!awaitRetry()) {
+                return false;
+            }
+        }
+    }
+
+    // Skips Sale the Database Refuses, Only the Checkpoint Moves Past It
+    private boolean reject(JournalEntry entry, RuntimeException cause) {
+        try {
+            service.getSessionFactory().inTransaction(session -> checkpoint(session, entry.sequence()));
+            rejectedSales.increment();
+            logger.warning("Rejected journaled sale " + entry.sequence() + " of book " + entry.bookID() +
+                    " to customer " + entry.customerID() + ": " + cause.getMessage());
+            return true;
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Could not skip rejected journaled sale " + entry.sequence() + ", retrying.", e);
+            return false;
+        }
+    }
+
+    // Missing Stock, Unknown Book (Thrown by the Importer Itself) or a Broken Constraint Such as an Unknown Customer
+    private static boolean isRejection(RuntimeException e) {
+        if (e instanceof IllegalArgumentException) {
+            return true;
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof InsufficientStockException || cause instanceof ConstraintViolationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean awaitRetry() {
+        lock.lock();
+        try {
+            if (!closing) {
+                notEmpty.awaitNanos(RETRY_DELAY_NANOS);
+            }
+            return !closing;
+        } catch (InterruptedException e) {
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void checkpoint(Session session, long sequence) {
+        SaleJournalCheckpoint checkpoint = session.get(SaleJournalCheckpoint.class, name);
+        if (checkpoint == null) {
+            session.persist(new SaleJournalCheckpoint(name, sequence));
+        } else {
+            checkpoint.setLastSequence(sequence);
+        }
+    }
+
+    private void force() {
+        lock.lock();
+        try {
+            if (!dirty) {
+                return;
+            }
+            dirty = false;
+        } finally {
+            lock.unlock();
+        }
+        journal.force();
+    }
+
+    // Queues Every Intact Entry Past the Database Checkpoint, Torn Entries Fail Their Checksum and Are Ignored
+    private void recover() {
+        try (Session session = service.getSessionFactory().openSession()) {
+            SaleJournalCheckpoint checkpoint = session.get(SaleJournalCheckpoint.class, name);
+            committedSequence = checkpoint != null ? checkpoint.getLastSequence() : 0;
+        }
+
+        List<JournalEntry> recovered = new ArrayList<>();
+        for (int slot = 0; slot < capacity; slot++) {
+            JournalEntry entry = read(slot);
+            if (entry != null && entry.sequence() > committedSequence) {
+                recovered.add(entry);
+            }
+        }
+        recovered.sort(Comparator.comparingLong(JournalEntry::sequence));
+
+        pending.addAll(recovered);
+        appendedSequence = recovered.isEmpty() ? committedSequence : recovered.getLast().sequence();
+        if (!recovered.isEmpty()) {
+            logger.info("Replaying " + recovered.size() + " journaled sales after sequence " + committedSequence + ".");
+        }
+    }
+
+    private int write(JournalEntry entry) {
+        ByteBuffer buffer = ByteBuffer.wrap(entryBytes)
+                .putLong(entry.sequence())
+                .putLong(entry.customerID())
+                .putLong(entry.bookID())
+                .putInt(entry.quantity())
+                .putInt((int) entry.dateOfSale().toEpochDay())
+                .putLong(entry.acceptedAtMillis());
+        checksum.reset();
+        checksum.update(entryBytes, 0, CHECKSUMMED_BYTES);
+        buffer.putInt((int) checksum.getValue()).putInt(0);
+
+        int offset = offset(entry.sequence());
+        journal.put(offset, entryBytes);
+        return offset;
+    }
+
+    private JournalEntry read(int slot) {
+        byte[] bytes = new byte[ENTRY_BYTES];
+        journal.get(slot * ENTRY_BYTES, bytes);
+
+        checksum.reset();
+        checksum.update(bytes, 0, CHECKSUMMED_BYTES);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long sequence = buffer.getLong();
+        if (sequence <= 0 || buffer.getInt(CHECKSUMMED_BYTES) != (int) checksum.getValue()) {
+            return null;
+        }
+
+        return new JournalEntry(sequence, buffer.getLong(), buffer.getLong(), buffer.getInt(),
+                LocalDate.ofEpochDay(buffer.getInt()), buffer.getLong());
+    }
+
+    private int offset(long sequence) {
+        return (int) (sequence % capacity) * ENTRY_BYTES;
+    }
+
+    private static int intSetting(Map<String, Object> properties, String name, int defaultValue) {
+        Object value = properties.get(name);
+        return value != null && !value.toString().isBlank() ? Integer.parseInt(value.toString().trim()) : defaultValue;
+    }
+
+    private record JournalEntry(long sequence, Long customerID, Long bookID, int quantity, LocalDate dateOfSale,
+                                long acceptedAtMillis) {
+
+        SaleRecord toSaleRecord() {
+            return new SaleRecord(customerID, bookID, dateOfSale, quantity);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.example;
+
+import jakarta.persistence.*;
+
+// Last Journal Sequence Written to the Sales Table, Updated in the Same Transaction as the Sales Themselves
+@Entity
+@Table(name = "sale_journal_checkpoints")
+public class SaleJournalCheckpoint {
+    @Id
+    @Column(name = "journal_name", length = 100)
+    private String journalName;
+
+    @Column(name = "last_sequence", nullable = false)
+    private Long lastSequence;
+
+    SaleJournalCheckpoint() {
+
+    }
+
+    public SaleJournalCheckpoint(String journalName, Long lastSequence) {
+        this.journalName = journalName;
+        this.lastSequence = lastSequence;
+    }
+
+    public String getJournalName() {
+        return journalName;
+    }
+
+    public Long getLastSequence() {
+        return lastSequence;
+    }
+    public void setLastSequence(Long lastSequence) {
+        this.lastSequence = lastSequence;
+    }
+}
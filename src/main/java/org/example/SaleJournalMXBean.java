@@ -0,0 +1,19 @@
+package org.example;
+
+public interface SaleJournalMXBean {
+    long getAppendedSequence();
+
+    long getCommittedSequence();
+
+    long getPendingSales();
+
+    long getLagMillis();
+
+    long getCommittedSales();
+
+    long getRejectedSales();
+
+    long getGroupCommits();
+
+    long getBackpressureWaits();
+}
@@ -0,0 +1,28 @@
+package org.example;
+
+import java.time.LocalDate;
+
+public record SaleRecord(Long customerID, Long bookID, LocalDate dateOfSale, int quantitySold) {
+
+    // Stock Reservation Only Guards Against Overselling, a Negative Quantity Would Add Stock and Negative Revenue
+    public SaleRecord {
+        if (quantitySold <= 0) {
+            throw new IllegalArgumentException("Books count must be positive, found " + quantitySold + ".");
+        }
+    }
+
+    // Parses CSV Line: customer_id,book_id,date_of_sale,quantity_sold
+    public static SaleRecord fromCsv(String line) {
+        String[] fields = line.split(",");
+        if (fields.length != 4) {
+            throw new IllegalArgumentException("Expected 4 fields but found " + fields.length + ": " + line);
+        }
+
+        return new SaleRecord(
+                Long.parseLong(fields[0].trim()),
+                Long.parseLong(fields[1].trim()),
+                LocalDate.parse(fields[2].trim()),
+                Integer.parseInt(fields[3].trim())
+        );
+    }
+}
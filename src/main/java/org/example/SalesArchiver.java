@@ -0,0 +1,330 @@
+package org.example;
+
+import org.hibernate.Session;
+import org.hibernate.Transaction;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Moves Sales Older Than bookstore.archive.retention_months Whole Months into sales_archive, One Row per Book and Day,
+// and into customer_sales_archive, One Row per Customer and Day.
+// On a Partitioned PostgreSQL sales Table Archived Months Are Dropped as Partitions Instead of Deleted Row by Row,
+// and Partitions for the Next bookstore.partitions.months_ahead Months Are Created Before Their Sales Arrive.
+// Genre Revenue Summaries Already Count Archived Sales, Aggregates over Raw Sales Add the Archive In.
+// Runs Every bookstore.archive.interval_hours, 0 Leaves It to the Menu
+public class SalesArchiver implements AutoCloseable {
+    public static final String RETENTION_MONTHS = "bookstore.archive.retention_months";
+    public static final String INTERVAL_HOURS = "bookstore.archive.interval_hours";
+    public static final String MONTHS_AHEAD = "bookstore.partitions.months_ahead";
+    private static final int DEFAULT_RETENTION_MONTHS = 24;
+    private static final int DEFAULT_MONTHS_AHEAD = 3;
+    private static final Logger logger = Logger.getLogger("org.example.archive");
+
+    private static final String SALES_TABLE = "sales";
+    private static final String ARCHIVE_TABLE = "sales_archive";
+    private static final String CUSTOMER_ARCHIVE_TABLE = "customer_sales_archive";
+    private static final Pattern MONTH_PARTITION = Pattern.compile("sales_(\\d{4})_(\\d{2})");
+
+    private static final String ARCHIVE_UPSERT = "ON CONFLICT (book_id, sale_day) DO UPDATE SET " +
+            "quantity_sold = sales_archive.quantity_sold + EXCLUDED.quantity_sold, " +
+            "revenue = sales_archive.revenue + EXCLUDED.revenue, " +
+            "sales_count = sales_archive.sales_count + EXCLUDED.sales_count";
+
+    private static final String CUSTOMER_ARCHIVE_UPSERT = "ON CONFLICT (customer_id, sale_day) DO UPDATE SET " +
+            "purchases = customer_sales_archive.purchases + EXCLUDED.purchases, " +
+            "books = customer_sales_archive.books + EXCLUDED.books, " +
+            "spend = customer_sales_archive.spend + EXCLUDED.spend";
+
+    // Whole Month Partition, Locked Against Writes Before It Is Read
+    private static final String ARCHIVE_PARTITION = "INSERT INTO sales_archive (book_id, sale_day, quantity_sold, revenue, sales_count) " +
+            "SELECT book_id, date_of_sale, SUM(quantity_sold), SUM(total_price), COUNT(*) FROM %s " +
+            "GROUP BY book_id, date_of_sale " + ARCHIVE_UPSERT;
+
+    private static final String ARCHIVE_CUSTOMERS_PARTITION = "INSERT INTO customer_sales_archive (customer_id, sale_day, purchases, books, spend) " +
+            "SELECT customer_id, date_of_sale, COUNT(*), SUM(quantity_sold), SUM(total_price) FROM %s " +
+            "GROUP BY customer_id, date_of_sale " + CUSTOMER_ARCHIVE_UPSERT;
+
+    // Archives Exactly the Rows It Deletes, So a Sale Committed Meanwhile Is Either Moved Too or Left for the Next Run.
+    // Only the Deleted Rows Are Locked, Sales of Other Months Keep Flowing
+    private static final String MOVE_POSTGRESQL = "WITH moved AS (" +
+            "DELETE FROM %s WHERE date_of_sale < :cutoff RETURNING book_id, customer_id, date_of_sale, quantity_sold, total_price), " +
+            "archived AS (INSERT INTO sales_archive (book_id, sale_day, quantity_sold, revenue, sales_count) " +
+            "SELECT book_id, date_of_sale, SUM(quantity_sold), SUM(total_price), COUNT(*) FROM moved " +
+            "GROUP BY book_id, date_of_sale " + ARCHIVE_UPSERT + " RETURNING 1), " +
+            "customers_archived AS (INSERT INTO customer_sales_archive (customer_id, sale_day, purchases, books, spend) " +
+            "SELECT customer_id, date_of_sale, COUNT(*), SUM(quantity_sold), SUM(total_price) FROM moved " +
+            "GROUP BY customer_id, date_of_sale " + CUSTOMER_ARCHIVE_UPSERT + ") " +
+            "SELECT (SELECT COUNT(*) FROM moved) AS sales, (SELECT COUNT(*) FROM archived) AS archive_rows";
+
+    private static final String ARCHIVE_STANDARD = "MERGE INTO sales_archive a " +
+            "USING (SELECT book_id, date_of_sale AS sale_day, SUM(quantity_sold) AS quantity_sold, " +
+            "SUM(total_price) AS revenue, COUNT(*) AS sales_count FROM sales " +
+            "WHERE date_of_sale < :cutoff GROUP BY book_id, date_of_sale) v " +
+            "ON a.book_id = v.book_id AND a.sale_day = v.sale_day " +
+            "WHEN MATCHED THEN UPDATE SET quantity_sold = a.quantity_sold + v.quantity_sold, " +
+            "revenue = a.revenue + v.revenue, sales_count = a.sales_count + v.sales_count " +
+            "WHEN NOT MATCHED THEN INSERT (book_id, sale_day, quantity_sold, revenue, sales_count) " +
+            "VALUES (v.book_id, v.sale_day, v.quantity_sold, v.revenue, v.sales_count)";
+
+    private static final String ARCHIVE_CUSTOMERS_STANDARD = "MERGE INTO customer_sales_archive a " +
+            "USING (SELECT customer_id, date_of_sale AS sale_day, COUNT(*) AS purchases, SUM(quantity_sold) AS books, " +
+            "SUM(total_price) AS spend FROM sales " +
+            "WHERE date_of_sale < :cutoff GROUP BY customer_id, date_of_sale) v " +
+            "ON a.customer_id = v.customer_id AND a.sale_day = v.sale_day " +
+            "WHEN MATCHED THEN UPDATE SET purchases = a.purchases + v.purchases, " +
+            "books = a.books + v.books, spend = a.spend + v.spend " +
+            "WHEN NOT MATCHED THEN INSERT (customer_id, sale_day, purchases, books, spend) " +
+            "VALUES (v.customer_id, v.sale_day, v.purchases, v.books, v.spend)";
+
+    private static final String IS_PARTITIONED = "SELECT COUNT(*) FROM pg_partitioned_table WHERE partrelid = to_regclass('sales')";
+
+    private static final String DEFAULT_PARTITION = "SELECT c.relname FROM pg_partitioned_table p " +
+            "JOIN pg_class c ON c.oid = p.partdefid WHERE p.partrelid = to_regclass('sales')";
+
+    private static final String PARTITIONS = "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE i.inhparent = to_regclass('sales')";
+
+    private final BookstoreService service;
+    private final int retentionMonths;
+    private final int monthsAhead;
+    private final ScheduledExecutorService scheduler;
+
+    public SalesArchiver(BookstoreService service) {
+        this(service, setting(service, RETENTION_MONTHS, DEFAULT_RETENTION_MONTHS),
+                setting(service, MONTHS_AHEAD, DEFAULT_MONTHS_AHEAD), setting(service, INTERVAL_HOURS, 0));
+    }
+
+    public SalesArchiver(BookstoreService service, int retentionMonths, int monthsAhead, long intervalHours) {
+        if (retentionMonths < 1) {
+            throw new IllegalArgumentException("At least the current month must be kept.");
+        }
+        this.service = service;
+        this.retentionMonths = retentionMonths;
+        this.monthsAhead = monthsAhead;
+
+        if (intervalHours > 0) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().daemon().name("sales-archiver").factory());
+            scheduler.scheduleWithFixedDelay(this::runScheduled, intervalHours, intervalHours, TimeUnit.HOURS);
+        } else {
+            scheduler = null;
+        }
+    }
+
+    public int getRetentionMonths() {
+        return retentionMonths;
+    }
+
+    // Archives Sales Older Than the Configured Retention Window
+    public ArchiveResult archive() {
+        return archive(retentionMonths);
+    }
+
+    // Keeps This Month and the months - 1 Before It Row by Row, Archives Everything Older
+    public ArchiveResult archive(int months) {
+        if (months < 1) {
+            throw new IllegalArgumentException("At least the current month must be kept.");
+        }
+        return archiveBefore(YearMonth.now().minusMonths(months - 1).atDay(1));
+    }
+
+    // Archives Sales Dated Before the First Day of cutoff's Month, Undated Sales Are Never Archived
+    public ArchiveResult archiveBefore(LocalDate cutoff) {
+        LocalDate monthStart = cutoff.withDayOfMonth(1);
+        long start = System.nanoTime();
+
+        Session session = null;
+        Transaction transaction = null;
+
+        try {
+            session = service.getSessionFactory().openSession();
+            transaction = session.beginTransaction();
+
+            ArchiveResult result = isPostgreSQL(session) ? archivePostgreSQL(session, monthStart, start)
+                    : archiveStandard(session, monthStart, start);
+
+            transaction.commit();
+            if (result.archivedSales() > 0) {
+                service.getReadRouter().recordWrite();
+            }
+            return result;
+        } finally {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
+    // Month Partitions Past the Cutoff Are Locked Against Writes, Archived and Dropped; Later Months Are Not Locked.
+    // Remaining Rows, in the Default Partition or an Unpartitioned Table, Are Moved Row by Row
+    private static ArchiveResult archivePostgreSQL(Session session, LocalDate monthStart, long start) {
+        long archivedSales = 0;
+        long archiveRows = 0;
+        String remainingRows = SALES_TABLE;
+
+        List<String> partitions = List.of();
+        if (isPartitioned(session)) {
+            partitions = monthPartitionsBefore(session, YearMonth.from(monthStart));
+            remainingRows = session.createNativeQuery(DEFAULT_PARTITION, String.class).getResultList().stream()
+                    .findFirst()
+                    .map(partition -> "\"" + partition + "\"")
+                    .orElse(null);
+        }
+
+        if (!partitions.isEmpty()) {
+            session.createNativeMutationQuery("LOCK TABLE " + String.join(", ", partitions) + " IN SHARE MODE").executeUpdate();
+            for (String partition : partitions) {
+                archivedSales += session.createNativeQuery("SELECT COUNT(*) FROM " + partition, Long.class).getSingleResult();
+                archiveRows += session.createNativeQuery(ARCHIVE_PARTITION.formatted(partition))
+                        .addSynchronizedQuerySpace(ARCHIVE_TABLE)
+                        .executeUpdate();
+                session.createNativeQuery(ARCHIVE_CUSTOMERS_PARTITION.formatted(partition))
+                        .addSynchronizedQuerySpace(CUSTOMER_ARCHIVE_TABLE)
+                        .executeUpdate();
+            }
+        }
+
+        if (remainingRows != null) {
+            Object[] moved = session.createNativeQuery(MOVE_POSTGRESQL.formatted(remainingRows), Object[].class)
+                    .addScalar("sales", Long.class)
+                    .addScalar("archive_rows", Long.class)
+                    .addSynchronizedQuerySpace(SALES_TABLE)
+                    .addSynchronizedQuerySpace(ARCHIVE_TABLE)
+                    .addSynchronizedQuerySpace(CUSTOMER_ARCHIVE_TABLE)
+                    .setParameter("cutoff", monthStart)
+                    .getSingleResult();
+            archivedSales += (Long) moved[0];
+            archiveRows += (Long) moved[1];
+        }
+
+        // Last, Dropping a Partition Locks All of sales Until Commit
+        for (String partition : partitions) {
+            session.createNativeQuery("DROP TABLE " + partition)
+                    .addSynchronizedQuerySpace(SALES_TABLE)
+                    .executeUpdate();
+        }
+
+        return new ArchiveResult(monthStart, archivedSales, archiveRows, partitions.size(), elapsedMillis(start));
+    }
+
+    // Other Databases, e.g. the Embedded H2 of the Checks, Lack DELETE ... RETURNING: Aggregate Then Delete, So a Sale
+    // Committed in Between into an Archived Month Would Be Deleted Unarchived
+    private static ArchiveResult archiveStandard(Session session, LocalDate monthStart, long start) {
+        long archivedSales = session.createNativeQuery("SELECT COUNT(*) FROM sales WHERE date_of_sale < :cutoff", Long.class)
+                .setParameter("cutoff", monthStart)
+                .getSingleResult();
+        if (archivedSales == 0) {
+            return new ArchiveResult(monthStart, 0, 0, 0, elapsedMillis(start));
+        }
+
+        int archiveRows = session.createNativeQuery(ARCHIVE_STANDARD)
+                .addSynchronizedQuerySpace(ARCHIVE_TABLE)
+                .setParameter("cutoff", monthStart)
+                .executeUpdate();
+
+        session.createNativeQuery(ARCHIVE_CUSTOMERS_STANDARD)
+                .addSynchronizedQuerySpace(CUSTOMER_ARCHIVE_TABLE)
+                .setParameter("cutoff", monthStart)
+                .executeUpdate();
+
+        session.createNativeQuery("DELETE FROM sales WHERE date_of_sale < :cutoff")
+                .addSynchronizedQuerySpace(SALES_TABLE)
+                .setParameter("cutoff", monthStart)
+                .executeUpdate();
+
+        return new ArchiveResult(monthStart, archivedSales, archiveRows, 0, elapsedMillis(start));
+    }
+
+    // Creates Partitions from This Month Through monthsAhead Months Ahead, None Unless sales Is Partitioned
+    public int createUpcomingPartitions() {
+        Session session = null;
+        Transaction transaction = null;
+
+        try {
+            session = service.getSessionFactory().openSession();
+            transaction = session.beginTransaction();
+
+            int created = 0;
+            if (isPostgreSQL(session) && isPartitioned(session)) {
+                LocalDate thisMonth = YearMonth.now().atDay(1);
+                created = session.createNativeQuery("SELECT create_sales_partitions(:from, :to)", Integer.class)
+                        .setParameter("from", thisMonth)
+                        .setParameter("to", thisMonth.plusMonths(monthsAhead))
+                        .getSingleResult();
+            }
+
+            transaction.commit();
+            return created;
+        } finally {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
+    // Only Month Partitions Named by create_sales_partitions, Never the Default One
+    private static List<String> monthPartitionsBefore(Session session, YearMonth cutoff) {
+        return session.createNativeQuery(PARTITIONS, String.class)
+                .getResultList()
+                .stream()
+                .filter(partition -> {
+                    Matcher matcher = MONTH_PARTITION.matcher(partition);
+                    return matcher.matches()
+                            && YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))).isBefore(cutoff);
+                })
+                .sorted()
+                .toList();
+    }
+
+    private static boolean isPartitioned(Session session) {
+        return session.createNativeQuery(IS_PARTITIONED, Long.class).getSingleResult() > 0;
+    }
+
+    private static boolean isPostgreSQL(Session session) {
+        return session.getSessionFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+    }
+
+    private void runScheduled() {
+        try {
+            int created = createUpcomingPartitions();
+            ArchiveResult result = archive();
+            logger.info(() -> "Created " + created + " sales partition(s), archived " + result.archivedSales()
+                    + " sales before " + result.cutoff() + " into " + result.archiveRows() + " archive row(s)");
+        } catch (RuntimeException e) {
+            // Next Run Tries Again, Nothing Was Committed
+            logger.log(Level.WARNING, "Archiving sales failed", e);
+        }
+    }
+
+    private static long elapsedMillis(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private static int setting(BookstoreService service, String name, int defaultValue) {
+        Object value = service.getSessionFactory().getProperties().get(name);
+        return value != null && !value.toString().isBlank() ? Integer.parseInt(value.toString()) : defaultValue;
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
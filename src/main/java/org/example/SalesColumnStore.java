@@ -0,0 +1,540 @@
+package org.example;
+
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.query.NativeQuery;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// In-Process Copy of Sales Joined with Books, One Primitive Array per Column.
+// Rows Hold a Book Code, Genre and Author Dictionary Codes Live per Book so a Genre Rename Touches One Slot per Book.
+// Per-Book and Per-Day Totals Are Kept Up to Date on Append, Whole-Table Genre and Author Reports and Daily Reports
+// Fold Those, Only Genre or Author Reports Within a Date Range Scan the Rows in Parallel from an Immutable Snapshot.
+// Sale IDs Are Not Commit-Ordered, So Refreshes Compare a Count, Revenue and Sale ID Sum per Day with the Database
+// and Reload the Days That Differ, Which Also Drops Archived and Deleted Sales
+public class SalesColumnStore {
+    public enum Dimension {
+        GENRE, AUTHOR, DAY
+    }
+
+    private static final int NO_DAY = Integer.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 1024;
+    // Rows per Fork-Join Leaf, Small Enough to Split Across Cores, Large Enough to Amortize Task Overhead
+    private static final int LEAF_ROWS = 1 << 16;
+    private static final int LOAD_FETCH_SIZE = 10_000;
+    private static final int DAYS_PER_LOAD = 500;
+
+    private static final String LOAD_BOOKS = "SELECT book_id, genre, author FROM books";
+    private static final String DAY_CHECKSUMS = "SELECT date_of_sale, COUNT(*) AS sales_count, SUM(total_price) AS revenue, " +
+            "SUM(sale_id) AS sale_ids FROM sales GROUP BY date_of_sale";
+    private static final String LOAD_SALES = "SELECT sale_id, book_id, total_price, quantity_sold, date_of_sale FROM sales";
+    private static final String LOAD_SALES_OF_DAYS = LOAD_SALES + " WHERE date_of_sale IN (:days)";
+    private static final String LOAD_UNDATED_SALES = LOAD_SALES + " WHERE date_of_sale IS NULL";
+
+    private final Map<Long, Integer> bookCodes = new HashMap<>();
+    private final Map<String, Integer> genreCodes = new HashMap<>();
+    private final Map<String, Integer> authorCodes = new HashMap<>();
+
+    private int[] saleColumn = new int[INITIAL_CAPACITY];
+    private int[] bookColumn = new int[INITIAL_CAPACITY];
+    private long[] revenueColumn = new long[INITIAL_CAPACITY];
+    private int[] quantityColumn = new int[INITIAL_CAPACITY];
+    private int[] dayColumn = new int[INITIAL_CAPACITY];
+    private int[] genreOfBook = new int[INITIAL_CAPACITY];
+    private int[] authorOfBook = new int[INITIAL_CAPACITY];
+    private String[] genreNames = new String[16];
+    private String[] authorNames = new String[16];
+    // Revenue, Quantity and Count per Book Code and per Day Since firstDay, Three Slots Each
+    private long[] bookTotals = new long[INITIAL_CAPACITY * 3];
+    private long[] dayTotals = new long[0];
+    private int firstDay;
+    private int rows;
+    // Sales Count, Revenue and Sum of Sale IDs per Day, NO_DAY for Undated Sales, Compared with the Database on Refresh
+    private final Map<Integer, long[]> dayChecksums = new HashMap<>();
+    // Sales Already Held, an Append Racing a Refresh That Loaded the Same Sale Is Dropped
+    private final BitSet saleIDs = new BitSet();
+    private Catalog catalog;
+
+    private volatile Snapshot snapshot = snapshot();
+
+    // Loads All Sales and Books, Caller Picks the Session Factory, e.g. a Read Replica
+    public static SalesColumnStore load(SessionFactory sessionFactory) {
+        SalesColumnStore store = new SalesColumnStore();
+        store.refresh(sessionFactory);
+        return store;
+    }
+
+    // Reloads Book Genres and Authors and Every Day Whose Sales Changed Since the Last Load, e.g. by an Import,
+    // a Late Commit or Archiving. A Lagging Replica Would Hide Recent Changes, Refreshes Should Read the Primary
+    public synchronized void refresh(SessionFactory sessionFactory) {
+        Session session = null;
+        Transaction transaction = null;
+
+        try {
+            session = sessionFactory.openSession();
+            // PostgreSQL Only Uses Cursor Fetching Inside a Transaction
+            transaction = session.beginTransaction();
+
+            List<Object[]> books = session.createNativeQuery(LOAD_BOOKS, Object[].class)
+                    .addScalar("book_id", Long.class)
+                    .addScalar("genre", String.class)
+                    .addScalar("author", String.class)
+                    .getResultList();
+            for (Object[] book : books) {
+                putBookRow((Long) book[0], (String) book[1], (String) book[2]);
+            }
+
+            Set<Integer> staleDays = staleDays(session);
+            if (!staleDays.isEmpty()) {
+                removeDays(staleDays);
+
+                if (rows == 0) {
+                    loadSales(session.createNativeQuery(LOAD_SALES, Object[].class));
+                } else {
+                    List<LocalDate> days = new ArrayList<>();
+                    for (int day : staleDays) {
+                        if (day == NO_DAY) {
+                            loadSales(session.createNativeQuery(LOAD_UNDATED_SALES, Object[].class));
+                        } else {
+                            days.add(LocalDate.ofEpochDay(day));
+                        }
+                    }
+                    for (int start = 0; start < days.size(); start += DAYS_PER_LOAD) {
+                        loadSales(session.createNativeQuery(LOAD_SALES_OF_DAYS, Object[].class)
+                                .setParameterList("days", days.subList(start, Math.min(start + DAYS_PER_LOAD, days.size()))));
+                    }
+                }
+            }
+
+            transaction.commit();
+            snapshot = snapshot();
+        } finally {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
+    // Days Whose Database Checksum Differs from the Store's, Including Days Only One Side Has
+    private Set<Integer> staleDays(Session session) {
+        List<Object[]> checksums = session.createNativeQuery(DAY_CHECKSUMS, Object[].class)
+                .addScalar("date_of_sale", LocalDate.class)
+                .addScalar("sales_count", Long.class)
+                .addScalar("revenue", Long.class)
+                .addScalar("sale_ids", Long.class)
+                .getResultList();
+
+        Set<Integer> staleDays = new HashSet<>(dayChecksums.keySet());
+        for (Object[] checksum : checksums) {
+            int day = checksum[0] != null ? (int) ((LocalDate) checksum[0]).toEpochDay() : NO_DAY;
+            long[] held = dayChecksums.get(day);
+            if (held != null && held[0] == (Long) checksum[1] && held[1] == (Long) checksum[2] && held[2] == (Long) checksum[3]) {
+                staleDays.remove(day);
+            } else {
+                staleDays.add(day);
+            }
+        }
+        return staleDays;
+    }
+
+    private void loadSales(NativeQuery<Object[]> query) {
+        try (ScrollableResults<Object[]> sales = query
+                .addScalar("sale_id", Long.class)
+                .addScalar("book_id", Long.class)
+                .addScalar("total_price", Long.class)
+                .addScalar("quantity_sold", Integer.class)
+                .addScalar("date_of_sale", LocalDate.class)
+                .setFetchSize(LOAD_FETCH_SIZE)
+                .setReadOnly(true)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (sales.next()) {
+                Object[] sale = sales.get();
+                appendRow((Long) sale[0], (Long) sale[1], (Long) sale[2], (Integer) sale[3], (LocalDate) sale[4]);
+            }
+        }
+    }
+
+    // Copies the Other Rows into New Arrays, Snapshots Taken Before Keep Reading the Old Ones
+    private void removeDays(Set<Integer> days) {
+        int capacity = Math.max(INITIAL_CAPACITY, rows);
+        int[] keptSales = new int[capacity];
+        int[] keptBooks = new int[capacity];
+        long[] keptRevenues = new long[capacity];
+        int[] keptQuantities = new int[capacity];
+        int[] keptDays = new int[capacity];
+
+        int kept = 0;
+        for (int row = 0; row < rows; row++) {
+            int day = dayColumn[row];
+            if (days.contains(day)) {
+                addTo(bookTotals, bookColumn[row] * 3, -revenueColumn[row], -quantityColumn[row], -1);
+                if (day != NO_DAY) {
+                    addTo(dayTotals, (day - firstDay) * 3, -revenueColumn[row], -quantityColumn[row], -1);
+                }
+                saleIDs.clear(saleColumn[row]);
+                continue;
+            }
+
+            keptSales[kept] = saleColumn[row];
+            keptBooks[kept] = bookColumn[row];
+            keptRevenues[kept] = revenueColumn[row];
+            keptQuantities[kept] = quantityColumn[row];
+            keptDays[kept] = day;
+            kept++;
+        }
+
+        saleColumn = keptSales;
+        bookColumn = keptBooks;
+        revenueColumn = keptRevenues;
+        quantityColumn = keptQuantities;
+        dayColumn = keptDays;
+        rows = kept;
+        dayChecksums.keySet().removeAll(days);
+    }
+
+    // Adds or Updates Book's Genre and Author
+    public synchronized void putBook(Long bookID, String genre, String author) {
+        putBookRow(bookID, genre, author);
+        snapshot = snapshot();
+    }
+
+    private void putBookRow(Long bookID, String genre, String author) {
+        Integer code = bookCodes.get(bookID);
+        if (code == null) {
+            code = bookCodes.size();
+            bookCodes.put(bookID, code);
+            if (code == genreOfBook.length) {
+                genreOfBook = Arrays.copyOf(genreOfBook, code * 2);
+                authorOfBook = Arrays.copyOf(authorOfBook, code * 2);
+                bookTotals = Arrays.copyOf(bookTotals, code * 2 * 3);
+            }
+        }
+
+        genreOfBook[code] = genreCode(genre);
+        authorOfBook[code] = authorCode(author);
+        catalog = null;
+    }
+
+    // Appends Sale Committed by handleNewSale or placeOrder Without Going Back to the Database
+    public synchronized void append(Sale sale) {
+        Book book = sale.getBook();
+        if (!bookCodes.containsKey(book.getBookID())) {
+            putBookRow(book.getBookID(), book.getGenre(), book.getAuthor());
+        }
+
+        appendRow(sale.getSaleID(), book.getBookID(), sale.getTotalPrice().minorUnits(),
+                sale.getQuantitySold(), sale.getDateOfSale());
+        snapshot = snapshot();
+    }
+
+    // Appends Sales Committed by the Sale Journal, Whose Books Are Unloaded References. False When a Sale's Book Is
+    // Not Known to the Store Yet, Such Sales Are Left for the Next Refresh
+    public synchronized boolean append(List<Sale> sales) {
+        boolean complete = true;
+        for (Sale sale : sales) {
+            Long bookID = sale.getBook().getBookID();
+            if (bookCodes.containsKey(bookID)) {
+                appendRow(sale.getSaleID(), bookID, sale.getTotalPrice().minorUnits(), sale.getQuantitySold(),
+                        sale.getDateOfSale());
+            } else {
+                complete = false;
+            }
+        }
+        snapshot = snapshot();
+        return complete;
+    }
+
+    // Appends Sale of a Book Already Known to the Store
+    public synchronized void append(Long saleID, Long bookID, long totalPriceMinorUnits, int quantitySold, LocalDate dateOfSale) {
+        appendRow(saleID, bookID, totalPriceMinorUnits, quantitySold, dateOfSale);
+        snapshot = snapshot();
+    }
+
+    private void appendRow(Long saleID, Long bookID, long totalPriceMinorUnits, int quantitySold, LocalDate dateOfSale) {
+        Integer bookCode = bookCodes.get(bookID);
+        if (bookCode == null) {
+            throw new IllegalArgumentException("Book with ID " + bookID + " not found.");
+        }
+        // Sale IDs Come from a Sequence, Far Below the Range a BitSet Can Hold
+        int sale = Math.toIntExact(saleID);
+        if (saleIDs.get(sale)) {
+            return;
+        }
+        saleIDs.set(sale);
+
+        if (rows == bookColumn.length) {
+            int capacity = rows * 2;
+            saleColumn = Arrays.copyOf(saleColumn, capacity);
+            bookColumn = Arrays.copyOf(bookColumn, capacity);
+            revenueColumn = Arrays.copyOf(revenueColumn, capacity);
+            quantityColumn = Arrays.copyOf(quantityColumn, capacity);
+            dayColumn = Arrays.copyOf(dayColumn, capacity);
+        }
+
+        saleColumn[rows] = sale;
+        bookColumn[rows] = bookCode;
+        revenueColumn[rows] = totalPriceMinorUnits;
+        quantityColumn[rows] = quantitySold;
+        int day = dateOfSale != null ? (int) dateOfSale.toEpochDay() : NO_DAY;
+        dayColumn[rows] = day;
+        rows++;
+
+        addTo(bookTotals, bookCode * 3, totalPriceMinorUnits, quantitySold, 1);
+        if (day != NO_DAY) {
+            // Slot First, Growing Replaces the Array
+            int slot = dayTotalsSlot(day);
+            addTo(dayTotals, slot, totalPriceMinorUnits, quantitySold, 1);
+        }
+
+        long[] checksum = dayChecksums.computeIfAbsent(day, key -> new long[3]);
+        checksum[0]++;
+        checksum[1] += totalPriceMinorUnits;
+        checksum[2] += sale;
+    }
+
+    private static void addTo(long[] totals, int slot, long revenue, int quantity, int count) {
+        totals[slot] += revenue;
+        totals[slot + 1] += quantity;
+        totals[slot + 2] += count;
+    }
+
+    // Grows Day Totals Backwards or Forwards so the Day Fits, Returns Its First Slot
+    private int dayTotalsSlot(int day) {
+        int days = dayTotals.length / 3;
+        if (days == 0) {
+            firstDay = day;
+            dayTotals = new long[3];
+        } else if (day < firstDay) {
+            long[] grown = new long[(firstDay - day + days) * 3];
+            System.arraycopy(dayTotals, 0, grown, (firstDay - day) * 3, dayTotals.length);
+            dayTotals = grown;
+            firstDay = day;
+        } else if (day >= firstDay + days) {
+            dayTotals = Arrays.copyOf(dayTotals, (day - firstDay + 1) * 3);
+        }
+        return (day - firstDay) * 3;
+    }
+
+    private int genreCode(String genre) {
+        Integer code = genreCodes.get(genre);
+        if (code == null) {
+            code = genreCodes.size();
+            genreCodes.put(genre, code);
+            if (code == genreNames.length) {
+                genreNames = Arrays.copyOf(genreNames, code * 2);
+            }
+            genreNames[code] = genre;
+        }
+        return code;
+    }
+
+    private int authorCode(String author) {
+        Integer code = authorCodes.get(author);
+        if (code == null) {
+            code = authorCodes.size();
+            authorCodes.put(author, code);
+            if (code == authorNames.length) {
+                authorNames = Arrays.copyOf(authorNames, code * 2);
+            }
+            authorNames[code] = author;
+        }
+        return code;
+    }
+
+    // Arrays Are Only Written Past rows or Replaced on Growth, so a Snapshot Never Sees Half a Row.
+    // Book Mappings Are Copied Only After They Changed, Not on Every Appended Sale
+    private Snapshot snapshot() {
+        if (catalog == null) {
+            catalog = new Catalog(Arrays.copyOf(genreOfBook, bookCodes.size()), Arrays.copyOf(authorOfBook, bookCodes.size()),
+                    Arrays.copyOf(genreNames, genreCodes.size()), Arrays.copyOf(authorNames, authorCodes.size()));
+        }
+        return new Snapshot(rows, bookColumn, revenueColumn, quantityColumn, dayColumn, catalog);
+    }
+
+    public int size() {
+        return snapshot.rows();
+    }
+
+    // Revenue, Books Sold and Sales Count per Group, Null Dates Are Not Filtered On
+    public List<RevenueGroup> revenueBy(Dimension dimension, LocalDate from, LocalDate to) {
+        int fromDay = from != null ? (int) from.toEpochDay() : Integer.MIN_VALUE;
+        int toDay = to != null ? (int) to.toEpochDay() : Integer.MAX_VALUE;
+
+        if (dimension == Dimension.DAY) {
+            return revenueByDay(fromDay, toDay);
+        }
+        if (from == null && to == null) {
+            return revenueByBookTotals(dimension);
+        }
+        return revenueByScan(dimension, fromDay, toDay);
+    }
+
+    // Slice of Day Totals, No Row Is Read
+    private synchronized List<RevenueGroup> revenueByDay(int fromDay, int toDay) {
+        int days = dayTotals.length / 3;
+        int first = Math.max(fromDay, firstDay);
+        int last = Math.min(toDay, firstDay + days - 1);
+
+        List<RevenueGroup> result = new ArrayList<>();
+        for (int day = first; day <= last; day++) {
+            int slot = (day - firstDay) * 3;
+            if (dayTotals[slot + 2] > 0) {
+                result.add(new RevenueGroup(LocalDate.ofEpochDay(day).toString(),
+                        Money.ofMinor(dayTotals[slot]), dayTotals[slot + 1], dayTotals[slot + 2]));
+            }
+        }
+        return result;
+    }
+
+    // Book Totals Folded into Genres or Authors, No Row Is Read
+    private synchronized List<RevenueGroup> revenueByBookTotals(Dimension dimension) {
+        int[] keyOfBook = dimension == Dimension.GENRE ? genreOfBook : authorOfBook;
+        String[] keyNames = dimension == Dimension.GENRE ? genreNames : authorNames;
+        int keys = dimension == Dimension.GENRE ? genreCodes.size() : authorCodes.size();
+
+        Totals totals = new Totals(keys);
+        for (int book = 0; book < bookCodes.size(); book++) {
+            int slot = keyOfBook[book] * 3;
+            totals.sums[slot] += bookTotals[book * 3];
+            totals.sums[slot + 1] += bookTotals[book * 3 + 1];
+            totals.sums[slot + 2] += bookTotals[book * 3 + 2];
+        }
+        return totals.toGroups(keyNames);
+    }
+
+    // Parallel Scan of the Snapshot
+    private List<RevenueGroup> revenueByScan(Dimension dimension, int fromDay, int toDay) {
+        Snapshot columns = snapshot;
+        int[] keyOfBook = dimension == Dimension.GENRE ? columns.catalog().genreOfBook() : columns.catalog().authorOfBook();
+        String[] keyNames = dimension == Dimension.GENRE ? columns.catalog().genreNames() : columns.catalog().authorNames();
+
+        Aggregation aggregation = new Aggregation(columns, keyOfBook, keyNames.length, fromDay, toDay, 0, columns.rows());
+        Totals totals = columns.rows() > LEAF_ROWS ? ForkJoinPool.commonPool().invoke(aggregation) : aggregation.compute();
+        return totals.toGroups(keyNames);
+    }
+
+    // Groups with the Highest Revenue First
+    public List<RevenueGroup> topBy(Dimension dimension, int limit, LocalDate from, LocalDate to) {
+        return revenueBy(dimension, from, to).stream()
+                .sorted(Comparator.comparing(RevenueGroup::revenue).reversed().thenComparing(RevenueGroup::key))
+                .limit(limit)
+                .toList();
+    }
+
+    private record Catalog(int[] genreOfBook, int[] authorOfBook, String[] genreNames, String[] authorNames) {
+    }
+
+    private record Snapshot(int rows, int[] bookColumn, long[] revenueColumn, int[] quantityColumn, int[] dayColumn,
+                            Catalog catalog) {
+    }
+
+    // Sums One Slice of Rows into Per-Genre or Per-Author Totals, Splits Until Slices Fit LEAF_ROWS
+    private static class Aggregation extends RecursiveTask<Totals> {
+        private final Snapshot columns;
+        private final int[] keyOfBook;
+        private final int groups;
+        private final int fromDay;
+        private final int toDay;
+        private final int start;
+        private final int end;
+
+        Aggregation(Snapshot columns, int[] keyOfBook, int groups, int fromDay, int toDay, int start, int end) {
+            this.columns = columns;
+            this.keyOfBook = keyOfBook;
+            this.groups = groups;
+            this.fromDay = fromDay;
+            this.toDay = toDay;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (end - start > LEAF_ROWS) {
+                int middle = (start + end) >>> 1;
+                Aggregation left = new Aggregation(columns, keyOfBook, groups, fromDay, toDay, start, middle);
+                Aggregation right = new Aggregation(columns, keyOfBook, groups, fromDay, toDay, middle, end);
+                left.fork();
+                Totals totals = right.compute();
+                totals.add(left.join());
+                return totals;
+            }
+
+            Totals totals = new Totals(groups);
+            long[] sums = totals.sums;
+            int[] bookColumn = columns.bookColumn();
+            long[] revenueColumn = columns.revenueColumn();
+            int[] quantityColumn = columns.quantityColumn();
+            int[] dayColumn = columns.dayColumn();
+
+            for (int row = start; row < end; row++) {
+                int day = dayColumn[row];
+                // Rows Without a Date Never Match a Date Range
+                if (day < fromDay || day > toDay || day == NO_DAY) {
+                    continue;
+                }
+
+                int slot = keyOfBook[bookColumn[row]] * 3;
+                sums[slot] += revenueColumn[row];
+                sums[slot + 1] += quantityColumn[row];
+                sums[slot + 2]++;
+            }
+            return totals;
+        }
+    }
+
+    // Revenue, Quantity and Count of a Group Side by Side, One Cache Line Touch per Row
+    private static class Totals {
+        private final long[] sums;
+
+        Totals(int groups) {
+            sums = new long[groups * 3];
+        }
+
+        long revenue(int group) {
+            return sums[group * 3];
+        }
+
+        long quantity(int group) {
+            return sums[group * 3 + 1];
+        }
+
+        long count(int group) {
+            return sums[group * 3 + 2];
+        }
+
+        void add(Totals other) {
+            for (int slot = 0; slot < sums.length; slot++) {
+                sums[slot] += other.sums[slot];
+            }
+        }
+
+        List<RevenueGroup> toGroups(String[] keyNames) {
+            List<RevenueGroup> result = new ArrayList<>();
+            for (int group = 0; group < sums.length / 3; group++) {
+                if (count(group) > 0) {
+                    result.add(new RevenueGroup(keyNames[group], Money.ofMinor(revenue(group)), quantity(group), count(group)));
+                }
+            }
+            result.sort(Comparator.comparing(RevenueGroup::key));
+            return result;
+        }
+    }
+}
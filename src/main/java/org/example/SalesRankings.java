@@ -0,0 +1,366 @@
+package org.example;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// Best Sellers, Top Customers and Customer Lifetime Value, Each One SQL Statement.
+// Top-N Lists Aggregate Sales per Book or Customer and Cut to the Limit Before Joining Names In.
+// Trailing-Window Variants Are Served from a Cache Refreshed Every bookstore.rankings.refresh_seconds, 0 Turns It Off.
+// All Rankings Include Archived Sales
+public class SalesRankings implements AutoCloseable {
+    public static final String REFRESH_SECONDS = "bookstore.rankings.refresh_seconds";
+    private static final Logger logger = Logger.getLogger("org.example.rankings");
+
+    // Sales per Book Within the Date Range, Archived Days Are Already Summed per Book
+    private static final String BOOK_SALES = "SELECT book_id, SUM(quantity_sold) AS quantity, SUM(revenue) AS revenue FROM (" +
+            "SELECT book_id, quantity_sold, total_price AS revenue FROM sales WHERE date_of_sale BETWEEN :from AND :to " +
+            "UNION ALL SELECT book_id, quantity_sold, revenue FROM sales_archive WHERE sale_day BETWEEN :from AND :to) s " +
+            "GROUP BY book_id";
+
+    private static final String TOP_BOOKS = "SELECT t.book_id, b.title, b.author, b.genre, t.quantity, t.revenue, " +
+            "RANK() OVER (ORDER BY t.%1$s DESC) AS ranking " +
+            "FROM (" + BOOK_SALES + " ORDER BY %1$s DESC, book_id LIMIT :limit) t " +
+            "JOIN books b ON b.book_id = t.book_id ORDER BY ranking, t.book_id";
+
+    private static final String TOP_BOOKS_PER_GENRE = "SELECT book_id, title, author, genre, quantity, revenue, ranking FROM (" +
+            "SELECT t.book_id, b.title, b.author, b.genre, t.quantity, t.revenue, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.genre ORDER BY t.%1$s DESC, t.book_id) AS ranking " +
+            "FROM (" + BOOK_SALES + ") t " +
+            "JOIN books b ON b.book_id = t.book_id) ranked " +
+            "WHERE ranking <= :limit ORDER BY genre, ranking";
+
+    private static final String TOP_AUTHORS = "SELECT b.author, SUM(t.quantity) AS quantity, SUM(t.revenue) AS revenue, " +
+            "RANK() OVER (ORDER BY SUM(t.%s) DESC) AS ranking " +
+            "FROM (" + BOOK_SALES + ") t JOIN books b ON b.book_id = t.book_id " +
+            "GROUP BY b.author ORDER BY ranking, b.author LIMIT :limit";
+
+    private static final String TOP_CUSTOMERS = "SELECT t.customer_id, c.name, t.purchases, t.spend, " +
+            "RANK() OVER (ORDER BY t.spend DESC) AS ranking " +
+            "FROM (SELECT customer_id, SUM(purchases) AS purchases, SUM(spend) AS spend FROM (" +
+            customerSales("date_of_sale BETWEEN :from AND :to", "sale_day BETWEEN :from AND :to") + ") s " +
+            "GROUP BY customer_id ORDER BY spend DESC, customer_id LIMIT :limit) t " +
+            "JOIN customers c ON c.customer_id = t.customer_id ORDER BY ranking, t.customer_id";
+
+    private static final String CUSTOMER_SPENDS = "SELECT customer_id, SUM(spend) AS spend FROM (" +
+            customerSales("TRUE", "TRUE") + ") s GROUP BY customer_id";
+
+    // Only the Requested Customer's Rows, Found Through the customer_id Indexes
+    private static final String CUSTOMER_TOTALS = "SELECT t.customer_id, c.name, t.purchases, t.books, t.spend, " +
+            "t.first_purchase, t.last_purchase FROM (" +
+            "SELECT customer_id, SUM(purchases) AS purchases, SUM(books) AS books, SUM(spend) AS spend, " +
+            "MIN(sale_day) AS first_purchase, MAX(sale_day) AS last_purchase FROM (" +
+            customerSales("customer_id = :customerID", "customer_id = :customerID") + ") s GROUP BY customer_id) t " +
+            "JOIN customers c ON c.customer_id = t.customer_id";
+
+    // Rank Counts the Customers Who Spent More, a Plain Aggregate Without Sorting Every Customer
+    private static final String LIFETIME_VALUE = "WITH spends AS (" + CUSTOMER_SPENDS + ") " +
+            "SELECT v.*, (SELECT COUNT(*) FROM spends WHERE spends.spend > v.spend) + 1 AS spend_rank, " +
+            "(SELECT COUNT(*) FROM spends) AS customers FROM (" + CUSTOMER_TOTALS + ") v";
+
+    private final ReadReplicaRouter readRouter;
+    private final Map<String, CachedRanking> cache = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    public SalesRankings(SessionFactory sessionFactory) {
+        this(ReadReplicaRouter.primaryOnly(sessionFactory));
+    }
+
+    public SalesRankings(SessionFactory sessionFactory, long refreshSeconds) {
+        this(ReadReplicaRouter.primaryOnly(sessionFactory), refreshSeconds);
+    }
+
+    public SalesRankings(ReadReplicaRouter readRouter) {
+        this(readRouter, configuredRefreshSeconds(readRouter.getPrimary()));
+    }
+
+    // Every Query Asks the Router for a Session Factory, So It Follows Replica Lag and Read-Your-Writes
+    public SalesRankings(ReadReplicaRouter readRouter, long refreshSeconds) {
+        this.readRouter = readRouter;
+
+        if (refreshSeconds > 0) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().daemon().name("rankings-refresh").factory());
+            scheduler.scheduleWithFixedDelay(this::refresh, refreshSeconds, refreshSeconds, TimeUnit.SECONDS);
+        } else {
+            scheduler = null;
+        }
+    }
+
+    // Best-Selling Books Within Date Range
+    public List<BookRanking> topBooks(RankingMetric metric, LocalDate from, LocalDate to, int limit) {
+        return query(session -> session.createNativeQuery(TOP_BOOKS.formatted(metric.alias()), Object[].class)
+                .addScalar("book_id", Long.class)
+                .addScalar("title", String.class)
+                .addScalar("author", String.class)
+                .addScalar("genre", String.class)
+                .addScalar("quantity", Long.class)
+                .addScalar("revenue", Long.class)
+                .addScalar("ranking", Long.class)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setParameter("limit", limit)
+                .getResultList()
+                .stream()
+                .map(SalesRankings::bookRanking)
+                .toList());
+    }
+
+    // Best-Selling Books of Each Genre Within Date Range, limit per Genre
+    public List<BookRanking> topBooksPerGenre(RankingMetric metric, LocalDate from, LocalDate to, int limit) {
+        return query(session -> session.createNativeQuery(TOP_BOOKS_PER_GENRE.formatted(metric.alias()), Object[].class)
+                .addScalar("book_id", Long.class)
+                .addScalar("title", String.class)
+                .addScalar("author", String.class)
+                .addScalar("genre", String.class)
+                .addScalar("quantity", Long.class)
+                .addScalar("revenue", Long.class)
+                .addScalar("ranking", Long.class)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setParameter("limit", limit)
+                .getResultList()
+                .stream()
+                .map(SalesRankings::bookRanking)
+                .toList());
+    }
+
+    // Best-Selling Authors Within Date Range
+    public List<AuthorRanking> topAuthors(RankingMetric metric, LocalDate from, LocalDate to, int limit) {
+        return query(session -> session.createNativeQuery(TOP_AUTHORS.formatted(metric.alias()), Object[].class)
+                .addScalar("author", String.class)
+                .addScalar("quantity", Long.class)
+                .addScalar("revenue", Long.class)
+                .addScalar("ranking", Long.class)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setParameter("limit", limit)
+                .getResultList()
+                .stream()
+                .map(row -> new AuthorRanking((Long) row[3], (String) row[0], (Long) row[1], Money.ofMinor((Long) row[2])))
+                .toList());
+    }
+
+    // Customers Who Spent the Most Within Date Range
+    public List<CustomerRanking> topCustomers(LocalDate from, LocalDate to, int limit) {
+        return query(session -> session.createNativeQuery(TOP_CUSTOMERS, Object[].class)
+                .addScalar("customer_id", Long.class)
+                .addScalar("name", String.class)
+                .addScalar("purchases", Long.class)
+                .addScalar("spend", Long.class)
+                .addScalar("ranking", Long.class)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setParameter("limit", limit)
+                .getResultList()
+                .stream()
+                .map(row -> new CustomerRanking((Long) row[4], (Long) row[0], (String) row[1], (Long) row[2],
+                        Money.ofMinor((Long) row[3])))
+                .toList());
+    }
+
+    // Customer's Totals over All Purchases and Rank by Spend, Null If the Customer Never Bought Anything
+    public CustomerLifetimeValue customerLifetimeValue(Long customerID) {
+        return query(session -> session.createNativeQuery(LIFETIME_VALUE, Object[].class)
+                .addScalar("customer_id", Long.class)
+                .addScalar("name", String.class)
+                .addScalar("purchases", Long.class)
+                .addScalar("books", Long.class)
+                .addScalar("spend", Long.class)
+                .addScalar("first_purchase", LocalDate.class)
+                .addScalar("last_purchase", LocalDate.class)
+                .addScalar("spend_rank", Long.class)
+                .addScalar("customers", Long.class)
+                .setParameter("customerID", customerID)
+                .getResultList()
+                .stream()
+                .map(row -> lifetimeValue(row, (Long) row[7], (Long) row[8]))
+                .findFirst()
+                .orElse(null));
+    }
+
+    // Best-Selling Books of the Last days Days Including Today
+    public List<BookRanking> topBooks(RankingMetric metric, int days, int limit) {
+        return cached("books:" + metric + ":" + days + ":" + limit,
+                () -> topBooks(metric, windowStart(days), LocalDate.now(), limit));
+    }
+
+    // Best-Selling Books of Each Genre in the Last days Days
+    public List<BookRanking> topBooksPerGenre(RankingMetric metric, int days, int limit) {
+        return cached("books-per-genre:" + metric + ":" + days + ":" + limit,
+                () -> topBooksPerGenre(metric, windowStart(days), LocalDate.now(), limit));
+    }
+
+    // Best-Selling Authors of the Last days Days
+    public List<AuthorRanking> topAuthors(RankingMetric metric, int days, int limit) {
+        return cached("authors:" + metric + ":" + days + ":" + limit,
+                () -> topAuthors(metric, windowStart(days), LocalDate.now(), limit));
+    }
+
+    // Customers Who Spent the Most in the Last days Days
+    public List<CustomerRanking> topCustomers(int days, int limit) {
+        return cached("customers:" + days + ":" + limit, () -> topCustomers(windowStart(days), LocalDate.now(), limit));
+    }
+
+    // Customer Lifetime Value with Totals Read Live and the Rank Looked Up in Every Customer's Spend as of the Last
+    // Refresh, Which Loads All Customers Once Instead of Once per Customer Looked Up
+    public CustomerLifetimeValue cachedCustomerLifetimeValue(Long customerID) {
+        if (scheduler == null) {
+            return customerLifetimeValue(customerID);
+        }
+
+        long[] spends = cached("customer-spends", this::customerSpends);
+        return query(session -> session.createNativeQuery(CUSTOMER_TOTALS, Object[].class)
+                .addScalar("customer_id", Long.class)
+                .addScalar("name", String.class)
+                .addScalar("purchases", Long.class)
+                .addScalar("books", Long.class)
+                .addScalar("spend", Long.class)
+                .addScalar("first_purchase", LocalDate.class)
+                .addScalar("last_purchase", LocalDate.class)
+                .setParameter("customerID", customerID)
+                .getResultList()
+                .stream()
+                .map(row -> {
+                    long spentMore = spends.length - upperBound(spends, (Long) row[4]);
+                    // A Customer Whose First Purchase Came After the Refresh Is Not in spends Yet
+                    return lifetimeValue(row, spentMore + 1, Math.max(spends.length, spentMore + 1));
+                })
+                .findFirst()
+                .orElse(null));
+    }
+
+    // Spend of Every Customer with Purchases, Ascending
+    private long[] customerSpends() {
+        return query(session -> session.createNativeQuery(CUSTOMER_SPENDS, Object[].class)
+                .addScalar("customer_id", Long.class)
+                .addScalar("spend", Long.class)
+                .getResultList()
+                .stream()
+                .mapToLong(row -> (Long) row[1])
+                .sorted()
+                .toArray());
+    }
+
+    // Index of the First Spend Above spend
+    private static int upperBound(long[] spends, long spend) {
+        int low = 0;
+        int high = spends.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (spends[middle] <= spend) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    // Sales Rows and Archived Days of Customers as customer_id, purchases, books, spend, sale_day
+    private static String customerSales(String salesFilter, String archiveFilter) {
+        return "SELECT customer_id, 1 AS purchases, quantity_sold AS books, total_price AS spend, date_of_sale AS sale_day " +
+                "FROM sales WHERE " + salesFilter + " UNION ALL " +
+                "SELECT customer_id, purchases, books, spend, sale_day FROM customer_sales_archive WHERE " + archiveFilter;
+    }
+
+    private static CustomerLifetimeValue lifetimeValue(Object[] row, long spendRank, long customers) {
+        long purchases = (Long) row[2];
+        long spend = (Long) row[4];
+        return new CustomerLifetimeValue((Long) row[0], (String) row[1], purchases, (Long) row[3],
+                Money.ofMinor(spend), Money.ofMinor(Math.round((double) spend / purchases)),
+                (LocalDate) row[5], (LocalDate) row[6], spendRank, customers);
+    }
+
+    private static long configuredRefreshSeconds(SessionFactory sessionFactory) {
+        Object refresh = sessionFactory.getProperties().get(REFRESH_SECONDS);
+        return refresh != null ? Long.parseLong(refresh.toString()) : 0;
+    }
+
+    private static LocalDate windowStart(int days) {
+        if (days <= 0) {
+            throw new IllegalArgumentException("Window must be at least one day.");
+        }
+        return LocalDate.now().minusDays(days - 1);
+    }
+
+    private static BookRanking bookRanking(Object[] row) {
+        return new BookRanking((Long) row[6], (Long) row[0], (String) row[1], (String) row[2], (String) row[3],
+                (Long) row[4], Money.ofMinor((Long) row[5]));
+    }
+
+    private <T> T query(Function<Session, T> work) {
+        try (Session session = readRouter.forRead().openSession()) {
+            return work.apply(session);
+        }
+    }
+
+    // Loads on First Read, Afterwards the Scheduler Replaces the Value in the Background
+    @SuppressWarnings("unchecked")
+    private <T> T cached(String key, Supplier<T> loader) {
+        if (scheduler == null) {
+            return loader.get();
+        }
+
+        // Loaded Outside the Map, computeIfAbsent Would Block Other Keys of the Same Bin While the Query Runs.
+        // Concurrent First Reads of a Key May Both Query It, the First One Stored Is Kept
+        CachedRanking entry = cache.get(key);
+        if (entry == null) {
+            CachedRanking loaded = new CachedRanking((Supplier<Object>) loader);
+            entry = cache.putIfAbsent(key, loaded);
+            if (entry == null) {
+                entry = loaded;
+            }
+        }
+        entry.read = true;
+        return (T) entry.value;
+    }
+
+    // Recomputes Rankings Read Since the Last Refresh, Drops the Rest
+    private void refresh() {
+        for (Map.Entry<String, CachedRanking> entry : cache.entrySet()) {
+            CachedRanking ranking = entry.getValue();
+            if (!ranking.read) {
+                cache.remove(entry.getKey(), ranking);
+                continue;
+            }
+
+            ranking.read = false;
+            try {
+                ranking.value = ranking.loader.get();
+            } catch (RuntimeException e) {
+                // Keeps Serving the Previous Value, Next Refresh Tries Again
+                logger.log(Level.WARNING, "Refreshing " + entry.getKey() + " failed", e);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        cache.clear();
+    }
+
+    private static class CachedRanking {
+        private final Supplier<Object> loader;
+        private volatile Object value;
+        private volatile boolean read;
+
+        CachedRanking(Supplier<Object> loader) {
+            this.loader = loader;
+            this.value = loader.get();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package org.example;
+
+import java.time.LocalDate;
+
+// Null Fields Are Not Filtered On
+public record SalesReportFilter(LocalDate from, LocalDate to, Long customerID, String genre, String author) {
+
+    public static SalesReportFilter none() {
+        return new SalesReportFilter(null, null, null, null, null);
+    }
+}
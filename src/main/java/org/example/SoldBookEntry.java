@@ -0,0 +1,6 @@
+package org.example;
+
+import java.time.LocalDate;
+
+public record SoldBookEntry(Long saleID, String customerName, String bookTitle, LocalDate dateOfSale) {
+}
@@ -0,0 +1,53 @@
+package org.example;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+// Bootstrap Duration and Time to First Query, Both Measured from JVM Start
+public class StartupMetrics {
+    private static final Logger logger = Logger.getLogger("org.example.startup");
+
+    private static final AtomicLong sessionFactoryReadyMillis = new AtomicLong(-1);
+    private static final AtomicLong bootstrapMillis = new AtomicLong(-1);
+    private static final AtomicLong firstQueryMillis = new AtomicLong(-1);
+
+    private StartupMetrics() {
+    }
+
+    public static void recordSessionFactoryReady(long bootstrapNanos) {
+        bootstrapMillis.set(bootstrapNanos / 1_000_000);
+        sessionFactoryReadyMillis.set(uptimeMillis());
+    }
+
+    // Called After Every JDBC Statement, Only the First Call Does Any Work
+    public static void recordQuery() {
+        if (firstQueryMillis.get() < 0 && firstQueryMillis.compareAndSet(-1, uptimeMillis())) {
+            logger.info("Time to first query: " + firstQueryMillis.get() + " ms after JVM start, session factory built in "
+                    + bootstrapMillis.get() + " ms");
+        }
+    }
+
+    public static long getBootstrapMillis() {
+        return bootstrapMillis.get();
+    }
+
+    public static long getSessionFactoryReadyMillis() {
+        return sessionFactoryReadyMillis.get();
+    }
+
+    public static long getFirstQueryMillis() {
+        return firstQueryMillis.get();
+    }
+
+    // Prints Startup Timings, -1 Means Not Reached Yet
+    public static void print(PrintStream out) {
+        out.printf("Bootstrap: %d ms, Session Factory Ready: %d ms, First Query: %d ms after JVM start%n",
+                getBootstrapMillis(), getSessionFactoryReadyMillis(), getFirstQueryMillis());
+    }
+
+    private static long uptimeMillis() {
+        return ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+}
@@ -0,0 +1,45 @@
+package org.example;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+
+import java.util.logging.Logger;
+
+// Runs Cheap Queries Once So Connections, JDBC Driver Classes and Hibernate's Query Plans
+// Are Ready Before the First Real Request
+public class StartupWarmup {
+    public static final String ENABLED = "bookstore.warmup.enabled";
+    private static final Logger logger = Logger.getLogger("org.example.startup");
+
+    private static final String[] ENTITIES = {"Book", "Customer", "Sale", "GenreRevenueTotal", "GenreDailyRevenue"};
+
+    private StartupWarmup() {
+    }
+
+    public static boolean isEnabled(SessionFactory sessionFactory) {
+        return Boolean.parseBoolean(String.valueOf(sessionFactory.getProperties().get(ENABLED)));
+    }
+
+    // Failures Are Only Logged, a Cold Start Is Still Better Than No Start
+    public static void run(SessionFactory sessionFactory) {
+        long start = System.nanoTime();
+
+        try {
+            try (Session session = sessionFactory.openSession()) {
+                for (String entity : ENTITIES) {
+                    session.createQuery("FROM " + entity, Object.class)
+                            .setMaxResults(1)
+                            .getResultList();
+                }
+            }
+
+            BookstoreService service = new BookstoreService(sessionFactory);
+            service.reportOfSoldBooksPage(null, 1);
+            service.reportOfTotalRevenueFromEachGenre();
+
+            logger.info("Warm-up finished in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        } catch (RuntimeException e) {
+            logger.warning("Warm-up failed: " + e.getMessage());
+        }
+    }
+}
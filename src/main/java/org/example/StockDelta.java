@@ -0,0 +1,17 @@
+package org.example;
+
+public record StockDelta(Long bookID, int delta) {
+
+    // Parses CSV Line: book_id,delta
+    public static StockDelta fromCsv(String line) {
+        String[] fields = line.split(",");
+        if (fields.length != 2) {
+            throw new IllegalArgumentException("Expected 2 fields but found " + fields.length + ": " + line);
+        }
+
+        return new StockDelta(
+                Long.parseLong(fields[0].trim()),
+                Integer.parseInt(fields[1].trim())
+        );
+    }
+}
@@ -0,0 +1,7 @@
+\c bookstore_db;
+
+-- Entities reserve 50 IDs per sequence call (pooled-lo optimizer),
+-- so each sequence must advance by the same allocation size.
+ALTER SEQUENCE books_book_id_seq INCREMENT BY 50;
+ALTER SEQUENCE customers_customer_id_seq INCREMENT BY 50;
+ALTER SEQUENCE sales_sale_id_seq INCREMENT BY 50;
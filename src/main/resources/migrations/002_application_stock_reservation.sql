@@ -0,0 +1,6 @@
+\c bookstore_db;
+
+-- Stock is now reserved by the application with a conditional UPDATE in the
+-- same transaction as the sale insert, so the trigger would decrement twice.
+DROP TRIGGER IF EXISTS update_quantity_trigger ON sales;
+DROP FUNCTION IF EXISTS update_quantity_in_stock();
@@ -0,0 +1,28 @@
+\c bookstore_db;
+
+-- Revenue per genre, maintained incrementally with every committed sale
+CREATE TABLE genre_revenue (
+    genre VARCHAR(30) PRIMARY KEY,
+    total_revenue DOUBLE PRECISION NOT NULL,
+    sales_count BIGINT NOT NULL
+);
+
+-- Revenue per genre and day of sale
+CREATE TABLE genre_daily_revenue (
+    genre VARCHAR(30) NOT NULL,
+    sale_day DATE NOT NULL,
+    revenue DOUBLE PRECISION NOT NULL,
+    sales_count BIGINT NOT NULL,
+    PRIMARY KEY (genre, sale_day)
+);
+
+INSERT INTO genre_revenue (genre, total_revenue, sales_count)
+    SELECT b.genre, SUM(CAST(s.total_price AS DOUBLE PRECISION)), COUNT(*)
+    FROM sales s JOIN books b ON b.book_id = s.book_id
+    GROUP BY b.genre;
+
+INSERT INTO genre_daily_revenue (genre, sale_day, revenue, sales_count)
+    SELECT b.genre, s.date_of_sale, SUM(CAST(s.total_price AS DOUBLE PRECISION)), COUNT(*)
+    FROM sales s JOIN books b ON b.book_id = s.book_id
+    WHERE s.date_of_sale IS NOT NULL
+    GROUP BY b.genre, s.date_of_sale;
@@ -0,0 +1,8 @@
+\c bookstore_db;
+
+-- Built without blocking writes; must run outside a transaction block
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_sales_date_of_sale ON sales (date_of_sale);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_sales_customer_id ON sales (customer_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_sales_book_id ON sales (book_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_books_genre ON books (genre);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_books_author ON books (author);
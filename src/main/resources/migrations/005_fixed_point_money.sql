@@ -0,0 +1,27 @@
+\c bookstore_db;
+
+BEGIN;
+
+-- Money is stored as exact minor units (cents) instead of REAL
+ALTER TABLE books ALTER COLUMN price TYPE BIGINT USING ROUND(price::NUMERIC * 100);
+ALTER TABLE sales ALTER COLUMN total_price TYPE BIGINT USING ROUND(total_price::NUMERIC * 100);
+
+ALTER TABLE genre_revenue ALTER COLUMN total_revenue TYPE BIGINT USING ROUND(total_revenue::NUMERIC * 100);
+ALTER TABLE genre_daily_revenue ALTER COLUMN revenue TYPE BIGINT USING ROUND(revenue::NUMERIC * 100);
+
+-- The floating point summaries have drifted, recompute them exactly from the converted sales
+DELETE FROM genre_daily_revenue;
+DELETE FROM genre_revenue;
+
+INSERT INTO genre_revenue (genre, total_revenue, sales_count)
+    SELECT b.genre, SUM(s.total_price), COUNT(*)
+    FROM sales s JOIN books b ON b.book_id = s.book_id
+    GROUP BY b.genre;
+
+INSERT INTO genre_daily_revenue (genre, sale_day, revenue, sales_count)
+    SELECT b.genre, s.date_of_sale, SUM(s.total_price), COUNT(*)
+    FROM sales s JOIN books b ON b.book_id = s.book_id
+    WHERE s.date_of_sale IS NOT NULL
+    GROUP BY b.genre, s.date_of_sale;
+
+COMMIT;
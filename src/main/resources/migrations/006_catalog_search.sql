@@ -0,0 +1,8 @@
+\c bookstore_db;
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Trigram indexes serve ILIKE substring and prefix matches and the <% word similarity operator
+-- Built without blocking writes; must run outside a transaction block
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_books_title_trgm ON books USING gin (title gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_books_author_trgm ON books USING gin (author gin_trgm_ops);
@@ -0,0 +1,24 @@
+\c bookstore_db;
+
+BEGIN;
+
+-- A cart of books checked out in one transaction, its lines are rows in sales
+CREATE TABLE orders (
+    order_id BIGINT PRIMARY KEY,
+    customer_id INTEGER NOT NULL REFERENCES customers(customer_id),
+    date_of_order DATE NOT NULL,
+    total_price BIGINT NOT NULL CHECK(total_price >= 0)
+);
+
+-- Same pooled-lo allocation size as the other entity sequences
+CREATE SEQUENCE orders_order_id_seq INCREMENT BY 50 OWNED BY orders.order_id;
+
+CREATE INDEX idx_orders_customer_id ON orders (customer_id);
+
+-- Sales made one book at a time keep a null order
+ALTER TABLE sales ADD COLUMN order_id BIGINT REFERENCES orders(order_id);
+
+COMMIT;
+
+-- Built without blocking sales; must run outside a transaction block
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_sales_order_id ON sales (order_id);
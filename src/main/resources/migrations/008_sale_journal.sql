@@ -0,0 +1,8 @@
+\c bookstore_db;
+
+-- Last sequence of each write-behind sale journal that reached the sales table,
+-- advanced in the same transaction as the sales so a replay never inserts twice
+CREATE TABLE sale_journal_checkpoints (
+    journal_name VARCHAR(100) PRIMARY KEY,
+    last_sequence BIGINT NOT NULL
+);
@@ -0,0 +1,4 @@
+\c bookstore_db;
+
+-- Customers are looked up by phone at the till; emails already have a unique index
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_customers_phone ON customers (phone);
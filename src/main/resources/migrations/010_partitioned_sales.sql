@@ -0,0 +1,64 @@
+\c bookstore_db;
+
+BEGIN;
+
+-- Creates the monthly partitions of sales from first_month through last_month that do not exist yet.
+-- A month must get its partition before sales for it arrive, rows already in the default partition block it
+CREATE OR REPLACE FUNCTION create_sales_partitions(first_month DATE, last_month DATE)
+RETURNS INTEGER AS $$
+DECLARE
+    month DATE := date_trunc('month', first_month);
+    partition_name TEXT;
+    created INTEGER := 0;
+BEGIN
+    WHILE month <= last_month LOOP
+        partition_name := 'sales_' || to_char(month, 'YYYY_MM');
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format('CREATE TABLE %I PARTITION OF sales FOR VALUES FROM (%L) TO (%L)',
+                    partition_name, month, (month + INTERVAL '1 month')::DATE);
+            -- Sale IDs come from one sequence, so a key per partition keeps them unique everywhere
+            EXECUTE format('ALTER TABLE %I ADD PRIMARY KEY (sale_id)', partition_name);
+            created := created + 1;
+        END IF;
+        month := month + INTERVAL '1 month';
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Sales are range partitioned by month of sale, so date-bounded queries only read the months they cover
+ALTER TABLE sales RENAME TO sales_unpartitioned;
+
+CREATE TABLE sales (
+    sale_id BIGINT NOT NULL,
+    book_id INTEGER NOT NULL REFERENCES books(book_id),
+    customer_id INTEGER NOT NULL REFERENCES customers(customer_id),
+    date_of_sale DATE,
+    quantity_sold INTEGER NOT NULL CHECK(quantity_sold >= 0),
+    total_price BIGINT NOT NULL CHECK(total_price >= 0),
+    order_id BIGINT REFERENCES orders(order_id)
+) PARTITION BY RANGE (date_of_sale);
+
+-- Undated sales, and months nobody created a partition for, end up here
+CREATE TABLE sales_default PARTITION OF sales DEFAULT;
+ALTER TABLE sales_default ADD PRIMARY KEY (sale_id);
+
+SELECT create_sales_partitions(COALESCE(MIN(date_of_sale), CURRENT_DATE),
+        (GREATEST(MAX(date_of_sale), CURRENT_DATE) + INTERVAL '3 months')::DATE)
+    FROM sales_unpartitioned;
+
+INSERT INTO sales (sale_id, book_id, customer_id, date_of_sale, quantity_sold, total_price, order_id)
+    SELECT sale_id, book_id, customer_id, date_of_sale, quantity_sold, total_price, order_id
+    FROM sales_unpartitioned;
+
+-- The sequence belonged to the old table and would be dropped with it
+ALTER SEQUENCE sales_sale_id_seq OWNED BY sales.sale_id;
+DROP TABLE sales_unpartitioned;
+
+-- Indexes on the parent are created on every partition, present and future
+CREATE INDEX idx_sales_date_of_sale ON sales (date_of_sale);
+CREATE INDEX idx_sales_customer_id ON sales (customer_id);
+CREATE INDEX idx_sales_book_id ON sales (book_id);
+CREATE INDEX idx_sales_order_id ON sales (order_id);
+
+COMMIT;
@@ -0,0 +1,11 @@
+\c bookstore_db;
+
+-- Sales of months past the retention window, one row per book and day of sale
+CREATE TABLE sales_archive (
+    book_id INTEGER NOT NULL REFERENCES books(book_id),
+    sale_day DATE NOT NULL,
+    quantity_sold BIGINT NOT NULL,
+    revenue BIGINT NOT NULL,
+    sales_count BIGINT NOT NULL,
+    PRIMARY KEY (book_id, sale_day)
+);
@@ -0,0 +1,7 @@
+\c bookstore_db;
+
+-- GiST trigram indexes return books in word similarity distance order (<<->), so catalog search reads only
+-- the best candidates of each match tier instead of every match; the GIN indexes of 006 still serve plain filters
+-- Built without blocking writes; must run outside a transaction block
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_books_title_trgm_gist ON books USING gist (title gist_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_books_author_trgm_gist ON books USING gist (author gist_trgm_ops);
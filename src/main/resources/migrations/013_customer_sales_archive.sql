@@ -0,0 +1,12 @@
+\c bookstore_db;
+
+-- Archived sales per customer and day, so customer rankings and lifetime value still count archived months.
+-- Months archived before this migration were only kept per book and are missing from customer totals
+CREATE TABLE customer_sales_archive (
+    customer_id INTEGER NOT NULL REFERENCES customers(customer_id),
+    sale_day DATE NOT NULL,
+    purchases BIGINT NOT NULL,
+    books BIGINT NOT NULL,
+    spend BIGINT NOT NULL,
+    PRIMARY KEY (customer_id, sale_day)
+);